@@ -0,0 +1,44 @@
+package com.gaspar.gw2sdk.benchmarks;
+
+import com.gaspar.gw2sdk.auth.ApiKey;
+import com.gaspar.gw2sdk.auth.ApiPermission;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the construction of an {@link ApiKey}, which includes the validation of the token and the permissions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ApiKeyBenchmark {
+
+    private final String token = BenchmarkData.API_KEY_TOKEN;
+
+    @Benchmark
+    public ApiKey createApiKey() {
+        return ApiKey.builder()
+                .token(token)
+                .build();
+    }
+
+    @Benchmark
+    public ApiKey createApiKeyWithPermissions() {
+        return ApiKey.builder()
+                .token(token)
+                .permissions(ApiPermission.ALL_PERMISSIONS)
+                .build();
+    }
+}
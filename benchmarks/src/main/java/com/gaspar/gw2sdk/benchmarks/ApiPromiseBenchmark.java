@@ -0,0 +1,88 @@
+package com.gaspar.gw2sdk.benchmarks;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.gaspar.gw2sdk.ApiPromise;
+import com.gaspar.gw2sdk.ApiResponse;
+import com.gaspar.gw2sdk.collections.LongIdSet;
+import com.gaspar.gw2sdk.concurrent.SdkExecutors;
+import com.gaspar.gw2sdk.http.HttpResponse;
+import com.gaspar.gw2sdk.serialization.DeserializationProfile;
+import com.gaspar.gw2sdk.serialization.SdkDeserialization;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the creation of an {@link ApiPromise} from an already completed raw response, and the dispatch of
+ * its callbacks. With the 'direct' executors, this is the overhead of the promise itself, while with 'forkJoin'
+ * it also includes the hand-off to the executors.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ApiPromiseBenchmark {
+
+    private static final TypeReference<LongIdSet> ID_SET = new TypeReference<>() {};
+
+    @Param({"direct", "forkJoin"})
+    private String executors;
+
+    private Executor executor;
+    private SdkDeserialization deserialization;
+    private HttpResponse successfulResponse;
+    private HttpResponse errorResponse;
+
+    @Setup
+    public void setUp() {
+        executor = executors.equals("direct") ? Runnable::run : SdkExecutors.forkJoinPool();
+        deserialization = SdkDeserialization.forProfile(DeserializationProfile.DEFAULT);
+        successfulResponse = new HttpResponse(BenchmarkData.idsJson(100), 200);
+        errorResponse = new HttpResponse("{\"text\":\"Internal server error\"}", 500);
+    }
+
+    @Benchmark
+    public Optional<ApiResponse<LongIdSet>> createPromise() {
+        return createPromise(successfulResponse).getResponse();
+    }
+
+    /**
+     * Deserializes a fresh response, since the deserialized data is remembered by the response.
+     */
+    @Benchmark
+    public void successCallback(Blackhole blackhole) {
+        var freshResponse = new HttpResponse(successfulResponse.body(), successfulResponse.bodyLength(), 200, successfulResponse.headers(), successfulResponse.bodyLength());
+        createPromise(freshResponse)
+                .onSuccess(blackhole::consume)
+                .join();
+    }
+
+    @Benchmark
+    public void allCallbacksOnError(Blackhole blackhole) {
+        createPromise(errorResponse)
+                .onSuccess(blackhole::consume)
+                .onError(blackhole::consume)
+                .onNoAnswer(() -> blackhole.consume(0))
+                .join();
+    }
+
+    private ApiPromise<LongIdSet> createPromise(HttpResponse response) {
+        return ApiPromise.of(CompletableFuture.completedFuture(Optional.of(response)), ID_SET, deserialization, executor, executor);
+    }
+}
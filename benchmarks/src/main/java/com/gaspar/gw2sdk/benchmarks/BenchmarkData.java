@@ -0,0 +1,64 @@
+package com.gaspar.gw2sdk.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gaspar.gw2sdk.dto.AchievementDto;
+import com.gaspar.gw2sdk.dto.AchievementTierDto;
+
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+/**
+ * Realistic data used by the benchmarks.
+ */
+final class BenchmarkData {
+
+    static final String API_KEY_TOKEN = "924A8073-8EF2-2046-A7C7-3BC31911DB41C021088A-3AEA-4775-8D4B-6B374B79496B";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private BenchmarkData() {}
+
+    /**
+     * JSON array of achievements, like the ones returned by '/v2/achievements?ids=...'.
+     */
+    static String achievementsJson(int count) {
+        List<AchievementDto> achievements = LongStream.rangeClosed(1, count)
+                .mapToObj(BenchmarkData::achievement)
+                .collect(Collectors.toList());
+        return toJson(achievements);
+    }
+
+    /**
+     * JSON array of IDs, like the one returned by '/v2/achievements'.
+     */
+    static String idsJson(int count) {
+        return toJson(LongStream.rangeClosed(1, count).boxed().collect(Collectors.toList()));
+    }
+
+    private static AchievementDto achievement(long id) {
+        return new AchievementDto(
+                id,
+                "https://render.guildwars2.com/file/4D4A9B4D9D3A9E7B2E4C6C8B3A2F1E0D5C6B7A89/" + id + ".png",
+                "Achievement " + id,
+                "Complete the tasks of the story chapter " + id + " to earn this achievement.",
+                "Complete all of the following tasks.",
+                "Unlocked by completing the previous achievement.",
+                "Default",
+                List.of("Pvp", "CategoryDisplay", "Permanent"),
+                List.of(new AchievementTierDto(1, 5), new AchievementTierDto(5, 10), new AchievementTierDto(10, 15)),
+                List.of(id + 1000L),
+                null
+        );
+    }
+
+    private static String toJson(Object value) {
+        try {
+            return MAPPER.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.gaspar.gw2sdk.benchmarks;
+
+import com.gaspar.gw2sdk.MockUnderlyingHttpClient;
+import com.gaspar.gw2sdk.auth.ApiKey;
+import com.gaspar.gw2sdk.http.Gw2HttpClient;
+import com.gaspar.gw2sdk.http.HttpResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the end to end overhead of {@link Gw2HttpClient#fetchDataAsync(String)}, from building the request
+ * to completing the future, against a {@link MockUnderlyingHttpClient} that responds without delay.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Gw2HttpClientBenchmark {
+
+    @Param({"false", "true"})
+    private boolean authenticated;
+
+    @Param({"false", "true"})
+    private boolean coalesceRequests;
+
+    private Gw2HttpClient gw2HttpClient;
+
+    @Setup
+    public void setUp() {
+        var mockClient = new MockUnderlyingHttpClient();
+        mockClient.setRecordRequests(false);
+        mockClient.setMockResponse(BenchmarkData.idsJson(100));
+        gw2HttpClient = Gw2HttpClient.builder()
+                .underlyingHttpClient(mockClient)
+                .apiKey(authenticated ? ApiKey.builder().token(BenchmarkData.API_KEY_TOKEN).build() : null)
+                .coalesceRequests(coalesceRequests)
+                .build();
+    }
+
+    @Benchmark
+    public Optional<HttpResponse> fetchData() {
+        return gw2HttpClient.fetchDataAsync("/v2/achievements").join();
+    }
+}
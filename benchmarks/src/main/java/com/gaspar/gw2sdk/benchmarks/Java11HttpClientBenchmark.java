@@ -0,0 +1,102 @@
+package com.gaspar.gw2sdk.benchmarks;
+
+import com.gaspar.gw2sdk.http.HttpRequest;
+import com.gaspar.gw2sdk.http.HttpResponse;
+import com.gaspar.gw2sdk.http.Java11HttpClient;
+import com.sun.net.httpserver.HttpServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a fan-out of concurrent GET requests through {@link Java11HttpClient}, against a local server that
+ * answers with an ID list, for the configurations of the builder.
+ * <p>
+ * The JDK has no built-in HTTP/2 server, so the local server always answers with HTTP/1.1: the HTTP/2 configuration
+ * measures the cost of the upgrade attempt, and the effect of limiting the concurrent streams. The gain of
+ * multiplexing (fewer connections and TLS handshakes) only shows against the real API.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class Java11HttpClientBenchmark {
+
+    private static final int FAN_OUT = 200;
+
+    @Param({"HTTP_1_1", "HTTP_2"})
+    private HttpClient.Version httpVersion;
+
+    //0 means not limited
+    @Param({"0", "32"})
+    private int maxConcurrentStreams;
+
+    private HttpServer server;
+
+    private ExecutorService serverExecutor;
+
+    private Java11HttpClient client;
+
+    private HttpRequest request;
+
+    @Setup
+    public void setUp() throws IOException {
+        byte[] body = BenchmarkData.idsJson(100).getBytes(StandardCharsets.UTF_8);
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        serverExecutor = Executors.newFixedThreadPool(8);
+        server.setExecutor(serverExecutor);
+        server.createContext("/v2/achievements", exchange -> {
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+
+        client = Java11HttpClient.builder()
+                .httpVersion(httpVersion)
+                .maxConcurrentStreams(maxConcurrentStreams > 0 ? maxConcurrentStreams : null)
+                .build();
+        request = new HttpRequest(URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/v2/achievements"),
+                Optional.empty(), "latest");
+    }
+
+    @TearDown
+    public void tearDown() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Benchmark
+    public int fanOut() {
+        List<CompletableFuture<HttpResponse>> responses = new ArrayList<>(FAN_OUT);
+        for(int i = 0; i < FAN_OUT; i++) {
+            responses.add(client.httpGetAsync(request));
+        }
+        CompletableFuture.allOf(responses.toArray(CompletableFuture[]::new)).join();
+        return responses.size();
+    }
+}
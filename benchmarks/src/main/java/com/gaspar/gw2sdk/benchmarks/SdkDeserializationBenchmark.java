@@ -0,0 +1,71 @@
+package com.gaspar.gw2sdk.benchmarks;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.gaspar.gw2sdk.dto.AchievementDto;
+import com.gaspar.gw2sdk.serialization.DeserializationProfile;
+import com.gaspar.gw2sdk.serialization.SdkDeserialization;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the deserialization of achievement lists: 1 is a single object, 200 is a full '?ids=' page,
+ * and 2000 is a merged bulk response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SdkDeserializationBenchmark {
+
+    private static final TypeReference<List<AchievementDto>> ACHIEVEMENT_LIST = new TypeReference<>() {};
+
+    @Param({"1", "200", "2000"})
+    private int achievementCount;
+
+    @Param({"DEFAULT", "HIGH_PERFORMANCE"})
+    private DeserializationProfile profile;
+
+    private String json;
+    private byte[] jsonBytes;
+    private SdkDeserialization deserialization;
+
+    @Setup
+    public void setUp() {
+        json = BenchmarkData.achievementsJson(achievementCount);
+        jsonBytes = json.getBytes(StandardCharsets.UTF_8);
+        deserialization = SdkDeserialization.forProfile(profile);
+    }
+
+    @Benchmark
+    public List<AchievementDto> deserializeString() {
+        return deserialization.deserialize(json, ACHIEVEMENT_LIST);
+    }
+
+    @Benchmark
+    public List<AchievementDto> deserializeBytes() {
+        return deserialization.deserialize(jsonBytes, ACHIEVEMENT_LIST);
+    }
+
+    /**
+     * The static entry point, which always uses the default profile.
+     */
+    @Benchmark
+    public List<AchievementDto> deserializeDataStatic() {
+        return SdkDeserialization.deserializeData(json, ACHIEVEMENT_LIST);
+    }
+}
@@ -1,11 +1,16 @@
 package com.gaspar.gw2sdk;
 
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.gaspar.gw2sdk.http.Gw2HttpClient;
 import com.gaspar.gw2sdk.http.HttpClientRequiredException;
+import com.gaspar.gw2sdk.http.HttpResponse;
+import com.gaspar.gw2sdk.metrics.ApiOperationTag;
 import lombok.Getter;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * An API component is associated with a set of GW2 API endpoints (such as 'account API').
@@ -21,6 +26,33 @@ public class ApiComponent {
         this.gw2HttpClient = validateClientPresent(gw2HttpClient);
     }
 
+    /**
+     * Create a promise from a raw response, which will be processed according to the settings
+     * of the {@link Gw2HttpClient}, such as its deserialization profile and executors.
+     */
+    protected <T> ApiPromise<T> promiseOf(CompletableFuture<Optional<HttpResponse>> rawResponse, TypeReference<T> dataType) {
+        return promiseOf(rawResponse, dataType, ApiOperationTag.UNTAGGED);
+    }
+
+    /**
+     * Same as {@link #promiseOf(CompletableFuture, TypeReference)}, but the deserialization metrics are recorded
+     * for the given operation.
+     */
+    protected <T> ApiPromise<T> promiseOf(
+            CompletableFuture<Optional<HttpResponse>> rawResponse,
+            TypeReference<T> dataType,
+            ApiOperationTag operation
+    ) {
+        return ApiPromise.of(
+                rawResponse,
+                dataType,
+                gw2HttpClient.getDeserialization(),
+                gw2HttpClient.getDeserializationExecutor(),
+                gw2HttpClient.getCallbackExecutor(),
+                gw2HttpClient.getMetrics().forOperation(operation)
+        );
+    }
+
     private Gw2HttpClient validateClientPresent(@Nullable Gw2HttpClient client) throws HttpClientRequiredException {
         if(client == null) {
             throw new HttpClientRequiredException(getClass().getSimpleName());
@@ -1,19 +1,38 @@
 package com.gaspar.gw2sdk;
 
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.gaspar.gw2sdk.concurrent.SdkExecutors;
 import com.gaspar.gw2sdk.http.HttpResponse;
+import com.gaspar.gw2sdk.jfr.CallbackDispatchEvent;
+import com.gaspar.gw2sdk.metrics.ApiOperationTag;
+import com.gaspar.gw2sdk.metrics.SdkMetrics;
+import com.gaspar.gw2sdk.metrics.SdkMetrics.OperationMetrics;
+import com.gaspar.gw2sdk.serialization.DeserializationProfile;
+import com.gaspar.gw2sdk.serialization.SdkDeserialization;
 import lombok.extern.slf4j.Slf4j;
 
+import javax.annotation.Nonnull;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
 import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * Returned by the SDK after asynchronous GW2 API calls. You can attach callbacks to this promise:
  * <ul>
  *     <li>{@link #onSuccess(Consumer)}: Use it to attach a callback that is invoked with the response data.</li>
- *     <li>{@link #onError(Consumer)}: Use it to attach a callback that is invoked if the GW2 API returns an error (non 200 status code).</li>
+ *     <li>{@link #onError(Consumer)}: Use it to attach a callback that is invoked if the GW2 API returns an error (status code other than 200 and 206).</li>
  *     <li>{@link #onNoAnswer(Runnable)}: Use it to attach a callback that is invoked if the GW2 API fails to respond.</li>
  * </ul>
  * For example, to get the list of achievement IDs, and listen to the responses, you'd do:
@@ -24,78 +43,265 @@ import java.util.function.Consumer;
  *                 .onNoAnswer(() -> log.error("GW2 API failed to answer"))
  *                 .join(); //to wait for it to finish
  * }</pre>
- * @param <T>
+ * Callbacks can be attached at any time: if the operation has already finished, the matching callback is still
+ * invoked. Attaching more callbacks of the same kind invokes all of them.
+ * <p>
+ * The data is deserialized on the deserialization executor, and the callbacks (including the functions given
+ * to the combinators) run on the callback executor: see {@link com.gaspar.gw2sdk.http.Gw2HttpClient}. They never
+ * run on the thread that completes the request.
+ * <p>
+ * Promises can be composed without blocking, with {@link #map(Function)}, {@link #flatMap(Function)},
+ * {@link #zip(ApiPromise, BiFunction)} and {@link #allOf(List)}. If they are not enough, the promise can be
+ * converted with {@link #toCompletableFuture()}.
+ * @param <T> Type of the response data.
  */
 @Slf4j
 public class ApiPromise<T> {
 
-    private AtomicReference<Consumer<T>> onSuccess;
-    private AtomicReference<Consumer<ApiErrorData>> onError;
-    private AtomicReference<Runnable> onNoAnswer;
+    private final CompletableFuture<ApiResponse<T>> response;
 
-    private final CompletableFuture<Optional<HttpResponse>> rawResponse;
+    /**
+     * Same as {@link #response}, but completes only after the data is deserialized. It is only created if something
+     * needs the data, so that it is not deserialized otherwise.
+     */
+    private final AtomicReference<CompletableFuture<ApiResponse<T>>> deserializedResponse = new AtomicReference<>();
+
+    private final Executor deserializationExecutor;
 
-    private AtomicReference<ApiResponse<T>> apiResponse;
+    private final Executor callbackExecutor;
 
-    private ApiPromise(
+    /**
+     * Completes after the response and all callbacks attached so far have completed.
+     */
+    private final AtomicReference<CompletableFuture<?>> callbacksProcessed;
+
+    private ApiPromise(CompletableFuture<ApiResponse<T>> response, Executor deserializationExecutor, Executor callbackExecutor) {
+        this.response = response;
+        this.deserializationExecutor = deserializationExecutor;
+        this.callbackExecutor = callbackExecutor;
+        this.callbacksProcessed = new AtomicReference<>(response);
+    }
+
+    public static <T> ApiPromise<T> of(CompletableFuture<Optional<HttpResponse>> rawResponse, TypeReference<T> dataType) {
+        return of(rawResponse, dataType, SdkDeserialization.forProfile(DeserializationProfile.DEFAULT));
+    }
+
+    public static <T> ApiPromise<T> of(
             CompletableFuture<Optional<HttpResponse>> rawResponse,
-            TypeReference<T> dataType
+            TypeReference<T> dataType,
+            SdkDeserialization deserialization
     ) {
-        this.rawResponse = rawResponse;
-        initializeDefaultCallbacks();
-        initializeRequestFinishedListener(dataType);
+        return of(rawResponse, dataType, deserialization, SdkExecutors.forkJoinPool(), SdkExecutors.forkJoinPool());
     }
 
-    public static <T> ApiPromise<T> of(CompletableFuture<Optional<HttpResponse>> rawResponse, TypeReference<T> dataType) {
-        return new ApiPromise<>(rawResponse, dataType);
+    public static <T> ApiPromise<T> of(
+            CompletableFuture<Optional<HttpResponse>> rawResponse,
+            TypeReference<T> dataType,
+            SdkDeserialization deserialization,
+            Executor deserializationExecutor,
+            Executor callbackExecutor
+    ) {
+        return of(rawResponse, dataType, deserialization, deserializationExecutor, callbackExecutor,
+                SdkMetrics.noop().forOperation(ApiOperationTag.UNTAGGED));
+    }
+
+    public static <T> ApiPromise<T> of(
+            CompletableFuture<Optional<HttpResponse>> rawResponse,
+            TypeReference<T> dataType,
+            SdkDeserialization deserialization,
+            Executor deserializationExecutor,
+            Executor callbackExecutor,
+            OperationMetrics operationMetrics
+    ) {
+        //only classifies the response, which is cheap enough to do on the completing thread
+        var response = rawResponse.thenApply(gw2HttpResponse -> new ApiResponse<>(gw2HttpResponse, dataType, deserialization, operationMetrics));
+        return new ApiPromise<>(response, deserializationExecutor, callbackExecutor);
     }
 
-    private void initializeDefaultCallbacks() {
-        onSuccess = new AtomicReference<>(data -> log.warn("Successfully obtained data, but no 'onSuccess' callback is set. Ignoring result..."));
-        onError = new AtomicReference<>(errorData -> log.warn("GW2 API responded with error, but no 'onError' callback is set. Ignoring error..."));
-        onNoAnswer = new AtomicReference<>(() -> log.warn("GW2 API failed to respond, but no 'onNoAnswer' callback is set. Ignoring..."));
+    /**
+     * Create a promise that has already finished with the given response.
+     */
+    public static <T> ApiPromise<T> completed(@Nonnull ApiResponse<T> response) {
+        return new ApiPromise<>(CompletableFuture.completedFuture(response), SdkExecutors.forkJoinPool(), SdkExecutors.forkJoinPool());
     }
 
-    private void initializeRequestFinishedListener(TypeReference<T> dataType) {
-        rawResponse.thenAccept(gw2HttpResponse -> {
-            apiResponse = new AtomicReference<>(new ApiResponse<>(gw2HttpResponse, dataType));
-            if(apiResponse.get().isSuccessful()) {
-                onSuccess.get().accept(apiResponse.get().data().get());
-            } else if(apiResponse.get().isApiError()) {
-                onError.get().accept(apiResponse.get().errorData().get());
-            } else {
-                onNoAnswer.get().run();
+    /**
+     * Create a promise that finishes when all the given promises finish. It is successful if all of them are
+     * successful, and then its data is the list of their data, in the same order. It is partial if any of them
+     * is partial, with all of their missing IDs. Otherwise, it is the first (in the order of the list) response
+     * that is an error or has no answer.
+     */
+    public static <T> ApiPromise<List<T>> allOf(@Nonnull List<ApiPromise<T>> promises) {
+        @SuppressWarnings("unchecked")
+        CompletableFuture<ApiResponse<T>>[] responses = promises.stream()
+                .map(ApiPromise::deserializedResponse)
+                .toArray(CompletableFuture[]::new);
+        Executor deserializationExecutor = promises.isEmpty() ? SdkExecutors.forkJoinPool() : promises.get(0).deserializationExecutor;
+        Executor callbackExecutor = promises.isEmpty() ? SdkExecutors.forkJoinPool() : promises.get(0).callbackExecutor;
+        CompletableFuture<ApiResponse<List<T>>> combinedResponse = CompletableFuture.allOf(responses).thenApply(ignored -> {
+            List<T> allData = new ArrayList<>(responses.length);
+            List<ApiResponse<T>> allResponses = new ArrayList<>(responses.length);
+            for(CompletableFuture<ApiResponse<T>> future : responses) {
+                ApiResponse<T> response = future.join();
+                if(!response.isSuccessful()) {
+                    return response.withoutData();
+                }
+                allData.add(response.data().get());
+                allResponses.add(response);
             }
+            return ApiResponse.combined(allData, allResponses);
         });
+        return new ApiPromise<>(combinedResponse, deserializationExecutor, callbackExecutor);
     }
 
     /**
-     * Set the callback to be invoked if the operation is successful. The SDK will pass the deserialized
+     * Attach a callback to be invoked if the operation is successful. The SDK will pass the deserialized
      * data to your callback.
      */
-    public synchronized ApiPromise<T> onSuccess(Consumer<T> onSuccess) {
-        this.onSuccess.set(onSuccess);
-        return this;
+    public ApiPromise<T> onSuccess(Consumer<T> onSuccess) {
+        return addCallback(deserializedResponse().thenAcceptAsync(apiResponse -> {
+            if(apiResponse.isSuccessful()) {
+                T data = apiResponse.data().get();
+                dispatch("onSuccess", () -> onSuccess.accept(data));
+            }
+        }, callbackExecutor));
     }
 
     /**
-     * Set the callback to be invoked if the operation resulted in an API error. The SDK will pass the
+     * Attach a callback to be invoked if the operation resulted in an API error. The SDK will pass the
      * {@link ApiErrorData} to your callback.
      */
-    public synchronized ApiPromise<T> onError(Consumer<ApiErrorData> onError) {
-        this.onError.set(onError);
-        return this;
+    public ApiPromise<T> onError(Consumer<ApiErrorData> onError) {
+        return addCallback(response.thenAcceptAsync(apiResponse -> {
+            if(apiResponse.isApiError()) {
+                ApiErrorData errorData = apiResponse.errorData().get();
+                dispatch("onError", () -> onError.accept(errorData));
+            }
+        }, callbackExecutor));
     }
 
     /**
-     * Set the callback to be invoked if the operation received no answer at all from the API. It can be because
+     * Attach a callback to be invoked if the operation received no answer at all from the API. It can be because
      * of a timeout, for example.
      */
-    public synchronized ApiPromise<T> onNoAnswer(Runnable onNoAnswer) {
-        this.onNoAnswer.set(onNoAnswer);
+    public ApiPromise<T> onNoAnswer(Runnable onNoAnswer) {
+        return addCallback(response.thenAcceptAsync(apiResponse -> {
+            if(apiResponse.isNoAnswer()) {
+                dispatch("onNoAnswer", onNoAnswer);
+            }
+        }, callbackExecutor));
+    }
+
+    private static void dispatch(String callbackType, Runnable callback) {
+        CallbackDispatchEvent event = new CallbackDispatchEvent();
+        if(!event.isEnabled()) {
+            callback.run();
+            return;
+        }
+        event.begin();
+        try {
+            callback.run();
+        } finally {
+            event.end();
+            if(event.shouldCommit()) {
+                event.setCallbackType(callbackType);
+                event.commit();
+            }
+        }
+    }
+
+    private ApiPromise<T> addCallback(CompletableFuture<Void> callback) {
+        callbacksProcessed.accumulateAndGet(callback, CompletableFuture::allOf);
         return this;
     }
 
+    /**
+     * Get the future which completes after the data is deserialized on the deserialization executor,
+     * creating it if this is the first time the data is needed.
+     */
+    private CompletableFuture<ApiResponse<T>> deserializedResponse() {
+        CompletableFuture<ApiResponse<T>> current = deserializedResponse.get();
+        if(current != null) {
+            return current;
+        }
+        CompletableFuture<ApiResponse<T>> created = new CompletableFuture<>();
+        if(!deserializedResponse.compareAndSet(null, created)) {
+            return deserializedResponse.get();
+        }
+        response.whenCompleteAsync((apiResponse, throwable) -> {
+            if(throwable != null) {
+                created.completeExceptionally(throwable);
+                return;
+            }
+            try {
+                apiResponse.data(); //memoized in the response
+                created.complete(apiResponse);
+            } catch (RuntimeException e) {
+                created.completeExceptionally(e);
+            }
+        }, deserializationExecutor);
+        return created;
+    }
+
+    private <R> ApiPromise<R> derivedPromise(CompletableFuture<ApiResponse<R>> derivedResponse) {
+        return new ApiPromise<>(derivedResponse, deserializationExecutor, callbackExecutor);
+    }
+
+    /**
+     * Create a promise which transforms the data of this promise, if it is successful. Errors and missing
+     * answers are passed on unchanged.
+     */
+    public <R> ApiPromise<R> map(@Nonnull Function<? super T, ? extends R> mapper) {
+        return derivedPromise(deserializedResponse().thenApplyAsync(apiResponse -> apiResponse.map(mapper), callbackExecutor));
+    }
+
+    /**
+     * Same as {@link #map(Function)}, but the mapper runs on the given executor instead of the callback executor.
+     * Use this for mappers that block, for example with file I/O, so that they don't occupy the callback executor.
+     */
+    public <R> ApiPromise<R> mapAsync(@Nonnull Function<? super T, ? extends R> mapper, @Nonnull Executor executor) {
+        return derivedPromise(deserializedResponse().thenApplyAsync(apiResponse -> apiResponse.map(mapper), executor));
+    }
+
+    /**
+     * Create a promise which continues with another operation, if this promise is successful. Errors and missing
+     * answers are passed on unchanged, without starting the other operation.
+     */
+    public <R> ApiPromise<R> flatMap(@Nonnull Function<? super T, ApiPromise<R>> mapper) {
+        return derivedPromise(deserializedResponse().thenComposeAsync(apiResponse -> {
+            if(apiResponse.isSuccessful()) {
+                return mapper.apply(apiResponse.data().get()).response;
+            }
+            return CompletableFuture.completedFuture(apiResponse.withoutData());
+        }, callbackExecutor));
+    }
+
+    /**
+     * Create a promise which combines the data of this and the other promise, if both are successful. It is
+     * partial if any of them is partial, with the missing IDs of both. Otherwise, it is the response of this
+     * promise if that is not successful, or the response of the other promise.
+     */
+    public <U, R> ApiPromise<R> zip(@Nonnull ApiPromise<U> other, @Nonnull BiFunction<? super T, ? super U, ? extends R> combiner) {
+        return derivedPromise(deserializedResponse().thenCombineAsync(other.deserializedResponse(), (thisResponse, otherResponse) -> {
+            if(!thisResponse.isSuccessful()) {
+                return thisResponse.withoutData();
+            }
+            if(!otherResponse.isSuccessful()) {
+                return otherResponse.withoutData();
+            }
+            R combined = combiner.apply(thisResponse.data().get(), otherResponse.data().get());
+            return ApiResponse.combined(combined, List.of(thisResponse, otherResponse));
+        }, callbackExecutor));
+    }
+
+    /**
+     * Get a future which completes with the response. Completing or cancelling the returned future does not
+     * affect this promise.
+     */
+    public CompletableFuture<ApiResponse<T>> toCompletableFuture() {
+        return response.copy();
+    }
+
     /**
      * Get the response object: {@link ApiResponse}. If the request has not completed at the time of calling this
      * method, an empty optional will be returned.
@@ -116,24 +322,48 @@ public class ApiPromise<T> {
      * }</pre>
      * Due to the clumsiness of this approach, it is recommended to use the callbacks to process the response instead.
      */
-    public synchronized Optional<ApiResponse<T>> getResponse() {
-        return Optional.ofNullable(apiResponse)
-                .map(AtomicReference::get);
+    public Optional<ApiResponse<T>> getResponse() {
+        if(!response.isDone() || response.isCompletedExceptionally()) {
+            return Optional.empty();
+        }
+        return Optional.of(response.join());
+    }
+
+    /**
+     * Used to check if the operation has finished, including the callbacks attached so far. It can finish on
+     * success, on error, or if no response arrives.
+     */
+    public boolean isDone() {
+        return callbacksProcessed.get().isDone();
     }
 
     /**
-     * Used to check if the operation has finished. It can finish on success, on error, or if no response arrives.
+     * Block the current thread until the operation and the callbacks attached so far finish. Note that any
+     * exception triggered by the callbacks, or cancellation will be rethrown by this method.
      */
-    public synchronized boolean isDone() {
-        return rawResponse.isDone();
+    public void join() {
+        callbacksProcessed.get().join();
     }
 
     /**
-     * Block the current thread until the operation finishes. Note that any exception triggered by the
-     * callbacks, or cancellation will be rethrown by this method.
+     * Block the current thread until the operation and the callbacks attached so far finish, or the timeout
+     * passes. This parks the thread without holding any monitor, so it is suitable for virtual threads.
+     * @param timeout Maximum time to wait.
+     * @return The response. In case of timeout, a response with no answer is returned.
+     * @throws InterruptedException If the thread is interrupted while waiting.
+     * @throws CompletionException If the operation or a callback failed with an exception.
+     * @throws CancellationException If the operation was cancelled.
      */
-    public synchronized void join() {
-        rawResponse.join();
+    public ApiResponse<T> await(@Nonnull Duration timeout) throws InterruptedException {
+        try {
+            callbacksProcessed.get().get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+            return response.join();
+        } catch (TimeoutException e) {
+            log.warn("The operation did not finish in {}, considering it as no answer", timeout);
+            return ApiResponse.noAnswer();
+        } catch (ExecutionException e) {
+            throw new CompletionException(e.getCause());
+        }
     }
 
 }
@@ -1,19 +1,30 @@
 package com.gaspar.gw2sdk;
 
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.gaspar.gw2sdk.collections.LongIdSet;
 import com.gaspar.gw2sdk.http.HttpResponse;
+import com.gaspar.gw2sdk.metrics.ApiOperationTag;
+import com.gaspar.gw2sdk.metrics.SdkMetrics;
+import com.gaspar.gw2sdk.metrics.SdkMetrics.OperationMetrics;
+import com.gaspar.gw2sdk.serialization.DeserializationProfile;
 import com.gaspar.gw2sdk.serialization.SdkDeserialization;
+import com.gaspar.gw2sdk.serialization.SdkDeserializationException;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 
 /**
  * Formatted response from the API. This response can have 3 main states:
  * <ol>
  *     <li>
  *         {@link #isSuccessful()}: The API has responded with a correct response. You can get it with {@link #data()}.
+ *         This includes partial responses ({@link #isPartial()}), where some of the requested IDs were missing.
  *     </li>
  *     <li>
  *         {@link #isApiError()}: The API has responded with an error response (such as HTTP 500).
@@ -23,13 +34,31 @@ import java.util.Optional;
  *         {@link #isNoAnswer()}: The API has not responded at all. Could be down, or a request timeout, or other reasons.
  *     </li>
  * </ol>
+ * The data is deserialized lazily: only when {@link #data()} is first called, on the calling thread. Checking the
+ * state of the response never deserializes anything.
  * @param <T> Type of the successful response.
  */
 @Slf4j
 public class ApiResponse<T> {
 
-    private Optional<T> data;
-    private Optional<ApiErrorData> errorData;
+    private static final int HTTP_PARTIAL_CONTENT = 206;
+
+    //these are null when the response was not created from a raw response, but from already existing data
+    @Nullable
+    private final HttpResponse rawResponse;
+
+    @Nullable
+    private final TypeReference<T> dataType;
+
+    @Nullable
+    private final SdkDeserialization deserialization;
+
+    @Nullable
+    private final OperationMetrics operationMetrics;
+
+    //null until first requested
+    private volatile Optional<T> data;
+    private volatile Optional<ApiErrorData> errorData;
 
     @Getter
     private boolean successful = false;
@@ -40,32 +69,85 @@ public class ApiResponse<T> {
     @Getter
     private boolean noAnswer = false;
 
+    /**
+     * True if the response is successful, but only has a part of the requested objects, because some of the
+     * requested IDs don't exist (HTTP 206). See {@link #missingIds()}.
+     */
+    @Getter
+    private boolean partial = false;
+
+    //null until first requested
+    private volatile LongIdSet missingIds;
+
     protected ApiResponse(@Nonnull Optional<HttpResponse> rawResponseOpt, @Nonnull TypeReference<T> dataType) {
+        this(rawResponseOpt, dataType, SdkDeserialization.forProfile(DeserializationProfile.DEFAULT));
+    }
+
+    protected ApiResponse(
+            @Nonnull Optional<HttpResponse> rawResponseOpt,
+            @Nonnull TypeReference<T> dataType,
+            @Nonnull SdkDeserialization deserialization
+    ) {
+        this(rawResponseOpt, dataType, deserialization, SdkMetrics.noop().forOperation(ApiOperationTag.UNTAGGED));
+    }
+
+    protected ApiResponse(
+            @Nonnull Optional<HttpResponse> rawResponseOpt,
+            @Nonnull TypeReference<T> dataType,
+            @Nonnull SdkDeserialization deserialization,
+            @Nonnull OperationMetrics operationMetrics
+    ) {
+        this.rawResponse = rawResponseOpt.orElse(null);
+        this.dataType = dataType;
+        this.deserialization = deserialization;
+        this.operationMetrics = operationMetrics;
         rawResponseOpt.ifPresentOrElse(
-                rawResponse -> initializeWhenResponse(rawResponse, dataType),
+                this::initializeWhenResponse,
                 this::initializeWhenNoResponse
         );
     }
 
-    private void initializeWhenResponse(@Nonnull HttpResponse rawResponse, @Nonnull TypeReference<T> dataType) {
-        successful = rawResponse.statusCode() == 200;
-        if(successful) {
-            log.debug("Response is considered successful, starting deserializing data into '{}'", dataType.getType().getTypeName());
-            T t = deserializeData(rawResponse.content(), dataType);
-            data = Optional.of(t);
-        } else {
-            data = Optional.empty();
-        }
+    private ApiResponse(@Nonnull Optional<T> data, @Nonnull Optional<ApiErrorData> errorData) {
+        this.rawResponse = null;
+        this.dataType = null;
+        this.deserialization = null;
+        this.operationMetrics = null;
+        this.data = data;
+        this.errorData = errorData;
+        this.successful = data.isPresent();
+        this.apiError = errorData.isPresent();
+        this.noAnswer = !successful && !apiError;
+    }
 
-        apiError = !successful;
-        if(apiError) {
-            errorData = Optional.of(deserializeErrorData(rawResponse));
-            log.debug("Response is considered an error, created error data {}", errorData.get());
-        } else {
-            errorData = Optional.empty();
-        }
+    /**
+     * Create a successful response with the given data.
+     */
+    public static <T> ApiResponse<T> success(@Nonnull T data) {
+        return new ApiResponse<>(Optional.of(data), Optional.empty());
+    }
+
+    /**
+     * Create an error response with the given error data.
+     */
+    public static <T> ApiResponse<T> error(@Nonnull ApiErrorData errorData) {
+        return new ApiResponse<>(Optional.empty(), Optional.of(errorData));
+    }
+
+    /**
+     * Create a response which represents that the API has not answered.
+     */
+    public static <T> ApiResponse<T> noAnswer() {
+        return new ApiResponse<>(Optional.empty(), Optional.empty());
+    }
 
+    private void initializeWhenResponse(@Nonnull HttpResponse rawResponse) {
+        partial = rawResponse.statusCode() == HTTP_PARTIAL_CONTENT;
+        successful = rawResponse.statusCode() == 200 || partial;
+        apiError = !successful;
         noAnswer = false;
+        if(log.isDebugEnabled()) {
+            log.debug("Response arrived with status '{}', successful: {}", rawResponse.statusCode(), successful);
+        }
     }
 
     private void initializeWhenNoResponse() {
@@ -75,8 +157,15 @@ public class ApiResponse<T> {
         errorData = Optional.empty();
     }
 
-    private T deserializeData(String content, TypeReference<T> dataType) {
-        return SdkDeserialization.deserializeData(content, dataType);
+    private T deserializeData(HttpResponse rawResponse) {
+        log.debug("Deserializing data into '{}'", dataType.getType().getTypeName());
+        //responses served from a cache may already be deserialized
+        return rawResponse.deserializedContent().computeIfAbsent(dataType, () -> {
+            long startNanos = System.nanoTime();
+            T deserializedData = deserialization.deserialize(rawResponse.body(), rawResponse.bodyLength(), dataType);
+            operationMetrics.recordDeserializationTime(System.nanoTime() - startNanos);
+            return deserializedData;
+        });
     }
 
     private ApiErrorData deserializeErrorData(HttpResponse rawResponse) {
@@ -86,9 +175,18 @@ public class ApiResponse<T> {
     /**
      * Get the serialized data returned from the API. If the response {@link #isSuccessful()}, data is returned,
      * otherwise an empty optional is returned.
+     * <p>
+     * The data is deserialized on the first call of this method, and remembered for the following calls.
+     * @throws SdkDeserializationException If the data could not be deserialized.
      */
-    public Optional<T> data() {
-        return data;
+    public Optional<T> data() throws SdkDeserializationException {
+        Optional<T> currentData = data;
+        if(currentData == null) {
+            //in case of a race, the data may be deserialized twice, which does no harm
+            currentData = successful ? Optional.of(deserializeData(rawResponse)) : Optional.empty();
+            data = currentData;
+        }
+        return currentData;
     }
 
     /**
@@ -96,7 +194,75 @@ public class ApiResponse<T> {
      * otherwise an empty optional is returned.
      */
     public Optional<ApiErrorData> errorData() {
-        return errorData;
+        Optional<ApiErrorData> currentErrorData = errorData;
+        if(currentErrorData == null) {
+            currentErrorData = apiError ? Optional.of(deserializeErrorData(rawResponse)) : Optional.empty();
+            errorData = currentErrorData;
+        }
+        return currentErrorData;
+    }
+
+    /**
+     * Get the requested IDs which don't exist, if the response {@link #isPartial()}. Otherwise, it is empty. The
+     * IDs are only known for the merged responses of bulk requests, and only if the partial pages could be read.
+     */
+    public LongIdSet missingIds() {
+        LongIdSet currentMissingIds = missingIds;
+        if(currentMissingIds == null) {
+            currentMissingIds = partial && rawResponse != null ? parseMissingIds(rawResponse) : LongIdSet.of();
+            missingIds = currentMissingIds;
+        }
+        return currentMissingIds;
+    }
+
+    private static LongIdSet parseMissingIds(HttpResponse rawResponse) {
+        return rawResponse.header(Constants.MISSING_IDS_HEADER)
+                .filter(value -> !value.isBlank())
+                .map(value -> LongIdSet.of(Arrays.stream(value.split(",")).mapToLong(id -> Long.parseLong(id.trim())).toArray()))
+                .orElse(LongIdSet.of());
+    }
+
+    /**
+     * Transform the data of a successful response. Error and no answer responses are kept as they are, only
+     * their data type changes.
+     * @throws SdkDeserializationException If the data could not be deserialized.
+     */
+    public <R> ApiResponse<R> map(@Nonnull Function<? super T, ? extends R> mapper) throws SdkDeserializationException {
+        if(successful) {
+            ApiResponse<R> mapped = success(mapper.apply(data().get()));
+            mapped.partial = partial;
+            mapped.missingIds = missingIds();
+            return mapped;
+        }
+        return withoutData();
+    }
+
+    /**
+     * Create a successful response from the data combined from successful responses. It is partial if any of them
+     * is partial, and its missing IDs are the missing IDs of all of them.
+     */
+    static <R> ApiResponse<R> combined(@Nonnull R data, @Nonnull List<? extends ApiResponse<?>> responses) {
+        ApiResponse<R> combined = success(data);
+        LongIdSet combinedMissingIds = LongIdSet.of();
+        for(ApiResponse<?> response : responses) {
+            if(response.partial) {
+                combined.partial = true;
+                combinedMissingIds = combinedMissingIds.union(response.missingIds());
+            }
+        }
+        combined.missingIds = combinedMissingIds;
+        return combined;
+    }
+
+    /**
+     * Get this response as a response of a different data type. Must only be called if the response
+     * is not successful, since it does not have data then.
+     */
+    <R> ApiResponse<R> withoutData() {
+        if(successful) {
+            throw new IllegalStateException("Successful response cannot be converted without its data");
+        }
+        return apiError ? error(errorData().get()) : noAnswer();
     }
 
     /**
@@ -0,0 +1,207 @@
+package com.gaspar.gw2sdk;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.gaspar.gw2sdk.collections.LongIdSet;
+import com.gaspar.gw2sdk.http.Gw2HttpClient;
+import com.gaspar.gw2sdk.http.HttpException;
+import com.gaspar.gw2sdk.http.HttpResponse;
+import com.gaspar.gw2sdk.metrics.ApiOperationTag;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToLongFunction;
+
+/**
+ * Collects the lookups of single objects by ID, and fetches them together with one '{@code ?ids=}' request. A batch
+ * is sent when the {@link #getBatchWindow()} has passed since its first lookup, or when it has
+ * {@link #getMaxBatchSize()} different IDs, whichever happens first. Lookups of the same ID in a batch are only
+ * fetched once.
+ * <p>
+ * This way, many independent lookups turn into a few requests, at the cost of delaying each lookup by at most
+ * the batch window. If an ID is not found, its promise is an error with status 404, the same as the API responds
+ * to a single missing ID. Other errors of the batch request are given to all lookups of the batch.
+ * <p>
+ * This class is thread safe.
+ * @param <T> Type of the objects.
+ */
+@Slf4j
+public final class BatchLoader<T> {
+
+    private static final String NO_SUCH_ID_ERROR = "{\"text\":\"no such id\"}";
+
+    private final Gw2HttpClient gw2HttpClient;
+
+    private final String path;
+
+    private final TypeReference<List<T>> dataType;
+
+    private final ToLongFunction<T> idOf;
+
+    private final ApiOperationTag operation;
+
+    /**
+     * How long the lookups are collected, counted from the first lookup of a batch.
+     */
+    @Getter
+    private final Duration batchWindow;
+
+    /**
+     * Most IDs in a batch, at most as many as the API accepts in one request.
+     */
+    @Getter
+    private final int maxBatchSize;
+
+    //guards the open batch, a lock instead of a monitor so that virtual threads are not pinned
+    private final ReentrantLock lock = new ReentrantLock();
+
+    //the batch which still accepts lookups, null if there were no lookups since the last one was sent
+    @Nullable
+    private Batch openBatch;
+
+    @Builder
+    private BatchLoader(
+            @Nonnull Gw2HttpClient gw2HttpClient,
+            @Nonnull String path,
+            @Nonnull TypeReference<List<T>> dataType,
+            @Nonnull ToLongFunction<T> idOf,
+            ApiOperationTag operation,
+            Duration batchWindow,
+            Integer maxBatchSize
+    ) {
+        this.gw2HttpClient = gw2HttpClient;
+        this.path = path;
+        this.dataType = dataType;
+        this.idOf = idOf;
+        this.operation = withDefaultValue(operation, ApiOperationTag.UNTAGGED);
+        this.batchWindow = validateBatchWindow(withDefaultValue(batchWindow, Duration.ofMillis(10L)));
+        this.maxBatchSize = validateMaxBatchSize(withDefaultValue(maxBatchSize, PagedPublisher.MAX_PAGE_SIZE));
+    }
+
+    /**
+     * Look up an object by its ID, in the next batch.
+     * @return Promise of the object, which completes after the batch is fetched.
+     */
+    public ApiPromise<T> load(long id) {
+        Batch batch;
+        boolean full;
+        lock.lock();
+        try {
+            if(openBatch == null) {
+                Batch newBatch = new Batch();
+                openBatch = newBatch;
+                CompletableFuture.delayedExecutor(batchWindow.toNanos(), TimeUnit.NANOSECONDS)
+                        .execute(() -> sendWhenOpen(newBatch));
+            }
+            batch = openBatch;
+            batch.ids.add(id);
+            full = batch.ids.size() >= maxBatchSize;
+            if(full) {
+                openBatch = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+        if(full) {
+            log.debug("Batch of '{}' IDs is full, sending it before its window ends", maxBatchSize);
+            batch.send();
+        }
+        return batch.elements.flatMap(elements -> elementOf(elements, id));
+    }
+
+    private void sendWhenOpen(Batch batch) {
+        lock.lock();
+        try {
+            if(openBatch != batch) {
+                return; //it was full, and already sent
+            }
+            openBatch = null;
+        } finally {
+            lock.unlock();
+        }
+        batch.send();
+    }
+
+    private ApiPromise<T> elementOf(Map<Long, T> elements, long id) {
+        T element = elements.get(id);
+        if(element == null) {
+            return ApiPromise.completed(ApiResponse.error(new ApiErrorData(NO_SUCH_ID_ERROR, 404)));
+        }
+        return ApiPromise.completed(ApiResponse.success(element));
+    }
+
+    private Map<Long, T> indexById(List<T> elements) {
+        Map<Long, T> indexed = new HashMap<>(elements.size() * 2);
+        for(T element : elements) {
+            indexed.put(idOf.applyAsLong(element), element);
+        }
+        return indexed;
+    }
+
+    private static Duration validateBatchWindow(Duration batchWindow) {
+        if(batchWindow.isNegative()) {
+            throw new InvalidParamException("batchWindow", batchWindow, List.of("Must not be negative"));
+        }
+        return batchWindow;
+    }
+
+    private static int validateMaxBatchSize(int maxBatchSize) {
+        if(maxBatchSize <= 0 || maxBatchSize > PagedPublisher.MAX_PAGE_SIZE) {
+            throw new InvalidParamException("maxBatchSize", maxBatchSize, List.of("Must be positive", "Must be at most " + PagedPublisher.MAX_PAGE_SIZE));
+        }
+        return maxBatchSize;
+    }
+
+    private static <T> T withDefaultValue(@Nullable T value, @Nonnull T defaultValue) {
+        return value != null ? value : defaultValue;
+    }
+
+    /**
+     * Lookups that are fetched with the same request. The promise of the elements exists from the first lookup,
+     * so that every lookup can get its own promise before the request is sent.
+     */
+    private final class Batch {
+
+        //only modified while the batch is open, under the lock of the loader
+        private final Set<Long> ids = new HashSet<>();
+
+        private final CompletableFuture<Optional<HttpResponse>> rawResponse = new CompletableFuture<>();
+
+        private final ApiPromise<Map<Long, T>> elements = ApiPromise.of(
+                rawResponse,
+                dataType,
+                gw2HttpClient.getDeserialization(),
+                gw2HttpClient.getDeserializationExecutor(),
+                gw2HttpClient.getCallbackExecutor(),
+                gw2HttpClient.getMetrics().forOperation(operation)
+        ).map(BatchLoader.this::indexById);
+
+        private void send() {
+            LongIdSet batchIds = LongIdSet.of(ids.stream().mapToLong(Long::longValue).toArray());
+            log.debug("Sending batch of '{}' IDs to '{}'", batchIds.size(), path);
+            try {
+                gw2HttpClient.fetchBulkDataAsync(path, batchIds, operation).whenComplete((response, throwable) -> {
+                    if(throwable != null) {
+                        rawResponse.completeExceptionally(throwable);
+                    } else {
+                        rawResponse.complete(response);
+                    }
+                });
+            } catch (HttpException e) {
+                rawResponse.completeExceptionally(e);
+            }
+        }
+    }
+}
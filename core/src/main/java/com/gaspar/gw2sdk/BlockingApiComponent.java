@@ -0,0 +1,47 @@
+package com.gaspar.gw2sdk;
+
+import lombok.Getter;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Base class for the blocking variants of the API components. Instead of {@link ApiPromise}s, their methods
+ * return the {@link ApiResponse} directly, after waiting for it. This makes straight-line code possible, and
+ * it is intended to be used from virtual threads: the waiting never pins the carrier thread, and it can be
+ * interrupted.
+ */
+public class BlockingApiComponent {
+
+    /**
+     * Default of {@link #awaitTimeout}.
+     */
+    public static final Duration DEFAULT_AWAIT_TIMEOUT = Duration.ofSeconds(30);
+
+    /**
+     * Maximum time to wait for an operation. If it passes, the operation is considered to have no answer.
+     */
+    @Getter
+    private final Duration awaitTimeout;
+
+    protected BlockingApiComponent(@Nullable Duration awaitTimeout) {
+        this.awaitTimeout = validateAwaitTimeout(awaitTimeout != null ? awaitTimeout : DEFAULT_AWAIT_TIMEOUT);
+    }
+
+    /**
+     * Wait for the promise to finish, at most for the {@link #awaitTimeout}.
+     * @throws InterruptedException If the thread is interrupted while waiting.
+     */
+    protected <T> ApiResponse<T> await(@Nonnull ApiPromise<T> promise) throws InterruptedException {
+        return promise.await(awaitTimeout);
+    }
+
+    private Duration validateAwaitTimeout(Duration awaitTimeout) {
+        if(awaitTimeout.isNegative() || awaitTimeout.isZero()) {
+            throw new InvalidParamException("awaitTimeout", awaitTimeout, List.of("Must be positive"));
+        }
+        return awaitTimeout;
+    }
+}
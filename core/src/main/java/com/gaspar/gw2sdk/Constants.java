@@ -8,5 +8,20 @@ public class Constants {
 
     public static final String AUTHORIZATION_HEADER = "Authorization";
     public static final String SCHEMA_VERSION_HEADER = "X-Schema-Version";
+    public static final String CACHE_CONTROL_HEADER = "Cache-Control";
+    public static final String EXPIRES_HEADER = "Expires";
+    public static final String DATE_HEADER = "Date";
+    public static final String AGE_HEADER = "Age";
+    public static final String ETAG_HEADER = "ETag";
+    public static final String LAST_MODIFIED_HEADER = "Last-Modified";
+    public static final String IF_NONE_MATCH_HEADER = "If-None-Match";
+    public static final String IF_MODIFIED_SINCE_HEADER = "If-Modified-Since";
+    public static final String RETRY_AFTER_HEADER = "Retry-After";
+    public static final String ACCEPT_ENCODING_HEADER = "Accept-Encoding";
+    public static final String CONTENT_ENCODING_HEADER = "Content-Encoding";
+    public static final String CONTENT_LENGTH_HEADER = "Content-Length";
+    public static final String PAGE_TOTAL_HEADER = "X-Page-Total";
+    //not sent by the API, the SDK adds it to the merged responses of bulk requests
+    public static final String MISSING_IDS_HEADER = "X-Gw2Sdk-Missing-Ids";
 
 }
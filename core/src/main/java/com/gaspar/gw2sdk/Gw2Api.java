@@ -4,6 +4,7 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.gaspar.gw2sdk.annotations.Gw2ApiComponent;
 import com.gaspar.gw2sdk.annotations.Gw2ApiOperation;
 import com.gaspar.gw2sdk.http.Gw2HttpClient;
+import com.gaspar.gw2sdk.metrics.ApiOperationTag;
 import lombok.Builder;
 import lombok.extern.slf4j.Slf4j;
 
@@ -21,6 +22,10 @@ import java.util.List;
 @Slf4j
 public class Gw2Api extends ApiComponent {
 
+    private static final ApiOperationTag GET_VERSIONS = ApiOperationTag.of(Gw2Api.class, "getVersions");
+    private static final ApiOperationTag GET_VERSION_1_INFO = ApiOperationTag.of(Gw2Api.class, "getVersion1Info");
+    private static final ApiOperationTag GET_VERSION_2_INFO = ApiOperationTag.of(Gw2Api.class, "getVersion2Info");
+
     @Builder
     protected Gw2Api(@Nullable Gw2HttpClient gw2HttpClient) {
         super(gw2HttpClient);
@@ -32,8 +37,8 @@ public class Gw2Api extends ApiComponent {
     @Gw2ApiOperation(path = "/")
     public ApiPromise<List<String>> getVersions() {
         log.debug("Fetching all API versions...");
-        var future = gw2HttpClient.fetchDataAsync("");
-        return ApiPromise.of(future, new TypeReference<>() {});
+        var future = gw2HttpClient.fetchDataAsync("", GET_VERSIONS);
+        return promiseOf(future, new TypeReference<>() {}, GET_VERSIONS);
     }
 
     /**
@@ -43,8 +48,8 @@ public class Gw2Api extends ApiComponent {
     @Gw2ApiOperation(path = "/v1")
     public ApiPromise<String> getVersion1Info() {
         log.debug("Fetching API V1 information...");
-        var future = gw2HttpClient.fetchDataAsync("/v1");
-        return ApiPromise.of(future, new TypeReference<>() {});
+        var future = gw2HttpClient.fetchDataAsync("/v1", GET_VERSION_1_INFO);
+        return promiseOf(future, new TypeReference<>() {}, GET_VERSION_1_INFO);
     }
 
     /**
@@ -54,7 +59,7 @@ public class Gw2Api extends ApiComponent {
     @Gw2ApiOperation(path = "/v2")
     public ApiPromise<String> getVersion2Info() {
         log.debug("Fetching API V2 information...");
-        var future = gw2HttpClient.fetchDataAsync("/v2");
-        return ApiPromise.of(future, new TypeReference<>() {});
+        var future = gw2HttpClient.fetchDataAsync("/v2", GET_VERSION_2_INFO);
+        return promiseOf(future, new TypeReference<>() {}, GET_VERSION_2_INFO);
     }
 }
@@ -0,0 +1,31 @@
+package com.gaspar.gw2sdk;
+
+import lombok.Getter;
+
+import java.util.Optional;
+
+/**
+ * Exception given to the subscribers of a {@link PagedPublisher} when a page could not be fetched.
+ */
+public class PageFetchException extends SdkException {
+
+    /**
+     * Index of the page which could not be fetched.
+     */
+    @Getter
+    private final int page;
+
+    /**
+     * The error response of the API, or empty optional if the API did not answer at all.
+     */
+    @Getter
+    private final Optional<ApiErrorData> errorData;
+
+    public PageFetchException(int page, Optional<ApiErrorData> errorData) {
+        super(errorData
+                .map(error -> String.format("Page %d failed with status %d: %s", page, error.statusCode(), error.errorMessage()))
+                .orElse(String.format("Page %d was not answered by the API", page)));
+        this.page = page;
+        this.errorData = errorData;
+    }
+}
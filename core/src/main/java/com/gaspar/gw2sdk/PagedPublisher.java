@@ -0,0 +1,355 @@
+package com.gaspar.gw2sdk;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.gaspar.gw2sdk.collections.LongIdSet;
+import com.gaspar.gw2sdk.http.Gw2HttpClient;
+import com.gaspar.gw2sdk.http.HttpResponse;
+import com.gaspar.gw2sdk.metrics.ApiOperationTag;
+import com.gaspar.gw2sdk.metrics.SdkMetrics.OperationMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes the elements of a paginated endpoint one by one, without ever holding the whole result in memory.
+ * Pages are only requested while the subscriber has outstanding demand: only as many pages are fetched ahead
+ * as the demand needs, and at most {@link Gw2HttpClient#getMaxConcurrentBulkRequests()}, so a slow subscriber
+ * slows down the fetching, instead of the pages piling up.
+ * <p>
+ * The publisher is cold: every subscriber gets its own pages, starting from the first one. Elements are delivered
+ * in the order of the pages, and never concurrently. They are delivered on the callback executor of the
+ * {@link Gw2HttpClient} when a page arrives, but elements which already arrived are delivered right away, on the
+ * thread that calls {@link Flow.Subscription#request(long)}. If a page is an error or has no answer, the subscriber
+ * receives a {@link PageFetchException} and no more pages are requested.
+ * <pre>{@code
+ * achievementsApi.streamAchievements().subscribe(new Flow.Subscriber<>() {
+ *     public void onSubscribe(Flow.Subscription subscription) { subscription.request(100); }
+ *     ...
+ * });
+ * }</pre>
+ * @param <T> Type of the elements of a page.
+ */
+@Slf4j
+public final class PagedPublisher<T> implements Flow.Publisher<T> {
+
+    /**
+     * Largest page that the GW2 API allows.
+     */
+    public static final int MAX_PAGE_SIZE = 200;
+
+    private static final int UNKNOWN_PAGE_COUNT = -1;
+
+    private final Gw2HttpClient gw2HttpClient;
+
+    private final TypeReference<List<T>> pageType;
+
+    private final ApiOperationTag operation;
+
+    private final PageSource pageSource;
+
+    private PagedPublisher(
+            Gw2HttpClient gw2HttpClient,
+            TypeReference<List<T>> pageType,
+            ApiOperationTag operation,
+            PageSource pageSource
+    ) {
+        this.gw2HttpClient = gw2HttpClient;
+        this.pageType = pageType;
+        this.operation = operation;
+        this.pageSource = pageSource;
+    }
+
+    /**
+     * Create a publisher of an endpoint that supports the '{@code page}' and '{@code page_size}' parameters. The
+     * number of pages is taken from the '{@value Constants#PAGE_TOTAL_HEADER}' header of the first page.
+     * @param pageSize Size of the pages, at most {@value #MAX_PAGE_SIZE}.
+     * @throws InvalidParamException If the page size is invalid.
+     */
+    public static <T> PagedPublisher<T> paged(
+            @Nonnull Gw2HttpClient gw2HttpClient,
+            @Nonnull String path,
+            int pageSize,
+            @Nonnull TypeReference<List<T>> pageType,
+            @Nonnull ApiOperationTag operation
+    ) throws InvalidParamException {
+        if(pageSize <= 0 || pageSize > MAX_PAGE_SIZE) {
+            throw new InvalidParamException("pageSize", pageSize, List.of("Must be positive", "Must be at most " + MAX_PAGE_SIZE));
+        }
+        String separator = path.contains("?") ? "&" : "?";
+        PageSource pageSource = new PageSource() {
+            @Override
+            public String pagePath(int page) {
+                return path + separator + "page=" + page + "&page_size=" + pageSize;
+            }
+
+            @Override
+            public int knownPageCount() {
+                return UNKNOWN_PAGE_COUNT;
+            }
+
+            @Override
+            public int pageSize() {
+                return pageSize;
+            }
+        };
+        return new PagedPublisher<>(gw2HttpClient, pageType, operation, pageSource);
+    }
+
+    /**
+     * Create a publisher of the objects with the given IDs, from an endpoint that supports the '{@code ids}'
+     * parameter. The IDs are split into pages the same way as with {@link Gw2HttpClient#fetchBulkDataAsync(String, LongIdSet)}.
+     */
+    public static <T> PagedPublisher<T> bulk(
+            @Nonnull Gw2HttpClient gw2HttpClient,
+            @Nonnull String path,
+            @Nonnull LongIdSet ids,
+            @Nonnull TypeReference<List<T>> pageType,
+            @Nonnull ApiOperationTag operation
+    ) {
+        List<String> pagePaths = gw2HttpClient.bulkPagePaths(path, ids);
+        PageSource pageSource = new PageSource() {
+            @Override
+            public String pagePath(int page) {
+                return pagePaths.get(page);
+            }
+
+            @Override
+            public int knownPageCount() {
+                return pagePaths.size();
+            }
+
+            @Override
+            public int pageSize() {
+                return MAX_PAGE_SIZE; //only the last page may be smaller
+            }
+        };
+        return new PagedPublisher<>(gw2HttpClient, pageType, operation, pageSource);
+    }
+
+    @Override
+    public void subscribe(@Nonnull Flow.Subscriber<? super T> subscriber) {
+        var subscription = new PageSubscription(subscriber);
+        subscriber.onSubscribe(subscription);
+        subscription.drain(); //completes right away if there are no pages
+    }
+
+    private interface PageSource {
+
+        String pagePath(int page);
+
+        /**
+         * Get the number of pages if it's known before the first page arrives, otherwise {@link #UNKNOWN_PAGE_COUNT}.
+         */
+        int knownPageCount();
+
+        /**
+         * Get the number of elements on a full page.
+         */
+        int pageSize();
+    }
+
+    /**
+     * Subscription of one subscriber. All the state that is not atomic or volatile is only accessed
+     * from {@link #drain()}, which is never run by two threads at the same time.
+     */
+    private final class PageSubscription implements Flow.Subscription {
+
+        private final Flow.Subscriber<? super T> subscriber;
+
+        private final OperationMetrics operationMetrics;
+
+        private final AtomicLong requested = new AtomicLong();
+
+        //number of drain calls that are not handled yet
+        private final AtomicInteger wip = new AtomicInteger();
+
+        //pages that were requested, but not emitted yet, in the order of the pages
+        private final ArrayDeque<CompletableFuture<ApiResponse<List<T>>>> pendingPages = new ArrayDeque<>();
+
+        private volatile int pageCount;
+
+        private volatile boolean cancelled = false;
+
+        //error of an invalid request, delivered by the drain, so that it never overlaps with onNext
+        private volatile Throwable requestError;
+
+        //set when the subscriber got onComplete or onError, after which it gets no more signals
+        private boolean terminated = false;
+
+        private int nextPage = 0;
+
+        private List<T> currentPage = List.of();
+
+        private int currentIndex = 0;
+
+        private PageSubscription(Flow.Subscriber<? super T> subscriber) {
+            this.subscriber = subscriber;
+            this.operationMetrics = gw2HttpClient.getMetrics().forOperation(operation);
+            this.pageCount = pageSource.knownPageCount();
+        }
+
+        @Override
+        public void request(long n) {
+            if(n <= 0) {
+                requestError = new IllegalArgumentException("Requested amount must be positive, but was " + n);
+                cancel();
+                return;
+            }
+            requested.getAndUpdate(current -> current + n < 0 ? Long.MAX_VALUE : current + n);
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            drain(); //to release the pending pages
+        }
+
+        private void drain() {
+            if(wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            do {
+                long demand = requested.get();
+                long emitted = 0L;
+                while(true) {
+                    if(cancelled) {
+                        pendingPages.clear();
+                        currentPage = List.of();
+                        Throwable error = requestError;
+                        if(error != null && !terminated) {
+                            terminated = true;
+                            subscriber.onError(error);
+                        }
+                        break;
+                    }
+                    if(currentIndex < currentPage.size()) {
+                        if(emitted == demand) {
+                            break;
+                        }
+                        T element = currentPage.get(currentIndex++);
+                        try {
+                            subscriber.onNext(element);
+                        } catch (RuntimeException e) {
+                            log.error("Subscriber failed in onNext, cancelling the subscription", e);
+                            cancelled = true;
+                            continue;
+                        }
+                        emitted++;
+                        continue;
+                    }
+                    CompletableFuture<ApiResponse<List<T>>> head = pendingPages.peek();
+                    if((head == null || !head.isDone()) && demand > emitted) {
+                        //the arrived pages are emitted first, maybe they already satisfy the demand
+                        fetchAhead(demand - emitted);
+                        head = pendingPages.peek();
+                    }
+                    if(head == null) {
+                        if(pageCount != UNKNOWN_PAGE_COUNT && nextPage >= pageCount) {
+                            cancelled = true;
+                            terminated = true;
+                            subscriber.onComplete();
+                        }
+                        break;
+                    }
+                    if(!head.isDone()) {
+                        break;
+                    }
+                    pendingPages.poll();
+                    if(!startPage(head)) {
+                        break;
+                    }
+                }
+                if(emitted > 0L && demand != Long.MAX_VALUE) {
+                    requested.addAndGet(-emitted);
+                }
+                missed = wip.addAndGet(-missed);
+            } while(missed != 0);
+        }
+
+        /**
+         * Request the next pages, until the pending pages cover the remaining demand, but at most as many as the
+         * client allows concurrently. While the number of pages is unknown, only the first page is requested.
+         * @param remainingDemand Number of elements still requested, when the current page was fully emitted.
+         */
+        private void fetchAhead(long remainingDemand) {
+            long neededPages = (remainingDemand - 1) / pageSource.pageSize() + 1;
+            int maxPendingPages = (int) Math.min(gw2HttpClient.getMaxConcurrentBulkRequests(), neededPages);
+            while(pendingPages.size() < maxPendingPages) {
+                int knownPageCount = pageCount;
+                boolean hasNextPage = knownPageCount == UNKNOWN_PAGE_COUNT ? nextPage == 0 : nextPage < knownPageCount;
+                if(!hasNextPage) {
+                    return;
+                }
+                pendingPages.add(fetchPage(nextPage++));
+            }
+        }
+
+        /**
+         * Fetch and deserialize a page on the deserialization executor, then continue draining on the callback executor.
+         */
+        private CompletableFuture<ApiResponse<List<T>>> fetchPage(int page) {
+            String pagePath = pageSource.pagePath(page);
+            log.debug("Fetching page '{}' from '{}'", page, pagePath);
+            CompletableFuture<ApiResponse<List<T>>> pageFuture = gw2HttpClient.fetchDataAsync(pagePath, operation)
+                    .thenApplyAsync(rawResponse -> {
+                        var response = new ApiResponse<>(rawResponse, pageType, gw2HttpClient.getDeserialization(), operationMetrics);
+                        if(page == 0 && pageCount == UNKNOWN_PAGE_COUNT) {
+                            pageCount = rawResponse.flatMap(this::pageCountOf).orElse(1);
+                        }
+                        response.data(); //deserialized here, so that the subscriber is not blocked by it
+                        return response;
+                    }, gw2HttpClient.getDeserializationExecutor());
+            pageFuture.whenCompleteAsync((response, throwable) -> drain(), gw2HttpClient.getCallbackExecutor());
+            return pageFuture;
+        }
+
+        /**
+         * Start emitting the elements of a completed page, or terminate the subscription if the page has failed.
+         * @return True if the page can be emitted.
+         */
+        private boolean startPage(CompletableFuture<ApiResponse<List<T>>> pageFuture) {
+            int page = nextPage - pendingPages.size() - 1;
+            ApiResponse<List<T>> response;
+            try {
+                response = pageFuture.join();
+            } catch (CompletionException e) {
+                terminateWithError(e.getCause() != null ? e.getCause() : e);
+                return false;
+            }
+            if(!response.isSuccessful()) {
+                terminateWithError(new PageFetchException(page, response.errorData()));
+                return false;
+            }
+            currentPage = response.data().orElse(List.of());
+            currentIndex = 0;
+            return true;
+        }
+
+        private void terminateWithError(Throwable throwable) {
+            log.debug("Paged publishing failed", throwable);
+            cancelled = true;
+            terminated = true;
+            pendingPages.clear();
+            subscriber.onError(throwable);
+        }
+
+        private Optional<Integer> pageCountOf(HttpResponse rawResponse) {
+            try {
+                return rawResponse.header(Constants.PAGE_TOTAL_HEADER).map(String::trim).map(Integer::parseInt);
+            } catch (NumberFormatException e) {
+                log.warn("Invalid '{}' header, only the first page is published", Constants.PAGE_TOTAL_HEADER);
+                return Optional.empty();
+            }
+        }
+    }
+}
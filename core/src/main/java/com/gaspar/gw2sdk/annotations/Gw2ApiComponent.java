@@ -3,11 +3,14 @@ package com.gaspar.gw2sdk.annotations;
 import com.gaspar.gw2sdk.auth.ApiPermission;
 
 import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 
 /**
  * Classes that are {@link com.gaspar.gw2sdk.ApiComponent}s should be annotated with this.
  */
+@Retention(RetentionPolicy.RUNTIME)
 @Target(ElementType.TYPE)
 public @interface Gw2ApiComponent {
 
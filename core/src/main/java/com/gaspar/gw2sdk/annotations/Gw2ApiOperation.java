@@ -3,6 +3,8 @@ package com.gaspar.gw2sdk.annotations;
 import com.gaspar.gw2sdk.auth.ApiPermission;
 
 import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Repeatable;
 import java.lang.annotation.Target;
 
@@ -10,6 +12,7 @@ import java.lang.annotation.Target;
  * Methods annotated with this perform a GW2 API operation. Methods that access multiple APIs should be
  * marked with repeated instances of this annotation.
  */
+@Retention(RetentionPolicy.RUNTIME)
 @Target(ElementType.METHOD)
 @Repeatable(Gw2ApiOperations.class)
 public @interface Gw2ApiOperation {
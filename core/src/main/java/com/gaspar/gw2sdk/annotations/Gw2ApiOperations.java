@@ -1,11 +1,14 @@
 package com.gaspar.gw2sdk.annotations;
 
 import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 
 /**
  * Repeater of {@link Gw2ApiOperation}.
  */
+@Retention(RetentionPolicy.RUNTIME)
 @Target(ElementType.METHOD)
 public @interface Gw2ApiOperations {
 
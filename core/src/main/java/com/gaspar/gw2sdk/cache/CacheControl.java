@@ -0,0 +1,114 @@
+package com.gaspar.gw2sdk.cache;
+
+import com.gaspar.gw2sdk.Constants;
+import com.gaspar.gw2sdk.annotations.SdkInternal;
+import com.gaspar.gw2sdk.http.HttpResponse;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Determines how long a response can be cached, based on its '{@code Cache-Control}' and '{@code Expires}'
+ * headers. The GW2 API sends these headers with most of its responses, for example
+ * '{@code Cache-Control: public, max-age=300}'.
+ */
+@Slf4j
+@SdkInternal
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class CacheControl {
+
+    /**
+     * Check if the response may be stored in a cache at all.
+     */
+    public static boolean isStorable(HttpResponse response) {
+        return response.header(Constants.CACHE_CONTROL_HEADER)
+                .map(cacheControl -> !hasDirective(cacheControl, "no-store") && !hasDirective(cacheControl, "private"))
+                .orElse(true);
+    }
+
+    /**
+     * Check if the response has a validator ('{@code ETag}' or '{@code Last-Modified}'), so that it can be
+     * revalidated with a conditional request after it is no longer fresh.
+     */
+    public static boolean hasValidator(HttpResponse response) {
+        return response.header(Constants.ETAG_HEADER).isPresent() || response.header(Constants.LAST_MODIFIED_HEADER).isPresent();
+    }
+
+    /**
+     * Get how long the response is fresh for, counting from the moment it was received.
+     * @param response The response.
+     * @param now The moment the response was received.
+     * @return The freshness lifetime, or empty optional if the response is not fresh at all (it must not be cached,
+     * or it must be revalidated before every use).
+     */
+    public static Optional<Duration> freshnessLifetime(HttpResponse response, Instant now) {
+        Optional<String> cacheControl = response.header(Constants.CACHE_CONTROL_HEADER);
+        if(cacheControl.isPresent()) {
+            Optional<Duration> maxAge = Optional.empty();
+            for(String directive : cacheControl.get().split(",")) {
+                String trimmed = directive.trim().toLowerCase(Locale.ROOT);
+                if(trimmed.equals("no-store") || trimmed.equals("no-cache") || trimmed.equals("private")) {
+                    return Optional.empty();
+                }
+                if(trimmed.startsWith("max-age=")) {
+                    maxAge = parseSeconds(trimmed.substring("max-age=".length()));
+                }
+            }
+            if(maxAge.isPresent()) {
+                Duration age = response.header(Constants.AGE_HEADER)
+                        .flatMap(CacheControl::parseSeconds)
+                        .orElse(Duration.ZERO);
+                return positive(maxAge.get().minus(age));
+            }
+        }
+
+        Optional<Instant> expires = response.header(Constants.EXPIRES_HEADER).flatMap(CacheControl::parseDate);
+        if(expires.isPresent()) {
+            //measure relative to the server's clock if possible, so that clock skew does not matter
+            Instant date = response.header(Constants.DATE_HEADER)
+                    .flatMap(CacheControl::parseDate)
+                    .orElse(now);
+            return positive(Duration.between(date, expires.get()));
+        }
+        return Optional.empty();
+    }
+
+    private static boolean hasDirective(String cacheControl, String directive) {
+        for(String part : cacheControl.split(",")) {
+            if(part.trim().equalsIgnoreCase(directive)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Optional<Duration> positive(Duration duration) {
+        return duration.isNegative() || duration.isZero() ? Optional.empty() : Optional.of(duration);
+    }
+
+    private static Optional<Duration> parseSeconds(String value) {
+        try {
+            return Optional.of(Duration.ofSeconds(Long.parseLong(value.trim())));
+        } catch (NumberFormatException e) {
+            log.debug("Invalid amount of seconds in cache header: '{}'", value);
+            return Optional.empty();
+        }
+    }
+
+    private static Optional<Instant> parseDate(String value) {
+        try {
+            return Optional.of(ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant());
+        } catch (DateTimeParseException e) {
+            log.debug("Invalid date in cache header: '{}'", value);
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package com.gaspar.gw2sdk.cache;
+
+import com.gaspar.gw2sdk.InvalidParamException;
+import com.gaspar.gw2sdk.http.HttpRequest;
+import com.gaspar.gw2sdk.http.HttpResponse;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * {@link ResponseCache} that stores successful responses in memory, for as long as their cache headers allow.
+ * Responses with validators are kept after they expire, so that they can be revalidated. The cache is bounded
+ * both by the amount of entries and by their estimated size in bytes: when any of these limits is exceeded, the
+ * least recently used entries are evicted.
+ * <pre>{@code
+ * var cache = InMemoryResponseCache.builder()
+ *         .maxEntries(5000)
+ *         .maxBytes(128L * 1024 * 1024)
+ *         .build();
+ * var client = Gw2HttpClient.builder()
+ *         .responseCache(cache)
+ *         .build();
+ * }</pre>
+ */
+@Slf4j
+public class InMemoryResponseCache implements ResponseCache {
+
+    /**
+     * Estimated memory used by an entry, not counting its content.
+     */
+    private static final long ENTRY_OVERHEAD_BYTES = 256L;
+
+    /**
+     * Maximum amount of responses stored.
+     */
+    @Getter
+    private final int maxEntries;
+
+    /**
+     * Maximum estimated size of the stored responses, in bytes.
+     */
+    @Getter
+    private final long maxBytes;
+
+    private final Clock clock;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    //access ordered: iteration starts with the least recently used entry
+    private final LinkedHashMap<HttpRequest, CacheEntry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long currentBytes = 0L;
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder revalidationCount = new LongAdder();
+
+    @Builder
+    private InMemoryResponseCache(
+            Integer maxEntries,
+            Long maxBytes,
+            Clock clock
+    ) {
+        this.maxEntries = validatePositive("maxEntries", withDefaultValue(maxEntries, 1000));
+        this.maxBytes = validatePositive("maxBytes", withDefaultValue(maxBytes, 64L * 1024 * 1024));
+        this.clock = withDefaultValue(clock, Clock.systemUTC());
+    }
+
+    @Override
+    public Optional<HttpResponse> get(HttpRequest request) {
+        Instant now = clock.instant();
+        lock.lock();
+        try {
+            CacheEntry entry = entries.get(request);
+            if(entry == null) {
+                missCount.increment();
+                return Optional.empty();
+            }
+            if(!now.isBefore(entry.expiresAt())) {
+                if(!CacheControl.hasValidator(entry.response())) {
+                    log.debug("Cached response for '{}' has expired, removing it", request.url());
+                    removeEntry(request);
+                }
+                missCount.increment();
+                return Optional.empty();
+            }
+            hitCount.increment();
+            return Optional.of(entry.response());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Optional<HttpResponse> getStale(HttpRequest request) {
+        lock.lock();
+        try {
+            return Optional.ofNullable(entries.get(request))
+                    .map(CacheEntry::response)
+                    .filter(CacheControl::hasValidator);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Optional<HttpResponse> revalidate(HttpRequest request, HttpResponse notModifiedResponse) {
+        Instant now = clock.instant();
+        Duration lifetime = CacheControl.freshnessLifetime(notModifiedResponse, now).orElse(Duration.ZERO);
+        lock.lock();
+        try {
+            CacheEntry entry = entries.get(request);
+            if(entry == null) {
+                return Optional.empty();
+            }
+            log.debug("Cached response for '{}' was revalidated, it's fresh for '{}'", request.url(), lifetime);
+            entries.put(request, new CacheEntry(entry.response(), now.plus(lifetime), entry.sizeBytes()));
+            revalidationCount.increment();
+            return Optional.of(entry.response());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void put(HttpRequest request, HttpResponse response) {
+        if(response.statusCode() != 200 || !CacheControl.isStorable(response)) {
+            return;
+        }
+        Instant now = clock.instant();
+        Duration lifetime = CacheControl.freshnessLifetime(response, now).orElse(Duration.ZERO);
+        if(lifetime.isZero() && !CacheControl.hasValidator(response)) {
+            log.debug("Response for '{}' is not fresh and can't be revalidated, not caching it", request.url());
+            return;
+        }
+        long sizeBytes = estimateSizeBytes(response);
+        if(sizeBytes > maxBytes) {
+            log.debug("Response for '{}' is larger than the whole cache, not caching it", request.url());
+            return;
+        }
+
+        lock.lock();
+        try {
+            removeEntry(request);
+            entries.put(request, new CacheEntry(response, now.plus(lifetime), sizeBytes));
+            currentBytes += sizeBytes;
+            evictIfNeeded();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void invalidateAll() {
+        lock.lock();
+        try {
+            entries.clear();
+            currentBytes = 0L;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get the amount of responses currently stored.
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get the estimated size of the responses currently stored, in bytes.
+     */
+    public long sizeBytes() {
+        lock.lock();
+        try {
+            return currentBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get how many times a fresh response was found in the cache.
+     */
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    /**
+     * Get how many times no fresh response was found in the cache.
+     */
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    /**
+     * Get how many times a stale response was confirmed to be still valid by the API (HTTP 304).
+     */
+    public long getRevalidationCount() {
+        return revalidationCount.sum();
+    }
+
+    //lock must be held
+    private void evictIfNeeded() {
+        Iterator<Map.Entry<HttpRequest, CacheEntry>> leastRecentlyUsed = entries.entrySet().iterator();
+        while((entries.size() > maxEntries || currentBytes > maxBytes) && leastRecentlyUsed.hasNext()) {
+            var entry = leastRecentlyUsed.next();
+            log.debug("Evicting cached response for '{}'", entry.getKey().url());
+            currentBytes -= entry.getValue().sizeBytes();
+            leastRecentlyUsed.remove();
+        }
+    }
+
+    //lock must be held
+    private void removeEntry(HttpRequest request) {
+        CacheEntry removed = entries.remove(request);
+        if(removed != null) {
+            currentBytes -= removed.sizeBytes();
+        }
+    }
+
+    private static long estimateSizeBytes(HttpResponse response) {
+        long headerBytes = response.headers().entrySet().stream()
+                .mapToLong(header -> header.getKey().length() + header.getValue().stream().mapToLong(String::length).sum())
+                .sum();
+        //header strings are stored with 2 bytes per character in the worst case, and the whole body buffer is kept,
+        //even if it is longer than the body
+        return ENTRY_OVERHEAD_BYTES + response.body().length + 2L * headerBytes;
+    }
+
+    private static <T extends Number> T validatePositive(String paramName, T value) {
+        if(value.longValue() <= 0) {
+            throw new InvalidParamException(paramName, value, List.of("Must be positive"));
+        }
+        return value;
+    }
+
+    private static <T> T withDefaultValue(@Nullable T value, @Nonnull T defaultValue) {
+        return value != null ? value : defaultValue;
+    }
+
+    private record CacheEntry(
+            HttpResponse response,
+            Instant expiresAt,
+            long sizeBytes
+    ) {}
+}
@@ -0,0 +1,722 @@
+package com.gaspar.gw2sdk.cache;
+
+import com.gaspar.gw2sdk.InvalidParamException;
+import com.gaspar.gw2sdk.SdkException;
+import com.gaspar.gw2sdk.http.HttpRequest;
+import com.gaspar.gw2sdk.http.HttpResponse;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * {@link ResponseCache} that stores successful responses in a file, so that they survive the restart of the
+ * application. Together with {@link com.gaspar.gw2sdk.http.Gw2HttpClient#isServeStaleWhileRevalidating()}, a restarted
+ * application can answer from the disk right away, while the stale responses are revalidated in the background.
+ * <ul>
+ *     <li>The file is memory-mapped and only ever appended to. An in-memory index points to the latest record
+ *     of every request, which is rebuilt by scanning the file when the cache is opened.</li>
+ *     <li>Every record has a checksum. If the application crashed while writing, the scan stops at the
+ *     first damaged record, and the cache continues from the last intact one.</li>
+ *     <li>Records store the validators ('{@code ETag}', '{@code Last-Modified}') and the expiry of the response,
+ *     so stale responses can be revalidated after a restart.</li>
+ *     <li>When the file would grow beyond {@link #getMaxBytes()}, it is compacted: only the latest record of
+ *     the responses that are still usable is kept. If those still take more than 3/4 of the maximum size, the
+ *     least recently used responses are evicted, so that the file can grow again before the next compaction.
+ *     Responses larger than the remaining 1/4 are not persisted.</li>
+ *     <li>The compaction rewrites the file in place, through a temporary '{@code .compact}' file next to it, so
+ *     it works on platforms where a memory-mapped file can't be replaced (such as Windows). If the application
+ *     crashes during the compaction, it is finished from the temporary file when the cache is opened.</li>
+ *     <li>Responses of authenticated requests are never written to the disk, so that neither API keys nor
+ *     account data end up in the file.</li>
+ * </ul>
+ * <pre>{@code
+ * var cache = PersistentResponseCache.builder()
+ *         .path(Path.of("gw2-cache.bin"))
+ *         .build();
+ * var client = Gw2HttpClient.builder()
+ *         .responseCache(cache)
+ *         .serveStaleWhileRevalidating(true)
+ *         .build();
+ * }</pre>
+ * The cache should be {@link #close() closed} when the application stops, to make sure that all records reach the disk.
+ * <p>
+ * When the file grows, it is mapped again with a larger size. Java can't release a mapping explicitly, so the
+ * previous, smaller mappings are only released by the garbage collector. The size doubles every time, so there
+ * are only a few of them.
+ */
+@Slf4j
+public class PersistentResponseCache implements ResponseCache, Closeable {
+
+    private static final int MAGIC = 0x47573243; //'GW2C'
+    private static final int FORMAT_VERSION = 1;
+    private static final int FILE_HEADER_BYTES = 8;
+
+    /**
+     * Written in place of the format version while the compacted records are copied into the file.
+     */
+    private static final int COMPACTING_FORMAT_VERSION = FORMAT_VERSION | 0x80000000;
+
+    /**
+     * Compaction evicts responses until they take at most this part of the maximum size.
+     */
+    private static final double LOW_WATER_MARK = 0.75;
+
+    /**
+     * Every record starts with the length of its payload and the checksum of the payload.
+     */
+    private static final int RECORD_HEADER_BYTES = 8;
+
+    private static final byte PUT_RECORD = 1;
+    private static final byte EXPIRY_RECORD = 2;
+
+    private static final int INITIAL_MAPPED_BYTES = 1024 * 1024;
+
+    /**
+     * The file where the responses are stored. It is created if it does not exist.
+     */
+    @Getter
+    private final Path path;
+
+    /**
+     * Maximum size of the file, in bytes. A memory-mapped file can't be larger than {@link Integer#MAX_VALUE}.
+     */
+    @Getter
+    private final long maxBytes;
+
+    private final Clock clock;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    //keyed by the URL and schema version of the request
+    private final Map<String, IndexEntry> index = new HashMap<>();
+
+    private FileChannel channel;
+
+    private MappedByteBuffer mapping;
+
+    //where the next record is appended
+    private int writePosition;
+
+    private boolean closed = false;
+
+    //incremented on every use of a response, to find the least recently used ones
+    private long useCounter = 0L;
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder revalidationCount = new LongAdder();
+    private final LongAdder compactionCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    /**
+     * Open the cache, and load the index of the responses that are already in the file.
+     * @throws SdkException If the file can't be opened.
+     */
+    @Builder
+    private PersistentResponseCache(
+            Path path,
+            Long maxBytes,
+            Clock clock
+    ) {
+        if(path == null) {
+            throw new InvalidParamException("path", null, List.of("Must be provided"));
+        }
+        this.path = path;
+        this.maxBytes = validateMaxBytes(withDefaultValue(maxBytes, 256L * 1024 * 1024));
+        this.clock = withDefaultValue(clock, Clock.systemUTC());
+        try {
+            open();
+        } catch (IOException e) {
+            throw new SdkException("Failed to open persistent response cache at '" + path + "'", e);
+        }
+    }
+
+    @Override
+    public Optional<HttpResponse> get(HttpRequest request) {
+        if(request.apiKey().isPresent()) {
+            return Optional.empty();
+        }
+        long now = clock.millis();
+        lock.lock();
+        try {
+            IndexEntry entry = index.get(keyOf(request));
+            if(entry == null || now >= entry.expiresAtMillis) {
+                missCount.increment();
+                return Optional.empty();
+            }
+            hitCount.increment();
+            entry.lastUsed = ++useCounter;
+            return Optional.of(readResponse(entry));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Optional<HttpResponse> getStale(HttpRequest request) {
+        if(request.apiKey().isPresent()) {
+            return Optional.empty();
+        }
+        lock.lock();
+        try {
+            IndexEntry entry = index.get(keyOf(request));
+            if(entry == null || !entry.revalidatable) {
+                return Optional.empty();
+            }
+            entry.lastUsed = ++useCounter;
+            return Optional.of(readResponse(entry));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Optional<HttpResponse> revalidate(HttpRequest request, HttpResponse notModifiedResponse) {
+        if(request.apiKey().isPresent()) {
+            return Optional.empty();
+        }
+        long now = clock.millis();
+        Duration lifetime = CacheControl.freshnessLifetime(notModifiedResponse, clock.instant()).orElse(Duration.ZERO);
+        String key = keyOf(request);
+        lock.lock();
+        try {
+            IndexEntry entry = index.get(key);
+            if(entry == null) {
+                return Optional.empty();
+            }
+            HttpResponse response = readResponse(entry);
+            long expiresAtMillis = now + lifetime.toMillis();
+            //look up again after appending, because compaction replaces the entries
+            if(append(encodeExpiry(key, expiresAtMillis)) && index.containsKey(key)) {
+                index.get(key).expiresAtMillis = expiresAtMillis;
+            }
+            log.debug("Persisted response for '{}' was revalidated, it's fresh for '{}'", request.url(), lifetime);
+            revalidationCount.increment();
+            return Optional.of(response);
+        } catch (IOException e) {
+            log.warn("Failed to persist revalidation of '{}'", request.url(), e);
+            return Optional.empty();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void put(HttpRequest request, HttpResponse response) {
+        if(request.apiKey().isPresent() || response.statusCode() != 200 || !CacheControl.isStorable(response)) {
+            return;
+        }
+        Duration lifetime = CacheControl.freshnessLifetime(response, clock.instant()).orElse(Duration.ZERO);
+        boolean revalidatable = CacheControl.hasValidator(response);
+        if(lifetime.isZero() && !revalidatable) {
+            log.debug("Response for '{}' is not fresh and can't be revalidated, not persisting it", request.url());
+            return;
+        }
+        String key = keyOf(request);
+        long expiresAtMillis = clock.millis() + lifetime.toMillis();
+        lock.lock();
+        try {
+            byte[] payload = encodePut(key, expiresAtMillis, response);
+            if(!append(payload)) {
+                return;
+            }
+            //compaction may have moved the records, so the offset is only known after appending
+            var entry = new IndexEntry(writePosition - payload.length, payload.length, expiresAtMillis, revalidatable);
+            entry.response = new SoftReference<>(response);
+            entry.lastUsed = ++useCounter;
+            index.put(key, entry);
+        } catch (IOException e) {
+            log.warn("Failed to persist response of '{}'", request.url(), e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void invalidateAll() {
+        lock.lock();
+        try {
+            if(closed) {
+                return;
+            }
+            index.clear();
+            //zero out the records, so that they are not found again when the cache is reopened
+            clear(FILE_HEADER_BYTES, writePosition);
+            writePosition = FILE_HEADER_BYTES;
+            mapping.force();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Write all records to the disk and release the file. After this, the cache behaves as if it was empty.
+     */
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if(closed) {
+                return;
+            }
+            closed = true;
+            index.clear();
+            mapping.force();
+            mapping = null;
+            channel.close();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get the amount of responses currently stored.
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return index.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get the amount of bytes used in the file, including the records that were replaced by newer ones.
+     */
+    public long sizeBytes() {
+        lock.lock();
+        try {
+            return writePosition;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get how many times a fresh response was found in the cache.
+     */
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    /**
+     * Get how many times no fresh response was found in the cache.
+     */
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    /**
+     * Get how many times a stale response was confirmed to be still valid by the API (HTTP 304).
+     */
+    public long getRevalidationCount() {
+        return revalidationCount.sum();
+    }
+
+    /**
+     * Get how many times the file was compacted.
+     */
+    public long getCompactionCount() {
+        return compactionCount.sum();
+    }
+
+    /**
+     * Get how many usable responses were evicted by compactions, because the file was full.
+     */
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    private void open() throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long fileSize = channel.size();
+        long initialMappedBytes = Math.max(FILE_HEADER_BYTES, Math.min(maxBytes, INITIAL_MAPPED_BYTES));
+        mapping = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(Math.min(fileSize, Integer.MAX_VALUE), initialMappedBytes));
+        if(fileSize != 0L && mapping.getInt(0) == MAGIC && mapping.getInt(4) == COMPACTING_FORMAT_VERSION) {
+            finishCompaction();
+        }
+        Files.deleteIfExists(compactedPath());
+        if(fileSize == 0L || mapping.getInt(0) != MAGIC || mapping.getInt(4) != FORMAT_VERSION) {
+            if(fileSize != 0L) {
+                log.warn("File '{}' is not a response cache of this version, starting with an empty cache", path);
+            }
+            clear(0, mapping.capacity());
+            mapping.putInt(0, MAGIC);
+            mapping.putInt(4, FORMAT_VERSION);
+            writePosition = FILE_HEADER_BYTES;
+            return;
+        }
+        writePosition = scan();
+    }
+
+    /**
+     * Build the index from the records of the file.
+     * @return The position after the last intact record.
+     */
+    private int scan() {
+        int position = FILE_HEADER_BYTES;
+        var crc = new CRC32();
+        while(position + RECORD_HEADER_BYTES <= mapping.capacity()) {
+            int payloadLength = mapping.getInt(position);
+            if(payloadLength == 0) {
+                break; //the end of the records
+            }
+            int payloadOffset = position + RECORD_HEADER_BYTES;
+            if(payloadLength < 0 || payloadLength > mapping.capacity() - payloadOffset
+                    || checksum(crc, payloadOffset, payloadLength) != mapping.getInt(position + 4)) {
+                log.warn("Found damaged record in '{}' at position {}, discarding it and the records after it", path, position);
+                clear(position, mapping.capacity());
+                break;
+            }
+            applyRecord(payloadOffset, payloadLength);
+            position = payloadOffset + payloadLength;
+        }
+        long now = clock.millis();
+        index.values().removeIf(entry -> now >= entry.expiresAtMillis && !entry.revalidatable);
+        log.debug("Loaded {} responses from '{}'", index.size(), path);
+        return position;
+    }
+
+    private void applyRecord(int payloadOffset, int payloadLength) {
+        ByteBuffer payload = mapping.slice(payloadOffset, payloadLength);
+        byte type = payload.get();
+        String key = readString(payload);
+        long expiresAtMillis = payload.getLong();
+        if(type == EXPIRY_RECORD) {
+            IndexEntry entry = index.get(key);
+            if(entry != null) {
+                entry.expiresAtMillis = expiresAtMillis;
+            }
+        } else if(type == PUT_RECORD) {
+            payload.getInt(); //status code
+            boolean revalidatable = CacheControl.hasValidator(new HttpResponse(new byte[0], 200, readHeaders(payload)));
+            var entry = new IndexEntry(payloadOffset, payloadLength, expiresAtMillis, revalidatable);
+            entry.lastUsed = ++useCounter; //the later records were written more recently
+            index.put(key, entry);
+        } else {
+            log.debug("Skipping record of unknown type {} in '{}'", type, path);
+        }
+    }
+
+    //lock must be held
+    private boolean append(byte[] payload) throws IOException {
+        if(closed) {
+            return false;
+        }
+        int recordBytes = RECORD_HEADER_BYTES + payload.length;
+        if(recordBytes > maxBytes - lowWaterMarkBytes()) {
+            //it could only fit by compacting on every put
+            log.debug("Record of {} bytes is too large for '{}', not persisting it", recordBytes, path);
+            return false;
+        }
+        if((long) writePosition + recordBytes > maxBytes) {
+            compact();
+            if((long) writePosition + recordBytes > maxBytes) {
+                log.debug("Record of {} bytes does not fit into '{}', not persisting it", recordBytes, path);
+                return false;
+            }
+        }
+        if(writePosition + recordBytes > mapping.capacity()) {
+            long newCapacity = Math.min(maxBytes, Math.max(2L * mapping.capacity(), (long) writePosition + recordBytes));
+            mapping = channel.map(FileChannel.MapMode.READ_WRITE, 0, newCapacity);
+        }
+        //the payload and the checksum are written before the length, so a record is only found once it's complete
+        mapping.put(writePosition + RECORD_HEADER_BYTES, payload);
+        mapping.putInt(writePosition + 4, checksum(new CRC32(), writePosition + RECORD_HEADER_BYTES, payload.length));
+        mapping.putInt(writePosition, payload.length);
+        writePosition += recordBytes;
+        return true;
+    }
+
+    /**
+     * Rewrite the file so that it only has the latest record of the usable responses, evicting the least recently
+     * used ones if they would take more than the {@link #LOW_WATER_MARK}. The records are written to a temporary
+     * file first, and then copied over the records of the mapped file.
+     */
+    //lock must be held
+    private void compact() throws IOException {
+        long now = clock.millis();
+        List<Map.Entry<String, IndexEntry>> liveEntries = new ArrayList<>();
+        long liveBytes = 0L;
+        for(var indexEntry : index.entrySet()) {
+            IndexEntry entry = indexEntry.getValue();
+            if(now < entry.expiresAtMillis || entry.revalidatable) {
+                liveEntries.add(indexEntry);
+                liveBytes += RECORD_HEADER_BYTES + entry.payloadLength;
+            }
+        }
+        long targetBytes = lowWaterMarkBytes() - FILE_HEADER_BYTES;
+        int evicted = 0;
+        if(liveBytes > targetBytes) {
+            liveEntries.sort(Comparator.comparingLong(indexEntry -> indexEntry.getValue().lastUsed));
+            while(liveBytes > targetBytes && evicted < liveEntries.size()) {
+                liveBytes -= RECORD_HEADER_BYTES + liveEntries.get(evicted).getValue().payloadLength;
+                evicted++;
+            }
+            liveEntries = new ArrayList<>(liveEntries.subList(evicted, liveEntries.size()));
+        }
+        liveEntries.sort(Comparator.comparingInt(indexEntry -> indexEntry.getValue().payloadOffset));
+        log.debug("Compacting '{}', keeping {} of {} responses, evicted {}", path, liveEntries.size(), index.size(), evicted);
+
+        //write the records to the temporary file, with the latest expiry of every response
+        Map<String, IndexEntry> compactedIndex = new HashMap<>(liveEntries.size() * 2);
+        Path compactedPath = compactedPath();
+        int compactedSize = FILE_HEADER_BYTES;
+        try(var output = FileChannel.open(compactedPath, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_BYTES).putInt(MAGIC).putInt(FORMAT_VERSION).flip();
+            while(header.hasRemaining()) {
+                output.write(header, header.position());
+            }
+            var crc = new CRC32();
+            for(var liveEntry : liveEntries) {
+                IndexEntry entry = liveEntry.getValue();
+                byte[] payload = new byte[entry.payloadLength];
+                mapping.get(entry.payloadOffset, payload);
+                ByteBuffer payloadBuffer = ByteBuffer.wrap(payload);
+                int keyLength = payloadBuffer.getInt(1);
+                payloadBuffer.putLong(1 + 4 + keyLength, entry.expiresAtMillis);
+                crc.reset();
+                crc.update(payload);
+                ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_BYTES + payload.length)
+                        .putInt(payload.length)
+                        .putInt((int) crc.getValue())
+                        .put(payload)
+                        .flip();
+                while(record.hasRemaining()) {
+                    output.write(record, compactedSize + record.position());
+                }
+                var compactedEntry = new IndexEntry(compactedSize + RECORD_HEADER_BYTES, payload.length, entry.expiresAtMillis, entry.revalidatable);
+                compactedEntry.response = entry.response;
+                compactedEntry.lastUsed = entry.lastUsed;
+                compactedIndex.put(liveEntry.getKey(), compactedEntry);
+                compactedSize += record.limit();
+            }
+            output.force(true);
+        }
+
+        //from here, a crash is recovered from the temporary file when the cache is opened
+        try {
+            mapping.putInt(4, COMPACTING_FORMAT_VERSION);
+            mapping.force();
+            int previousWritePosition = writePosition;
+            writePosition = copyCompactedRecords(compactedPath);
+            clear(writePosition, previousWritePosition);
+            mapping.putInt(4, FORMAT_VERSION);
+            mapping.force();
+            Files.deleteIfExists(compactedPath);
+        } catch (IOException | RuntimeException e) {
+            //the records in the file may be mixed up, so nothing is served from it anymore
+            log.error("Failed to compact '{}', closing the cache", path, e);
+            closed = true;
+            index.clear();
+            mapping = null;
+            try {
+                channel.close();
+            } catch (IOException closeError) {
+                e.addSuppressed(closeError);
+            }
+            throw e;
+        }
+        index.clear();
+        index.putAll(compactedIndex);
+        compactionCount.increment();
+        evictionCount.add(evicted);
+    }
+
+    /**
+     * Finish a compaction that was interrupted by a crash, if its temporary file was complete. Otherwise, the
+     * records in the file may be mixed up, so the cache starts empty.
+     */
+    private void finishCompaction() throws IOException {
+        if(Files.exists(compactedPath())) {
+            log.warn("Compaction of '{}' was interrupted, finishing it", path);
+            int compactedSize = copyCompactedRecords(compactedPath());
+            clear(compactedSize, mapping.capacity());
+            mapping.putInt(4, FORMAT_VERSION);
+        } else {
+            log.warn("Compaction of '{}' was interrupted, and it can't be finished, starting with an empty cache", path);
+            mapping.putInt(4, 0);
+        }
+        mapping.force();
+    }
+
+    /**
+     * Copy the records of the compacted file over the records of the mapped file.
+     * @return The position after the last copied record.
+     */
+    private int copyCompactedRecords(Path compactedPath) throws IOException {
+        try(var input = FileChannel.open(compactedPath, StandardOpenOption.READ)) {
+            int compactedSize = (int) input.size();
+            ByteBuffer target = mapping.slice(FILE_HEADER_BYTES, compactedSize - FILE_HEADER_BYTES);
+            while(target.hasRemaining()) {
+                if(input.read(target, FILE_HEADER_BYTES + target.position()) < 0) {
+                    throw new IOException("Compacted file '" + compactedPath + "' ended unexpectedly");
+                }
+            }
+            return compactedSize;
+        }
+    }
+
+    private long lowWaterMarkBytes() {
+        return (long) (maxBytes * LOW_WATER_MARK);
+    }
+
+    private Path compactedPath() {
+        return path.resolveSibling(path.getFileName() + ".compact");
+    }
+
+    //lock must be held
+    private HttpResponse readResponse(IndexEntry entry) {
+        HttpResponse response = entry.response.get();
+        if(response != null) {
+            return response;
+        }
+        ByteBuffer payload = mapping.slice(entry.payloadOffset, entry.payloadLength);
+        payload.get(); //type
+        readString(payload); //key
+        payload.getLong(); //expiry
+        int statusCode = payload.getInt();
+        Map<String, List<String>> headers = readHeaders(payload);
+        byte[] body = new byte[payload.getInt()];
+        payload.get(body);
+        response = new HttpResponse(body, statusCode, headers);
+        entry.response = new SoftReference<>(response);
+        return response;
+    }
+
+    private int checksum(CRC32 crc, int offset, int length) {
+        crc.reset();
+        crc.update(mapping.slice(offset, length));
+        return (int) crc.getValue();
+    }
+
+    private void clear(int from, int to) {
+        byte[] zeros = new byte[8192];
+        for(int position = from; position < to; position += zeros.length) {
+            mapping.put(position, zeros, 0, Math.min(zeros.length, to - position));
+        }
+    }
+
+    private static byte[] encodePut(String key, long expiresAtMillis, HttpResponse response) throws IOException {
+        var bytes = new ByteArrayOutputStream(response.bodyLength() + 256);
+        var output = new DataOutputStream(bytes);
+        output.writeByte(PUT_RECORD);
+        writeString(output, key);
+        output.writeLong(expiresAtMillis);
+        output.writeInt(response.statusCode());
+        output.writeInt(response.headers().size());
+        for(var header : response.headers().entrySet()) {
+            writeString(output, header.getKey());
+            output.writeInt(header.getValue().size());
+            for(String value : header.getValue()) {
+                writeString(output, value);
+            }
+        }
+        output.writeInt(response.bodyLength());
+        output.write(response.body(), 0, response.bodyLength());
+        return bytes.toByteArray();
+    }
+
+    private static byte[] encodeExpiry(String key, long expiresAtMillis) throws IOException {
+        var bytes = new ByteArrayOutputStream(64);
+        var output = new DataOutputStream(bytes);
+        output.writeByte(EXPIRY_RECORD);
+        writeString(output, key);
+        output.writeLong(expiresAtMillis);
+        return bytes.toByteArray();
+    }
+
+    private static void writeString(DataOutputStream output, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static Map<String, List<String>> readHeaders(ByteBuffer buffer) {
+        int headerCount = buffer.getInt();
+        Map<String, List<String>> headers = new HashMap<>(headerCount * 2);
+        for(int i = 0; i < headerCount; i++) {
+            String name = readString(buffer);
+            int valueCount = buffer.getInt();
+            List<String> values = new ArrayList<>(valueCount);
+            for(int j = 0; j < valueCount; j++) {
+                values.add(readString(buffer));
+            }
+            headers.put(name, List.copyOf(values));
+        }
+        return headers;
+    }
+
+    private static String keyOf(HttpRequest request) {
+        return request.url() + " " + request.schemaVersion();
+    }
+
+    private static long validateMaxBytes(long maxBytes) {
+        if(maxBytes <= 0) {
+            throw new InvalidParamException("maxBytes", maxBytes, List.of("Must be positive"));
+        }
+        if(maxBytes > Integer.MAX_VALUE) {
+            throw new InvalidParamException("maxBytes", maxBytes, List.of("Must be at most " + Integer.MAX_VALUE));
+        }
+        return maxBytes;
+    }
+
+    private static <T> T withDefaultValue(@Nullable T value, @Nonnull T defaultValue) {
+        return value != null ? value : defaultValue;
+    }
+
+    /**
+     * Location of the latest record of a response in the file. Guarded by the lock of the cache.
+     */
+    private static final class IndexEntry {
+
+        private final int payloadOffset;
+        private final int payloadLength;
+        private long expiresAtMillis;
+        private final boolean revalidatable;
+        private long lastUsed;
+
+        //the response is kept while there is enough memory, so that its deserialized content is shared
+        private SoftReference<HttpResponse> response = new SoftReference<>(null);
+
+        private IndexEntry(int payloadOffset, int payloadLength, long expiresAtMillis, boolean revalidatable) {
+            this.payloadOffset = payloadOffset;
+            this.payloadLength = payloadLength;
+            this.expiresAtMillis = expiresAtMillis;
+            this.revalidatable = revalidatable;
+        }
+    }
+}
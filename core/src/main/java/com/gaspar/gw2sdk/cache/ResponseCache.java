@@ -0,0 +1,63 @@
+package com.gaspar.gw2sdk.cache;
+
+import com.gaspar.gw2sdk.http.HttpRequest;
+import com.gaspar.gw2sdk.http.HttpResponse;
+
+import java.util.Optional;
+
+/**
+ * Cache of API responses that can be given to the {@link com.gaspar.gw2sdk.http.Gw2HttpClient}. Responses
+ * that are found in the cache are returned without making an HTTP request.
+ * <ul>
+ *     <li>Entries are keyed by the {@link HttpRequest}: its URL, API key and schema version.</li>
+ *     <li>Implementations decide which responses they store and for how long, but they should
+ *     respect the cache headers sent by the GW2 API. See {@link CacheControl}.</li>
+ *     <li>Responses with validators ('{@code ETag}' or '{@code Last-Modified}') can be kept after they are no longer
+ *     fresh, and be revalidated with a conditional request. See {@link #getStale(HttpRequest)}.</li>
+ *     <li>Implementations must be thread safe.</li>
+ * </ul>
+ * The same response object may be returned many times, and its deserialized content is shared as well.
+ */
+public interface ResponseCache {
+
+    /**
+     * Get a fresh response for the request.
+     * @param request The request that is about to be made.
+     * @return The cached response, or empty optional if there is no fresh response for this request.
+     */
+    Optional<HttpResponse> get(HttpRequest request);
+
+    /**
+     * Get a response for the request which is no longer fresh, but can be revalidated with a conditional request.
+     * This is only called after {@link #get(HttpRequest)} found no fresh response.
+     * @param request The request that is about to be made.
+     * @return The stale response, or empty optional if there is no response that can be revalidated.
+     */
+    default Optional<HttpResponse> getStale(HttpRequest request) {
+        return Optional.empty();
+    }
+
+    /**
+     * Called when the API confirmed with HTTP 304 that a stale response is still valid. The freshness of the response
+     * should be updated based on the headers of the 304 response.
+     * @param request The request that was made (without the validators).
+     * @param notModifiedResponse The HTTP 304 response.
+     * @return The cached response, which is now fresh again, or empty optional if it's no longer in the cache.
+     */
+    default Optional<HttpResponse> revalidate(HttpRequest request, HttpResponse notModifiedResponse) {
+        return Optional.empty();
+    }
+
+    /**
+     * Offer a response to the cache. The cache may decide not to store it, for example because it is an
+     * error response or because its cache headers forbid caching.
+     * @param request The request that was made.
+     * @param response The response that was received for the request.
+     */
+    void put(HttpRequest request, HttpResponse response);
+
+    /**
+     * Remove all entries from the cache.
+     */
+    void invalidateAll();
+}
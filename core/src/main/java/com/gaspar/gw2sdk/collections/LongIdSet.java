@@ -0,0 +1,277 @@
+package com.gaspar.gw2sdk.collections;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+
+/**
+ * Immutable set of IDs, such as the ones returned by the ID list endpoints of the GW2 API (for example
+ * {@code /v2/achievements}). The IDs are stored in a sorted primitive array without boxing, so this is
+ * much more compact than a {@code List<Long>}, and set operations are linear merges over the arrays.
+ * <p>
+ * It is serialized to and deserialized from a plain JSON array of numbers. Duplicate IDs are kept only once.
+ */
+@JsonSerialize(using = LongIdSet.Serializer.class)
+@JsonDeserialize(using = LongIdSet.Deserializer.class)
+public final class LongIdSet implements Iterable<Long> {
+
+    private static final LongIdSet EMPTY = new LongIdSet(new long[0]);
+
+    /**
+     * Sorted, with no duplicates. Never modified after construction.
+     */
+    private final long[] ids;
+
+    private LongIdSet(long[] ids) {
+        this.ids = ids;
+    }
+
+    public static LongIdSet empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Create a set from the given IDs. The array is copied, it can be modified later without affecting the set.
+     */
+    public static LongIdSet of(long... ids) {
+        return ofOwned(Arrays.copyOf(ids, ids.length), ids.length);
+    }
+
+    /**
+     * Create a set from the first {@code length} elements of the given array, which is then owned by the set.
+     */
+    private static LongIdSet ofOwned(long[] ids, int length) {
+        if(length == 0) {
+            return EMPTY;
+        }
+        if(!isStrictlyAscending(ids, length)) {
+            Arrays.sort(ids, 0, length);
+            length = removeAdjacentDuplicates(ids, length);
+        }
+        return new LongIdSet(length == ids.length ? ids : Arrays.copyOf(ids, length));
+    }
+
+    private static boolean isStrictlyAscending(long[] ids, int length) {
+        for(int i = 1; i < length; i++) {
+            if(ids[i - 1] >= ids[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int removeAdjacentDuplicates(long[] sortedIds, int length) {
+        int unique = 1;
+        for(int i = 1; i < length; i++) {
+            if(sortedIds[i] != sortedIds[unique - 1]) {
+                sortedIds[unique++] = sortedIds[i];
+            }
+        }
+        return unique;
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public boolean isEmpty() {
+        return ids.length == 0;
+    }
+
+    /**
+     * Check if the ID is in the set, with a binary search.
+     */
+    public boolean contains(long id) {
+        return Arrays.binarySearch(ids, id) >= 0;
+    }
+
+    /**
+     * Get the ID at the given position, where the IDs are in ascending order.
+     * @throws IndexOutOfBoundsException If the index is negative or not smaller than {@link #size()}.
+     */
+    public long get(int index) {
+        return ids[index];
+    }
+
+    /**
+     * IDs that are in this set, but not in the other one.
+     */
+    public LongIdSet difference(@Nonnull LongIdSet other) {
+        long[] result = new long[ids.length];
+        int count = 0;
+        int j = 0;
+        for(long id : ids) {
+            while(j < other.ids.length && other.ids[j] < id) {
+                j++;
+            }
+            if(j == other.ids.length || other.ids[j] != id) {
+                result[count++] = id;
+            }
+        }
+        return fromSortedPrefix(result, count);
+    }
+
+    /**
+     * IDs that are in both this and the other set.
+     */
+    public LongIdSet intersection(@Nonnull LongIdSet other) {
+        long[] result = new long[Math.min(ids.length, other.ids.length)];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while(i < ids.length && j < other.ids.length) {
+            if(ids[i] < other.ids[j]) {
+                i++;
+            } else if(ids[i] > other.ids[j]) {
+                j++;
+            } else {
+                result[count++] = ids[i];
+                i++;
+                j++;
+            }
+        }
+        return fromSortedPrefix(result, count);
+    }
+
+    /**
+     * IDs that are in at least one of this and the other set.
+     */
+    public LongIdSet union(@Nonnull LongIdSet other) {
+        long[] result = new long[ids.length + other.ids.length];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while(i < ids.length || j < other.ids.length) {
+            if(j == other.ids.length || (i < ids.length && ids[i] < other.ids[j])) {
+                result[count++] = ids[i++];
+            } else if(i == ids.length || ids[i] > other.ids[j]) {
+                result[count++] = other.ids[j++];
+            } else {
+                result[count++] = ids[i];
+                i++;
+                j++;
+            }
+        }
+        return fromSortedPrefix(result, count);
+    }
+
+    private static LongIdSet fromSortedPrefix(long[] sortedIds, int length) {
+        if(length == 0) {
+            return EMPTY;
+        }
+        return new LongIdSet(length == sortedIds.length ? sortedIds : Arrays.copyOf(sortedIds, length));
+    }
+
+    /**
+     * Get the IDs in ascending order, as a new array.
+     */
+    public long[] toArray() {
+        return ids.clone();
+    }
+
+    public LongStream stream() {
+        return Arrays.stream(ids);
+    }
+
+    /**
+     * Call the action for all IDs in ascending order, without boxing them.
+     */
+    public void forEachId(@Nonnull LongConsumer action) {
+        for(long id : ids) {
+            action.accept(id);
+        }
+    }
+
+    /**
+     * Iterate the IDs in ascending order. Use {@link PrimitiveIterator.OfLong#nextLong()} to avoid boxing.
+     */
+    @Override
+    public PrimitiveIterator.OfLong iterator() {
+        return new PrimitiveIterator.OfLong() {
+            private int next = 0;
+
+            @Override
+            public long nextLong() {
+                if(next >= ids.length) {
+                    throw new NoSuchElementException();
+                }
+                return ids[next++];
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next < ids.length;
+            }
+        };
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if(this == o) return true;
+        if(!(o instanceof LongIdSet)) return false;
+        return Arrays.equals(ids, ((LongIdSet) o).ids);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(ids);
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(ids);
+    }
+
+    /**
+     * Reads a JSON array of numbers token by token, straight into a primitive array.
+     */
+    static class Deserializer extends JsonDeserializer<LongIdSet> {
+
+        @Override
+        public LongIdSet deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            if(!parser.isExpectedStartArrayToken()) {
+                return (LongIdSet) context.handleUnexpectedToken(LongIdSet.class, parser);
+            }
+            long[] buffer = new long[256];
+            int count = 0;
+            JsonToken token;
+            while((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if(token != JsonToken.VALUE_NUMBER_INT) {
+                    return (LongIdSet) context.handleUnexpectedToken(LongIdSet.class, parser);
+                }
+                if(count == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                }
+                buffer[count++] = parser.getLongValue();
+            }
+            return ofOwned(buffer, count);
+        }
+
+        @Override
+        public LongIdSet getNullValue(DeserializationContext context) {
+            return EMPTY;
+        }
+    }
+
+    static class Serializer extends JsonSerializer<LongIdSet> {
+
+        @Override
+        public void serialize(LongIdSet value, JsonGenerator generator, SerializerProvider serializers) throws IOException {
+            generator.writeArray(value.ids, 0, value.ids.length);
+        }
+    }
+}
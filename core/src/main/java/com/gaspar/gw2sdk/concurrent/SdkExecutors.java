@@ -0,0 +1,71 @@
+package com.gaspar.gw2sdk.concurrent;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Preset executors that can be given to the {@link com.gaspar.gw2sdk.http.Gw2HttpClient} to run the deserialization
+ * of the responses and the callbacks of the {@link com.gaspar.gw2sdk.ApiPromise}s on. Any other {@link Executor}
+ * can be used as well, but it must not run the tasks inline on the submitting thread: that could be a thread
+ * of the HTTP client.
+ */
+@Slf4j
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class SdkExecutors {
+
+    /**
+     * The common {@link ForkJoinPool}. Suitable for short, CPU bound work such as deserialization. This is the default.
+     */
+    public static Executor forkJoinPool() {
+        return ForkJoinPool.commonPool();
+    }
+
+    /**
+     * An executor which starts a new virtual thread for every task. Suitable for callbacks that block, for example
+     * by making more requests and waiting for them. Virtual threads are only available from Java 21.
+     * @throws UnsupportedOperationException If the Java runtime does not support virtual threads.
+     */
+    public static Executor virtualThreads() throws UnsupportedOperationException {
+        return VirtualThreadExecutorHolder.getExecutor();
+    }
+
+    /**
+     * Check if {@link #virtualThreads()} can be used on this Java runtime.
+     */
+    public static boolean isVirtualThreadsSupported() {
+        return VirtualThreadExecutorHolder.EXECUTOR != null;
+    }
+
+    /**
+     * The SDK is compiled for Java 17, so the virtual thread executor is created reflectively. The holder
+     * class makes sure this is only attempted once, and only if it is needed.
+     */
+    private static class VirtualThreadExecutorHolder {
+
+        private static final ExecutorService EXECUTOR = createExecutor();
+
+        private static ExecutorService createExecutor() {
+            try {
+                return (ExecutorService) Executors.class
+                        .getMethod("newVirtualThreadPerTaskExecutor")
+                        .invoke(null);
+            } catch (ReflectiveOperationException e) {
+                log.debug("Virtual threads are not supported by this Java runtime: {}", e.toString());
+                return null;
+            }
+        }
+
+        private static ExecutorService getExecutor() {
+            if(EXECUTOR == null) {
+                throw new UnsupportedOperationException("Virtual threads require Java 21 or newer, running on " + Runtime.version());
+            }
+            return EXECUTOR;
+        }
+    }
+}
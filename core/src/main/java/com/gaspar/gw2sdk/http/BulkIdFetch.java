@@ -0,0 +1,365 @@
+package com.gaspar.gw2sdk.http;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.gaspar.gw2sdk.Constants;
+import com.gaspar.gw2sdk.annotations.SdkInternal;
+import com.gaspar.gw2sdk.collections.LongIdSet;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nonnull;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+/**
+ * Fetches a list of IDs from a GW2 API endpoint that supports the '{@code ?ids=}' query parameter. The
+ * IDs are split into pages of {@link #MAX_IDS_PER_REQUEST}, the pages are requested in parallel (but with
+ * a cap on how many requests are in flight at the same time), and the JSON array responses are merged into one.
+ * <p>
+ * If some IDs don't exist, the API answers the page with HTTP 206 and the objects it found (or with HTTP 404, if
+ * none of them exist). These pages are still merged: the merged response is then HTTP 206, and it lists the missing
+ * IDs in the {@value Constants#MISSING_IDS_HEADER} header. The missing IDs are remembered in the
+ * {@link MissingIdCache}, so they are not requested again until they expire.
+ */
+@Slf4j
+@SdkInternal
+class BulkIdFetch {
+
+    /**
+     * The GW2 API refuses '{@code ?ids=}' requests with more IDs than this.
+     */
+    static final int MAX_IDS_PER_REQUEST = 200;
+
+    private static final int HTTP_PARTIAL_CONTENT = 206;
+
+    private static final int HTTP_NOT_FOUND = 404;
+
+    private static final String ALL_IDS_INVALID_ERROR = "all ids provided are invalid";
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final String path;
+    private final long[] requestedIds;
+    private final long[] knownMissingIds;
+    private final MissingIdCache missingIdCache;
+    private final List<String> pagePaths;
+    private final int maxInFlight;
+    private final Function<String, CompletableFuture<Optional<HttpResponse>>> pageFetcher;
+
+    private final AtomicReferenceArray<Optional<HttpResponse>> pageResponses;
+    private final AtomicInteger nextPage = new AtomicInteger(0);
+    private final AtomicInteger remainingPages;
+    private final CompletableFuture<Optional<HttpResponse>> result = new CompletableFuture<>();
+
+    /**
+     * @param path API path of the bulk endpoint, without any query parameters. For example {@code /v2/achievements}.
+     * @param ids IDs to fetch. Duplicates are only requested once.
+     * @param maxInFlight Maximum amount of page requests that can be in flight at the same time.
+     * @param pageFetcher Function which fetches a single page, given the full path (with query).
+     */
+    BulkIdFetch(
+            @Nonnull String path,
+            @Nonnull Collection<Long> ids,
+            int maxInFlight,
+            @Nonnull Function<String, CompletableFuture<Optional<HttpResponse>>> pageFetcher
+    ) {
+        this(path, toUniqueArray(ids), maxInFlight, pageFetcher, new MissingIdCache(Duration.ZERO));
+    }
+
+    /**
+     * Same as {@link #BulkIdFetch(String, Collection, int, Function)}, but the IDs of the missing ID cache are not
+     * requested, and the newly found missing IDs are added to it.
+     */
+    BulkIdFetch(
+            @Nonnull String path,
+            @Nonnull Collection<Long> ids,
+            int maxInFlight,
+            @Nonnull Function<String, CompletableFuture<Optional<HttpResponse>>> pageFetcher,
+            @Nonnull MissingIdCache missingIdCache
+    ) {
+        this(path, toUniqueArray(ids), maxInFlight, pageFetcher, missingIdCache);
+    }
+
+    /**
+     * @param path API path of the bulk endpoint, without any query parameters. For example {@code /v2/achievements}.
+     * @param ids IDs to fetch, which are unique already.
+     * @param maxInFlight Maximum amount of page requests that can be in flight at the same time.
+     * @param pageFetcher Function which fetches a single page, given the full path (with query).
+     */
+    BulkIdFetch(
+            @Nonnull String path,
+            @Nonnull LongIdSet ids,
+            int maxInFlight,
+            @Nonnull Function<String, CompletableFuture<Optional<HttpResponse>>> pageFetcher
+    ) {
+        this(path, ids.toArray(), maxInFlight, pageFetcher, new MissingIdCache(Duration.ZERO));
+    }
+
+    /**
+     * Same as {@link #BulkIdFetch(String, LongIdSet, int, Function)}, but the IDs of the missing ID cache are not
+     * requested, and the newly found missing IDs are added to it.
+     */
+    BulkIdFetch(
+            @Nonnull String path,
+            @Nonnull LongIdSet ids,
+            int maxInFlight,
+            @Nonnull Function<String, CompletableFuture<Optional<HttpResponse>>> pageFetcher,
+            @Nonnull MissingIdCache missingIdCache
+    ) {
+        this(path, ids.toArray(), maxInFlight, pageFetcher, missingIdCache);
+    }
+
+    private BulkIdFetch(
+            String path,
+            long[] uniqueIds,
+            int maxInFlight,
+            Function<String, CompletableFuture<Optional<HttpResponse>>> pageFetcher,
+            MissingIdCache missingIdCache
+    ) {
+        this.path = path;
+        this.missingIdCache = missingIdCache;
+        if(missingIdCache.isEnabled()) {
+            LongStream.Builder idsToRequest = LongStream.builder();
+            LongStream.Builder idsKnownMissing = LongStream.builder();
+            for(long id : uniqueIds) {
+                (missingIdCache.isMissing(path, id) ? idsKnownMissing : idsToRequest).add(id);
+            }
+            this.requestedIds = idsToRequest.build().toArray();
+            this.knownMissingIds = idsKnownMissing.build().toArray();
+        } else {
+            this.requestedIds = uniqueIds;
+            this.knownMissingIds = new long[0];
+        }
+        this.pagePaths = createPagePaths(path, requestedIds);
+        this.maxInFlight = maxInFlight;
+        this.pageFetcher = pageFetcher;
+        this.pageResponses = new AtomicReferenceArray<>(pagePaths.size());
+        this.remainingPages = new AtomicInteger(pagePaths.size());
+    }
+
+    /**
+     * Start fetching the pages.
+     * @return A future with the merged response, or an empty optional in case any of the pages could not be obtained.
+     */
+    CompletableFuture<Optional<HttpResponse>> fetch() {
+        if(pagePaths.isEmpty()) {
+            log.debug("No IDs were requested, returning empty list without making requests");
+            return CompletableFuture.completedFuture(Optional.of(mergedResponse(new byte[] {'[', ']'}, knownMissingIds, false)));
+        }
+        log.debug("Fetching '{}' pages of IDs, with maximum '{}' requests in flight", pagePaths.size(), maxInFlight);
+        int initialRequests = Math.min(maxInFlight, pagePaths.size());
+        for(int i = 0; i < initialRequests; i++) {
+            fetchNextPage();
+        }
+        return result;
+    }
+
+    private void fetchNextPage() {
+        int page = nextPage.getAndIncrement();
+        if(page >= pagePaths.size()) {
+            return;
+        }
+        CompletableFuture<Optional<HttpResponse>> pageResponse;
+        try {
+            pageResponse = pageFetcher.apply(pagePaths.get(page));
+        } catch (RuntimeException e) {
+            log.error("Failed to start request for page '{}' of bulk request", page, e);
+            result.completeExceptionally(e);
+            return;
+        }
+        pageResponse.whenComplete((response, throwable) -> {
+            //the page fetcher is expected to convert failures into empty optionals, but be defensive
+            pageResponses.set(page, response != null ? response : Optional.empty());
+            if(remainingPages.decrementAndGet() == 0) {
+                result.complete(mergePages());
+            } else {
+                fetchNextPage();
+            }
+        });
+    }
+
+    private Optional<HttpResponse> mergePages() {
+        List<HttpResponse> responses = new ArrayList<>(pageResponses.length());
+        LongStream.Builder newMissingIds = LongStream.builder();
+        boolean anyPartial = false;
+        for(int i = 0; i < pageResponses.length(); i++) {
+            Optional<HttpResponse> response = pageResponses.get(i);
+            if(response.isEmpty()) {
+                log.debug("Page '{}' of bulk request received no answer, the whole request has no answer", i);
+                return Optional.empty();
+            }
+            int statusCode = response.get().statusCode();
+            if(statusCode == HTTP_PARTIAL_CONTENT) {
+                anyPartial = true;
+                addMissingIds(i, response.get(), newMissingIds);
+            } else if(statusCode == HTTP_NOT_FOUND && isAllIdsInvalid(response.get())) {
+                Arrays.stream(pageIds(i)).forEach(newMissingIds::add);
+                continue; //the body is the error message, not an array
+            } else if(statusCode != 200) {
+                log.debug("Page '{}' of bulk request received error response, the whole request is an error", i);
+                return response;
+            }
+            responses.add(response.get());
+        }
+        long[] missingIds = newMissingIds.build().toArray();
+        missingIdCache.recordMissing(path, missingIds);
+        return Optional.of(mergedResponse(mergeJsonArrays(responses), LongStream.concat(
+                Arrays.stream(knownMissingIds), Arrays.stream(missingIds)).toArray(), anyPartial));
+    }
+
+    /**
+     * @param anyPartial True if any page was a partial response. The merged response is partial then, even if
+     *                   the missing IDs could not be told.
+     */
+    private HttpResponse mergedResponse(byte[] body, long[] missingIds, boolean anyPartial) {
+        if(missingIds.length == 0) {
+            return new HttpResponse(body, anyPartial ? HTTP_PARTIAL_CONTENT : 200, Map.of());
+        }
+        log.debug("'{}' IDs of bulk request are missing", missingIds.length);
+        String missingIdsValue = Arrays.stream(missingIds).sorted().mapToObj(Long::toString).collect(Collectors.joining(","));
+        return new HttpResponse(body, HTTP_PARTIAL_CONTENT, Map.of(Constants.MISSING_IDS_HEADER, List.of(missingIdsValue)));
+    }
+
+    /**
+     * Add the IDs of the page, which are not in the partial response of the page. If the response can't be read,
+     * no IDs are added, but the merged response is still partial.
+     */
+    private void addMissingIds(int page, HttpResponse partialResponse, LongStream.Builder missingIds) {
+        Set<Long> foundIds = new HashSet<>();
+        try(JsonParser parser = JSON_FACTORY.createParser(partialResponse.body(), 0, partialResponse.bodyLength())) {
+            if(parser.nextToken() != JsonToken.START_ARRAY) {
+                log.warn("Partial response of page '{}' is not an array, can't tell which IDs are missing", page);
+                return;
+            }
+            while(parser.nextToken() == JsonToken.START_OBJECT) {
+                while(parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.getCurrentName();
+                    JsonToken value = parser.nextToken();
+                    if("id".equals(field) && value == JsonToken.VALUE_NUMBER_INT) {
+                        foundIds.add(parser.getLongValue());
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Failed to read the IDs of the partial response of page '{}', can't tell which IDs are missing", page, e);
+            return;
+        }
+        for(long id : pageIds(page)) {
+            if(!foundIds.contains(id)) {
+                missingIds.add(id);
+            }
+        }
+    }
+
+    /**
+     * The API answers HTTP 404 to '{@code ?ids=}' requests where none of the IDs exist. Other 404 errors, such as
+     * of an unknown path, are not about the IDs.
+     */
+    private static boolean isAllIdsInvalid(HttpResponse response) {
+        return response.content().contains(ALL_IDS_INVALID_ERROR);
+    }
+
+    private long[] pageIds(int page) {
+        int from = page * MAX_IDS_PER_REQUEST;
+        return Arrays.copyOfRange(requestedIds, from, Math.min(from + MAX_IDS_PER_REQUEST, requestedIds.length));
+    }
+
+    /**
+     * Merge the JSON array contents of the pages into one JSON array, without decoding or deserializing them.
+     */
+    private byte[] mergeJsonArrays(List<HttpResponse> responses) {
+        int totalLength = responses.stream().mapToInt(HttpResponse::bodyLength).sum();
+        ByteArrayOutputStream merged = new ByteArrayOutputStream(totalLength + 2);
+        merged.write('[');
+        boolean first = true;
+        for(HttpResponse response : responses) {
+            byte[] body = response.body();
+            int start = indexOf(body, response.bodyLength(), (byte) '[') + 1;
+            int end = lastIndexOf(body, response.bodyLength(), (byte) ']');
+            if(start <= 0 || end < start || isBlank(body, start, end)) {
+                continue; //empty or not an array: nothing to merge
+            }
+            if(!first) {
+                merged.write(',');
+            }
+            merged.write(body, start, end - start);
+            first = false;
+        }
+        merged.write(']');
+        return merged.toByteArray();
+    }
+
+    private static int indexOf(byte[] body, int length, byte b) {
+        for(int i = 0; i < length; i++) {
+            if(body[i] == b) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int lastIndexOf(byte[] body, int length, byte b) {
+        for(int i = length - 1; i >= 0; i--) {
+            if(body[i] == b) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    //JSON whitespace is always ASCII
+    private static boolean isBlank(byte[] body, int start, int end) {
+        for(int i = start; i < end; i++) {
+            if(!Character.isWhitespace(body[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long[] toUniqueArray(Collection<Long> ids) {
+        return new LinkedHashSet<>(ids).stream()
+                .mapToLong(Long::longValue)
+                .toArray();
+    }
+
+    /**
+     * Create the paths of the pages, each with at most {@link #MAX_IDS_PER_REQUEST} IDs.
+     */
+    static List<String> createPagePaths(String path, long[] uniqueIds) {
+        List<String> pagePaths = new ArrayList<>((uniqueIds.length + MAX_IDS_PER_REQUEST - 1) / MAX_IDS_PER_REQUEST);
+        for(int from = 0; from < uniqueIds.length; from += MAX_IDS_PER_REQUEST) {
+            int to = Math.min(from + MAX_IDS_PER_REQUEST, uniqueIds.length);
+            StringBuilder pagePath = new StringBuilder(path.length() + 5 + (to - from) * 8)
+                    .append(path)
+                    .append("?ids=");
+            for(int i = from; i < to; i++) {
+                if(i > from) {
+                    pagePath.append(',');
+                }
+                pagePath.append(uniqueIds[i]);
+            }
+            pagePaths.add(pagePath.toString());
+        }
+        return pagePaths;
+    }
+}
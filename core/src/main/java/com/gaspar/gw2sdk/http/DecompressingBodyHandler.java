@@ -0,0 +1,282 @@
+package com.gaspar.gw2sdk.http;
+
+import com.gaspar.gw2sdk.Constants;
+import com.gaspar.gw2sdk.annotations.SdkInternal;
+import lombok.extern.slf4j.Slf4j;
+
+import java.net.http.HttpResponse.BodyHandler;
+import java.net.http.HttpResponse.BodySubscriber;
+import java.net.http.HttpResponse.BodySubscribers;
+import java.net.http.HttpResponse.ResponseInfo;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * Body handler of the JDK client, which decompresses '{@code gzip}' and '{@code deflate}' encoded bodies while they
+ * are received. The compressed body is never buffered as a whole: every received chunk is inflated right away, into
+ * the buffer of the decompressed body. The buffer is passed on as it is, without copying the body into an array of
+ * the exact size. Bodies with other encodings are received as they are.
+ */
+@Slf4j
+@SdkInternal
+final class DecompressingBodyHandler implements BodyHandler<DecompressingBodyHandler.DecodedBody> {
+
+    static final DecompressingBodyHandler INSTANCE = new DecompressingBodyHandler();
+
+    /**
+     * Expected compression ratio of JSON, used to size the buffer of the decompressed body.
+     */
+    private static final int EXPECTED_COMPRESSION_RATIO = 8;
+
+    private static final int MAX_INITIAL_BUFFER_BYTES = 4 * 1024 * 1024;
+
+    /**
+     * Body received with the JDK client.
+     * @param bytes Buffer of the decompressed body.
+     * @param length Length of the decompressed body, at the start of the buffer.
+     * @param transferredBytes Size of the body as it was transferred, before decompression.
+     */
+    record DecodedBody(byte[] bytes, int length, long transferredBytes) {}
+
+    private DecompressingBodyHandler() {}
+
+    @Override
+    public BodySubscriber<DecodedBody> apply(ResponseInfo responseInfo) {
+        String encoding = responseInfo.headers().firstValue(Constants.CONTENT_ENCODING_HEADER)
+                .map(value -> value.trim().toLowerCase(Locale.ROOT))
+                .orElse("identity");
+        long contentLength = responseInfo.headers().firstValueAsLong(Constants.CONTENT_LENGTH_HEADER).orElse(-1L);
+        switch (encoding) {
+            case "gzip":
+            case "x-gzip":
+                return new InflatingSubscriber(true, contentLength);
+            case "deflate":
+                return new InflatingSubscriber(false, contentLength);
+            default:
+                return BodySubscribers.mapping(BodySubscribers.ofByteArray(), bytes -> new DecodedBody(bytes, bytes.length, bytes.length));
+        }
+    }
+
+    /**
+     * Check if the headers say that the body is compressed with an encoding that this handler decompresses.
+     */
+    static boolean isDecompressed(String contentEncoding) {
+        String encoding = contentEncoding.trim().toLowerCase(Locale.ROOT);
+        return encoding.equals("gzip") || encoding.equals("x-gzip") || encoding.equals("deflate");
+    }
+
+    /**
+     * Inflates the chunks of the body as they arrive. For gzip, the header is skipped and the trailer is verified
+     * (the {@link Inflater} only handles the deflate stream in between).
+     */
+    private static final class InflatingSubscriber implements BodySubscriber<DecodedBody> {
+
+        private static final int GZIP_MAGIC = 0x8b1f;
+        private static final int GZIP_TRAILER_BYTES = 8;
+
+        private static final int FHCRC = 2;
+        private static final int FEXTRA = 4;
+        private static final int FNAME = 8;
+        private static final int FCOMMENT = 16;
+
+        private final CompletableFuture<DecodedBody> result = new CompletableFuture<>();
+
+        private final boolean gzip;
+
+        private final Inflater inflater;
+
+        private final CRC32 crc = new CRC32();
+
+        //bytes of the gzip header and trailer, which are collected until they are complete
+        private byte[] framing = new byte[0];
+
+        private boolean headerDone;
+
+        private byte[] output;
+
+        private int outputSize = 0;
+
+        private long transferredBytes = 0L;
+
+        private Flow.Subscription subscription;
+
+        private InflatingSubscriber(boolean gzip, long contentLength) {
+            this.gzip = gzip;
+            this.headerDone = !gzip;
+            //the deflate encoding of HTTP is the zlib format, gzip has its own framing around a raw deflate stream
+            this.inflater = new Inflater(gzip);
+            long expectedSize = contentLength > 0 ? contentLength * EXPECTED_COMPRESSION_RATIO : 8192L;
+            this.output = new byte[(int) Math.min(expectedSize, MAX_INITIAL_BUFFER_BYTES)];
+        }
+
+        @Override
+        public CompletionStage<DecodedBody> getBody() {
+            return result;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(1);
+        }
+
+        @Override
+        public void onNext(List<ByteBuffer> chunks) {
+            try {
+                for(ByteBuffer chunk : chunks) {
+                    transferredBytes += chunk.remaining();
+                    consume(chunk);
+                }
+                subscription.request(1);
+            } catch (ZipException | DataFormatException e) {
+                subscription.cancel();
+                fail(e);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            fail(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            try {
+                if(transferredBytes == 0L) {
+                    //responses without body (such as HTTP 304) may still have the encoding header
+                    inflater.end();
+                    result.complete(new DecodedBody(new byte[0], 0, 0L));
+                    return;
+                }
+                if(!inflater.finished()) {
+                    throw new ZipException("Compressed body ended unexpectedly");
+                }
+                if(gzip) {
+                    verifyTrailer();
+                }
+                inflater.end();
+                log.trace("Decompressed {} transferred bytes into {} bytes", transferredBytes, outputSize);
+                result.complete(new DecodedBody(output, outputSize, transferredBytes));
+            } catch (ZipException e) {
+                fail(e);
+            }
+        }
+
+        private void consume(ByteBuffer chunk) throws ZipException, DataFormatException {
+            if(!headerDone) {
+                appendFraming(chunk);
+                int headerLength = gzipHeaderLength();
+                if(headerLength < 0) {
+                    return; //the header is not complete yet
+                }
+                headerDone = true;
+                ByteBuffer afterHeader = ByteBuffer.wrap(framing, headerLength, framing.length - headerLength);
+                framing = new byte[0];
+                consume(afterHeader);
+                return;
+            }
+            if(inflater.finished()) {
+                appendFraming(chunk); //gzip trailer
+                return;
+            }
+            inflater.setInput(chunk);
+            while(!inflater.finished() && !inflater.needsInput()) {
+                if(outputSize == output.length) {
+                    output = Arrays.copyOf(output, output.length * 2);
+                }
+                int inflated = inflater.inflate(output, outputSize, output.length - outputSize);
+                if(gzip) {
+                    crc.update(output, outputSize, inflated);
+                }
+                outputSize += inflated;
+                if(inflated == 0 && inflater.needsDictionary()) {
+                    throw new ZipException("Compressed body needs a preset dictionary");
+                }
+            }
+            if(inflater.finished()) {
+                appendFraming(chunk); //the rest of the chunk belongs to the trailer
+            }
+        }
+
+        /**
+         * Get the length of the gzip header in {@link #framing}.
+         * @return The length, or -1 if the header is not complete yet.
+         */
+        private int gzipHeaderLength() throws ZipException {
+            if(framing.length < 10) {
+                return -1;
+            }
+            if(((framing[0] & 0xff) | ((framing[1] & 0xff) << 8)) != GZIP_MAGIC || framing[2] != 8) {
+                throw new ZipException("Not a gzip body");
+            }
+            int flags = framing[3] & 0xff;
+            int position = 10;
+            if((flags & FEXTRA) != 0) {
+                if(framing.length < position + 2) {
+                    return -1;
+                }
+                position += 2 + ((framing[position] & 0xff) | ((framing[position + 1] & 0xff) << 8));
+            }
+            if((flags & FNAME) != 0) {
+                position = skipZeroTerminated(position);
+            }
+            if((flags & FCOMMENT) != 0) {
+                position = skipZeroTerminated(position);
+            }
+            if((flags & FHCRC) != 0 && position >= 0) {
+                position += 2;
+            }
+            return position >= 0 && position <= framing.length ? position : -1;
+        }
+
+        private int skipZeroTerminated(int position) {
+            if(position < 0) {
+                return -1;
+            }
+            for(int i = position; i < framing.length; i++) {
+                if(framing[i] == 0) {
+                    return i + 1;
+                }
+            }
+            return -1;
+        }
+
+        private void verifyTrailer() throws ZipException {
+            if(framing.length < GZIP_TRAILER_BYTES) {
+                throw new ZipException("Gzip trailer is missing");
+            }
+            long expectedCrc = readUnsignedInt(0);
+            long expectedSize = readUnsignedInt(4);
+            if(expectedCrc != crc.getValue() || expectedSize != (outputSize & 0xffffffffL)) {
+                throw new ZipException("Gzip trailer does not match the decompressed body");
+            }
+        }
+
+        private long readUnsignedInt(int position) {
+            return (framing[position] & 0xffL)
+                    | ((framing[position + 1] & 0xffL) << 8)
+                    | ((framing[position + 2] & 0xffL) << 16)
+                    | ((framing[position + 3] & 0xffL) << 24);
+        }
+
+        private void appendFraming(ByteBuffer chunk) {
+            int previousLength = framing.length;
+            framing = Arrays.copyOf(framing, previousLength + chunk.remaining());
+            chunk.get(framing, previousLength, chunk.remaining());
+        }
+
+        private void fail(Throwable throwable) {
+            inflater.end();
+            result.completeExceptionally(throwable);
+        }
+    }
+}
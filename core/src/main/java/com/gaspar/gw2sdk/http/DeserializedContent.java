@@ -0,0 +1,53 @@
+package com.gaspar.gw2sdk.http;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.gaspar.gw2sdk.annotations.SdkInternal;
+
+import java.lang.reflect.Type;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the deserialized form of an {@link HttpResponse}'s content, so that a response which is served
+ * multiple times (for example from a cache, or after an HTTP 304 revalidation) is only deserialized once.
+ * This means the deserialized objects are shared: they must not be modified.
+ * <p>
+ * This is not part of the value of the response: all instances are equal to each other.
+ */
+@SdkInternal
+public class DeserializedContent {
+
+    private final AtomicReference<Entry> entry = new AtomicReference<>();
+
+    /**
+     * Get the content deserialized into the given type: if it was already deserialized into this type, the
+     * previous result is returned, otherwise the deserializer is called.
+     * @param dataType Type to deserialize into.
+     * @param deserializer Deserializes the content in case it was not deserialized into this type before.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T computeIfAbsent(TypeReference<T> dataType, Supplier<T> deserializer) {
+        Entry current = entry.get();
+        if(current != null && current.type().equals(dataType.getType())) {
+            return (T) current.value();
+        }
+        T value = deserializer.get();
+        entry.set(new Entry(dataType.getType(), value));
+        return value;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof DeserializedContent;
+    }
+
+    @Override
+    public int hashCode() {
+        return 0;
+    }
+
+    private record Entry(
+            Type type,
+            Object value
+    ) {}
+}
@@ -1,6 +1,19 @@
 package com.gaspar.gw2sdk.http;
 
 import com.gaspar.gw2sdk.annotations.SdkInternal;
+import com.gaspar.gw2sdk.cache.ResponseCache;
+import com.gaspar.gw2sdk.collections.LongIdSet;
+import com.gaspar.gw2sdk.concurrent.SdkExecutors;
+import com.gaspar.gw2sdk.jfr.FetchEvent;
+import com.gaspar.gw2sdk.jfr.HttpRequestEvent;
+import com.gaspar.gw2sdk.metrics.ApiOperationTag;
+import com.gaspar.gw2sdk.metrics.SdkMetrics;
+import com.gaspar.gw2sdk.metrics.SdkMetrics.OperationMetrics;
+import com.gaspar.gw2sdk.ratelimit.RateLimiter;
+import com.gaspar.gw2sdk.retry.CircuitBreaker;
+import com.gaspar.gw2sdk.retry.RetryPolicy;
+import com.gaspar.gw2sdk.serialization.DeserializationProfile;
+import com.gaspar.gw2sdk.serialization.SdkDeserialization;
 import com.gaspar.gw2sdk.auth.ApiKey;
 import com.gaspar.gw2sdk.InvalidParamException;
 import lombok.Builder;
@@ -12,9 +25,15 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.Collection;
 import java.util.List;
+import java.time.Duration;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
@@ -22,7 +41,6 @@ import java.util.concurrent.TimeoutException;
  * This client is responsible for making HTTP calls to the GW2 API. The requests are delegated to an
  * {@link UnderlyingHttpClient}.
  */
-//TODO think about retry policy
 @Slf4j
 @SdkInternal
 public class Gw2HttpClient {
@@ -32,6 +50,11 @@ public class Gw2HttpClient {
      */
     private static final String API_BASE_URL = "https://api.guildwars2.com";
 
+    /**
+     * Maximum amount of request templates kept, see {@link #requestTemplates}.
+     */
+    private static final int MAX_REQUEST_TEMPLATES = 256;
+
     /**
      * Underlying HTTP client implementation that will make the requests.
      */
@@ -45,6 +68,11 @@ public class Gw2HttpClient {
     @Getter
     private Optional<ApiKey> apiKey;
 
+    /**
+     * Token of the {@link #apiKey}, resolved once whenever the API key is set.
+     */
+    private Optional<String> apiKeyToken;
+
     /**
      * Schema version used in the API calls. Must be a valid ISO 8601 date time, or 'latest'.
      */
@@ -57,50 +85,487 @@ public class Gw2HttpClient {
     @Getter
     private int timeoutSeconds;
 
+    /**
+     * Determines how many page requests of a bulk ID request can be in flight at the same time.
+     */
+    @Getter
+    private int maxConcurrentBulkRequests;
+
+    /**
+     * If enabled, concurrent identical requests (same URL, API key and schema version) share one underlying
+     * HTTP call instead of each making their own.
+     */
+    @Getter
+    @Setter
+    private boolean coalesceRequests;
+
+    /**
+     * Cache of the responses: in case it is not provided, every request is sent to the API.
+     */
+    @Getter
+    private Optional<ResponseCache> responseCache;
+
+    /**
+     * If enabled, a stale cached response with validators is returned right away, and it's revalidated in the
+     * background, instead of making the caller wait for the revalidation. This is useful with a persistent
+     * cache, which has mostly stale responses after a restart.
+     */
+    @Getter
+    @Setter
+    private boolean serveStaleWhileRevalidating;
+
+    /**
+     * How long the IDs that a bulk endpoint reported as missing are remembered. Until then, bulk requests don't
+     * request them again, but report them as missing right away. By default, 5 minutes. Zero disables this.
+     */
+    @Getter
+    private final Duration missingIdTtl;
+
+    private final MissingIdCache missingIdCache;
+
+    /**
+     * Limits the rate of the requests sent to the API: in case it is not provided, requests are sent right away.
+     */
+    @Getter
+    private Optional<RateLimiter> rateLimiter;
+
+    /**
+     * Determines if and when failed requests are retried. By default, requests are not retried.
+     */
+    @Getter
+    private RetryPolicy retryPolicy;
+
+    /**
+     * Makes requests to degraded endpoints fail fast: in case it is not provided, requests are always sent.
+     */
+    @Getter
+    private Optional<CircuitBreaker> circuitBreaker;
+
+    /**
+     * Used to deserialize the responses, configured with a {@link DeserializationProfile}.
+     */
+    @Getter
+    private SdkDeserialization deserialization;
+
+    /**
+     * Runs the deserialization of the responses, so that it never happens on a thread of the HTTP client.
+     * By default, this is {@link SdkExecutors#forkJoinPool()}.
+     */
+    @Getter
+    private Executor deserializationExecutor;
+
+    /**
+     * Runs the callbacks of the {@link com.gaspar.gw2sdk.ApiPromise}s, so that slow callbacks do not hold up
+     * the HTTP client or the deserialization. By default, this is {@link SdkExecutors#forkJoinPool()}.
+     */
+    @Getter
+    private Executor callbackExecutor;
+
+    /**
+     * Receives the metrics of the requests. By default, metrics are not recorded.
+     */
+    @Getter
+    private SdkMetrics metrics;
+
+    /**
+     * Requests that are currently in flight, used to coalesce identical requests.
+     */
+    private final ConcurrentMap<HttpRequest, CompletableFuture<Optional<HttpResponse>>> inFlightRequests = new ConcurrentHashMap<>();
+
+    /**
+     * Requests of the paths without query parameters, which are the fixed paths of the API operations. These are
+     * immutable, so they are built only once and reused, instead of parsing the URL for every request.
+     */
+    private final ConcurrentMap<String, HttpRequest> requestTemplates = new ConcurrentHashMap<>();
+
     @Builder
     private Gw2HttpClient(
             UnderlyingHttpClient<?> underlyingHttpClient,
             ApiKey apiKey,
-            Integer timeoutSeconds
+            Integer timeoutSeconds,
+            Integer maxConcurrentBulkRequests,
+            Boolean coalesceRequests,
+            ResponseCache responseCache,
+            Boolean serveStaleWhileRevalidating,
+            Duration missingIdTtl,
+            RateLimiter rateLimiter,
+            RetryPolicy retryPolicy,
+            CircuitBreaker circuitBreaker,
+            DeserializationProfile deserializationProfile,
+            Executor deserializationExecutor,
+            Executor callbackExecutor,
+            SdkMetrics metrics
     ) {
         this.underlyingHttpClient = withDefaultValue(underlyingHttpClient, new Java11HttpClient());
-        this.apiKey = Optional.ofNullable(apiKey);
+        setApiKey(apiKey);
         this.timeoutSeconds = validateTimeoutSeconds(withDefaultValue(timeoutSeconds, 5));
+        this.maxConcurrentBulkRequests = validateMaxConcurrentBulkRequests(withDefaultValue(maxConcurrentBulkRequests, 6));
+        this.coalesceRequests = withDefaultValue(coalesceRequests, true);
+        this.responseCache = Optional.ofNullable(responseCache);
+        this.serveStaleWhileRevalidating = withDefaultValue(serveStaleWhileRevalidating, false);
+        this.missingIdTtl = validateMissingIdTtl(withDefaultValue(missingIdTtl, Duration.ofMinutes(5L)));
+        this.missingIdCache = new MissingIdCache(this.missingIdTtl);
+        this.rateLimiter = Optional.ofNullable(rateLimiter);
+        this.retryPolicy = withDefaultValue(retryPolicy, RetryPolicy.none());
+        this.circuitBreaker = Optional.ofNullable(circuitBreaker);
+        this.deserialization = SdkDeserialization.forProfile(withDefaultValue(deserializationProfile, DeserializationProfile.DEFAULT));
+        this.deserializationExecutor = withDefaultValue(deserializationExecutor, SdkExecutors.forkJoinPool());
+        this.callbackExecutor = withDefaultValue(callbackExecutor, SdkExecutors.forkJoinPool());
+        this.metrics = withDefaultValue(metrics, SdkMetrics.noop());
         this.schemaVersion = "2023-03-09T00:00:00Z"; //TODO extract this config somehow
     }
 
     /**
      * Get data from the GW2 API asynchronously. DO NOT use this method directly!
+     * <p>
+     * If a {@link #getResponseCache()} is set and it has a fresh response for the request, no HTTP call is made. If it
+     * has a stale response with validators, a conditional request is made, and in case the API answers with HTTP 304,
+     * the cached response (along with its already deserialized content) is returned. With
+     * {@link #isServeStaleWhileRevalidating()}, the stale response is returned right away instead.
+     * If {@link #isCoalesceRequests()} is enabled and an identical request is already in flight, no new HTTP call
+     * is made: the caller will receive the response of the request in flight.
      * @param path API path which must not include the base URL and must begin with '/'. For example {@code /v2/account}.
      * @return A future with the response, or empty optional in case the response could not be obtained.
      * @throws HttpException If the client cannot make the request at all because of invalid path provided.
      */
     public CompletableFuture<Optional<HttpResponse>> fetchDataAsync(String path) throws HttpException {
+        return fetchDataAsync(path, ApiOperationTag.UNTAGGED);
+    }
+
+    /**
+     * Get data from the GW2 API asynchronously, recording the metrics for the given operation. DO NOT use this method directly!
+     * <p>
+     * Same as {@link #fetchDataAsync(String)}, but the metrics are recorded for the given operation.
+     * @throws HttpException If the client cannot make the request at all because of invalid path provided.
+     */
+    public CompletableFuture<Optional<HttpResponse>> fetchDataAsync(String path, ApiOperationTag operation) throws HttpException {
+        HttpRequest request = createRequest(path);
+        OperationMetrics operationMetrics = metrics.forOperation(operation);
+        operationMetrics.recordRequest();
+
+        FetchEvent fetchEvent = new FetchEvent();
+        if(!fetchEvent.isEnabled()) {
+            return fetchData(path, request, operationMetrics);
+        }
+        fetchEvent.begin();
+        return fetchData(path, request, operationMetrics).whenComplete((response, throwable) -> {
+            fetchEvent.end();
+            if(fetchEvent.shouldCommit()) {
+                fetchEvent.setPath(path);
+                fetchEvent.setOperation(operation.component() + " " + operation.operation());
+                fetchEvent.setStatusCode(response != null && response.isPresent() ? response.get().statusCode() : -1);
+                fetchEvent.setResponseSize(response != null && response.isPresent() ? response.get().bodyLength() : 0L);
+                fetchEvent.commit();
+            }
+        });
+    }
+
+    private CompletableFuture<Optional<HttpResponse>> fetchData(String path, HttpRequest request, OperationMetrics operationMetrics) {
+        Optional<HttpResponse> cachedResponse = responseCache.flatMap(cache -> cache.get(request));
+        if(cachedResponse.isPresent()) {
+            log.debug("Found fresh cached response for '{}'", path);
+            return CompletableFuture.completedFuture(cachedResponse);
+        }
+        if(serveStaleWhileRevalidating) {
+            Optional<HttpResponse> staleResponse = responseCache.flatMap(cache -> cache.getStale(request));
+            if(staleResponse.isPresent()) {
+                log.debug("Serving stale cached response for '{}' while it's revalidated", path);
+                sendCoalescedRequest(request, operationMetrics);
+                return CompletableFuture.completedFuture(staleResponse);
+            }
+        }
+        if(!coalesceRequests) {
+            return sendRequest(request, operationMetrics);
+        }
+        //copy, so that callers can't complete the shared future for each other
+        return sendCoalescedRequest(request, operationMetrics).copy();
+    }
+
+    private CompletableFuture<Optional<HttpResponse>> sendCoalescedRequest(HttpRequest request, OperationMetrics operationMetrics) {
+        var sharedResponse = new CompletableFuture<Optional<HttpResponse>>();
+        var inFlightResponse = inFlightRequests.putIfAbsent(request, sharedResponse);
+        if(inFlightResponse != null) {
+            log.debug("Identical request to '{}' is already in flight, sharing its response", request.url());
+            return inFlightResponse;
+        }
+
+        sendRequest(request, operationMetrics).whenComplete((response, throwable) -> {
+            //remove before completing, so that callers arriving after this point make a new request
+            inFlightRequests.remove(request, sharedResponse);
+            if(throwable != null) {
+                sharedResponse.completeExceptionally(throwable);
+            } else {
+                sharedResponse.complete(response);
+            }
+        });
+        return sharedResponse;
+    }
+
+    private HttpRequest createRequest(String path) throws HttpException {
+        Optional<String> currentApiKeyToken = apiKeyToken;
+        HttpRequest template = requestTemplates.get(path);
+        //the template is outdated if the API key was replaced since it was made
+        if(template != null && template.apiKey() == currentApiKeyToken) {
+            return template;
+        }
+        HttpRequest request = newRequest(path, currentApiKeyToken);
+        if(path.indexOf('?') < 0 && (template != null || requestTemplates.size() < MAX_REQUEST_TEMPLATES)) {
+            requestTemplates.put(path, request);
+        }
+        return request;
+    }
+
+    private HttpRequest newRequest(String path, Optional<String> currentApiKeyToken) throws HttpException {
         try {
-            HttpRequest request = new HttpRequest(
+            return new HttpRequest(
                     new URI(API_BASE_URL + path),
-                    apiKey.map(ApiKey::getToken),
+                    currentApiKeyToken,
                     schemaVersion
             );
-            return underlyingHttpClient.httpGetAsync(request) //must not throw exceptions: will only return with futures
-                    .orTimeout(timeoutSeconds, TimeUnit.SECONDS)
-                    .exceptionally(this::exceptionHandlerStage) //convert exceptional future to null
-                    .thenApply(Optional::ofNullable); //convert value or null to Optional
         } catch (URISyntaxException e) {
             log.error("Incorrect path provided and an URI cannot be made: {}{}", API_BASE_URL, path);
             throw new HttpException(e);
         }
     }
 
+    private CompletableFuture<Optional<HttpResponse>> sendRequest(HttpRequest request, OperationMetrics operationMetrics) {
+        Optional<HttpRequest> conditionalRequest = responseCache
+                .flatMap(cache -> cache.getStale(request))
+                .flatMap(request::withValidatorsOf);
+        if(conditionalRequest.isEmpty()) {
+            return sendUnconditionalRequest(request, operationMetrics);
+        }
+
+        log.debug("Revalidating stale cached response of '{}' with a conditional request", request.url());
+        return sendToUnderlyingClient(conditionalRequest.get(), operationMetrics).thenCompose(response -> {
+            if(response.isEmpty() || response.get().statusCode() != 304) {
+                return CompletableFuture.completedFuture(cacheResponse(request, response));
+            }
+            Optional<HttpResponse> revalidatedResponse = responseCache.flatMap(cache -> cache.revalidate(request, response.get()));
+            if(revalidatedResponse.isPresent()) {
+                return CompletableFuture.completedFuture(revalidatedResponse);
+            }
+            log.debug("Cached response of '{}' was evicted during revalidation, making unconditional request", request.url());
+            return sendUnconditionalRequest(request, operationMetrics);
+        });
+    }
+
+    private CompletableFuture<Optional<HttpResponse>> sendUnconditionalRequest(HttpRequest request, OperationMetrics operationMetrics) {
+        return sendToUnderlyingClient(request, operationMetrics).thenApply(response -> cacheResponse(request, response));
+    }
+
+    private CompletableFuture<Optional<HttpResponse>> sendToUnderlyingClient(HttpRequest request, OperationMetrics operationMetrics) {
+        RetryPolicy policy = retryPolicy; //the policy may be replaced while this request is in progress
+        return sendAttempt(request, operationMetrics, policy, 1, Duration.ZERO, new RetryDeadline(policy));
+    }
+
+    private CompletableFuture<Optional<HttpResponse>> sendAttempt(
+            HttpRequest request,
+            OperationMetrics operationMetrics,
+            RetryPolicy policy,
+            int attempt,
+            Duration previousDelay,
+            RetryDeadline deadline
+    ) {
+        String endpoint = request.url().getPath();
+        if(circuitBreaker.isPresent() && !circuitBreaker.get().tryAcquire(endpoint)) {
+            log.debug("Circuit of endpoint '{}' is open, failing fast without sending the request", endpoint);
+            return CompletableFuture.completedFuture(Optional.empty());
+        }
+
+        return sendOnce(request, operationMetrics, deadline).thenCompose(response -> {
+            circuitBreaker.ifPresent(breaker -> breaker.record(endpoint, response));
+            if(attempt >= policy.getMaxAttempts() || !policy.isRetryable(response)) {
+                return CompletableFuture.completedFuture(response);
+            }
+            Duration delay = policy.nextDelay(previousDelay, response);
+            if(delay.toNanos() >= deadline.remainingNanos()) {
+                log.debug("Not retrying request to '{}', because the deadline would pass", request.url());
+                return CompletableFuture.completedFuture(response);
+            }
+            if(log.isDebugEnabled()) {
+                log.debug("Attempt '{}' of request to '{}' failed, retrying in '{}' ms", attempt, request.url(), delay.toMillis());
+            }
+            return CompletableFuture.runAsync(() -> {}, CompletableFuture.delayedExecutor(delay.toNanos(), TimeUnit.NANOSECONDS))
+                    .thenCompose(v -> sendAttempt(request, operationMetrics, policy, attempt + 1, delay, deadline));
+        });
+    }
+
+    private CompletableFuture<Optional<HttpResponse>> sendOnce(HttpRequest request, OperationMetrics operationMetrics, RetryDeadline deadline) {
+        long queuedAtNanos = System.nanoTime();
+        CompletableFuture<Void> permission = rateLimiter
+                .map(limiter -> limiter.acquire(request))
+                .orElseGet(() -> CompletableFuture.completedFuture(null));
+        //the timeout only starts after the rate limiter allowed the request, but it can't go beyond the deadline
+        return permission.thenCompose(v -> {
+                    deadline.start();
+                    long sentAtNanos = System.nanoTime();
+                    operationMetrics.recordQueueTime(sentAtNanos - queuedAtNanos);
+                    HttpRequestEvent requestEvent = new HttpRequestEvent();
+                    if(!requestEvent.isEnabled()) {
+                        return underlyingHttpClient.httpGetAsync(request) //must not throw exceptions: will only return with futures
+                                .orTimeout(attemptTimeoutNanos(deadline), TimeUnit.NANOSECONDS)
+                                .whenComplete((response, throwable) -> recordAttempt(operationMetrics, sentAtNanos, response, throwable));
+                    }
+                    requestEvent.begin();
+                    return underlyingHttpClient.httpGetAsync(request)
+                            .orTimeout(attemptTimeoutNanos(deadline), TimeUnit.NANOSECONDS)
+                            .whenComplete((response, throwable) -> {
+                                recordAttempt(operationMetrics, sentAtNanos, response, throwable);
+                                commitRequestEvent(requestEvent, request, response, throwable);
+                            });
+                })
+                .exceptionally(this::exceptionHandlerStage) //convert exceptional future to null
+                .thenApply(Optional::ofNullable) //convert value or null to Optional
+                .thenApply(response -> notifyIfThrottled(request, response));
+    }
+
+    private void recordAttempt(OperationMetrics operationMetrics, long sentAtNanos, HttpResponse response, Throwable throwable) {
+        if(response != null) {
+            operationMetrics.recordResponse(response.statusCode(), response.bodyLength(), System.nanoTime() - sentAtNanos);
+            operationMetrics.recordTransferSize(response.transferredBytes());
+        } else if(unwrap(throwable) instanceof TimeoutException) {
+            operationMetrics.recordTimeout();
+        } else {
+            operationMetrics.recordFailure();
+        }
+    }
+
+    private void commitRequestEvent(HttpRequestEvent requestEvent, HttpRequest request, HttpResponse response, Throwable throwable) {
+        requestEvent.end();
+        if(requestEvent.shouldCommit()) {
+            requestEvent.setUrl(request.url().toString());
+            requestEvent.setStatusCode(response != null ? response.statusCode() : -1);
+            requestEvent.setResponseSize(response != null ? response.bodyLength() : 0L);
+            requestEvent.setTransferSize(response != null ? response.transferredBytes() : 0L);
+            requestEvent.setTimedOut(unwrap(throwable) instanceof TimeoutException);
+            requestEvent.commit();
+        }
+    }
+
+    private long attemptTimeoutNanos(RetryDeadline deadline) {
+        long remainingNanos = Math.max(1L, deadline.remainingNanos());
+        return Math.min(TimeUnit.SECONDS.toNanos(timeoutSeconds), remainingNanos);
+    }
+
+    /**
+     * Deadline of the attempts of one request. It starts when the rate limiter first allows the request, so the
+     * time spent waiting for the first permission is not counted. Requests without retries have no deadline:
+     * their only attempt is limited by the timeout alone.
+     */
+    private static final class RetryDeadline {
+
+        private final long durationNanos;
+
+        private long deadlineNanos;
+
+        private boolean started = false;
+
+        private RetryDeadline(RetryPolicy policy) {
+            this.durationNanos = policy.getMaxAttempts() > 1 ? policy.getDeadline().toNanos() : Long.MAX_VALUE;
+        }
+
+        //the attempts of a request are chained futures, so these are never called concurrently
+        private void start() {
+            if(!started) {
+                long now = System.nanoTime();
+                deadlineNanos = durationNanos == Long.MAX_VALUE ? Long.MAX_VALUE : now + durationNanos;
+                started = true;
+            }
+        }
+
+        private long remainingNanos() {
+            if(!started || deadlineNanos == Long.MAX_VALUE) {
+                return durationNanos;
+            }
+            return deadlineNanos - System.nanoTime();
+        }
+    }
+
+    private Optional<HttpResponse> notifyIfThrottled(HttpRequest request, Optional<HttpResponse> response) {
+        if(response.isPresent() && response.get().statusCode() == 429) {
+            rateLimiter.ifPresent(limiter -> limiter.onThrottled(request));
+        }
+        return response;
+    }
+
+    private Optional<HttpResponse> cacheResponse(HttpRequest request, Optional<HttpResponse> response) {
+        response.ifPresent(r -> responseCache.ifPresent(cache -> cache.put(request, r)));
+        return response;
+    }
+
+    /**
+     * Get a list of objects by their IDs from the GW2 API asynchronously. DO NOT use this method directly!
+     * <p>
+     * The IDs are split into pages of 200 (the maximum the GW2 API accepts with '{@code ?ids=}'), which are
+     * fetched in parallel, with at most {@link #getMaxConcurrentBulkRequests()} requests in flight. The JSON array
+     * responses of the pages are merged into a single response.
+     * <p>
+     * If some IDs don't exist, the merged response is HTTP 206 with the objects that exist, and the missing IDs are
+     * remembered for {@link #getMissingIdTtl()}, see {@link com.gaspar.gw2sdk.ApiResponse#missingIds()}.
+     * @param path API path of the bulk endpoint, which must not include the base URL or any query parameters.
+     *             For example {@code /v2/achievements}.
+     * @param ids IDs of the objects to get.
+     * @return A future with the merged response. If any page is an error, that error response is returned.
+     * If any page received no answer, an empty optional is returned.
+     * @throws HttpException If the client cannot make the requests at all because of invalid path provided.
+     */
+    public CompletableFuture<Optional<HttpResponse>> fetchBulkDataAsync(String path, Collection<Long> ids) throws HttpException {
+        return fetchBulkDataAsync(path, ids, ApiOperationTag.UNTAGGED);
+    }
+
+    /**
+     * Same as {@link #fetchBulkDataAsync(String, Collection)}, but the metrics of the pages are recorded for the
+     * given operation. DO NOT use this method directly!
+     * @throws HttpException If the client cannot make the requests at all because of invalid path provided.
+     */
+    public CompletableFuture<Optional<HttpResponse>> fetchBulkDataAsync(String path, Collection<Long> ids, ApiOperationTag operation) throws HttpException {
+        return new BulkIdFetch(path, ids, maxConcurrentBulkRequests, pagePath -> fetchDataAsync(pagePath, operation), missingIdCache).fetch();
+    }
+
+    /**
+     * Get a set of objects by their IDs from the GW2 API asynchronously. DO NOT use this method directly!
+     * <p>
+     * Same as {@link #fetchBulkDataAsync(String, Collection)}, but the IDs are not boxed.
+     * @throws HttpException If the client cannot make the requests at all because of invalid path provided.
+     */
+    public CompletableFuture<Optional<HttpResponse>> fetchBulkDataAsync(String path, LongIdSet ids) throws HttpException {
+        return fetchBulkDataAsync(path, ids, ApiOperationTag.UNTAGGED);
+    }
+
+    /**
+     * Same as {@link #fetchBulkDataAsync(String, LongIdSet)}, but the metrics of the pages are recorded for the
+     * given operation. DO NOT use this method directly!
+     * @throws HttpException If the client cannot make the requests at all because of invalid path provided.
+     */
+    public CompletableFuture<Optional<HttpResponse>> fetchBulkDataAsync(String path, LongIdSet ids, ApiOperationTag operation) throws HttpException {
+        return new BulkIdFetch(path, ids, maxConcurrentBulkRequests, pagePath -> fetchDataAsync(pagePath, operation), missingIdCache).fetch();
+    }
+
+    /**
+     * Get the paths of the pages that {@link #fetchBulkDataAsync(String, LongIdSet)} would request, each with at most
+     * 200 IDs. DO NOT use this method directly!
+     */
+    public List<String> bulkPagePaths(String path, LongIdSet ids) {
+        return BulkIdFetch.createPagePaths(path, ids.toArray());
+    }
+
     private HttpResponse exceptionHandlerStage(Throwable t) {
-        if(t instanceof TimeoutException) {
-            log.warn("The HTTP request timed out after {} seconds, returning null...", timeoutSeconds);
+        if(unwrap(t) instanceof TimeoutException) {
+            log.warn("The HTTP request timed out after at most {} seconds, returning null...", timeoutSeconds);
             return null;
         }
         log.warn("Exception occurred in underlying HTTP client, returning null");
         return null;
     }
 
+    private static Throwable unwrap(Throwable t) {
+        if(t instanceof CompletionException && t.getCause() != null) {
+            return t.getCause();
+        }
+        return t;
+    }
+
     private int validateTimeoutSeconds(int timeoutSeconds) {
         if(timeoutSeconds <= 0) {
             throw new InvalidParamException("timeoutSeconds", timeoutSeconds, List.of("Must be positive"));
@@ -108,15 +573,66 @@ public class Gw2HttpClient {
         return timeoutSeconds;
     }
 
+    private int validateMaxConcurrentBulkRequests(int maxConcurrentBulkRequests) {
+        if(maxConcurrentBulkRequests <= 0) {
+            throw new InvalidParamException("maxConcurrentBulkRequests", maxConcurrentBulkRequests, List.of("Must be positive"));
+        }
+        return maxConcurrentBulkRequests;
+    }
+
+    private Duration validateMissingIdTtl(Duration missingIdTtl) {
+        if(missingIdTtl.isNegative()) {
+            throw new InvalidParamException("missingIdTtl", missingIdTtl, List.of("Must not be negative"));
+        }
+        return missingIdTtl;
+    }
+
     private <T> T withDefaultValue(@Nullable T value, @Nonnull T defaultValue) {
         return value != null ? value : defaultValue;
     }
 
     public void setApiKey(ApiKey apiKey) {
         this.apiKey = Optional.ofNullable(apiKey);
+        this.apiKeyToken = this.apiKey.map(ApiKey::getToken);
+    }
+
+    public void setResponseCache(ResponseCache responseCache) {
+        this.responseCache = Optional.ofNullable(responseCache);
+    }
+
+    public void setRateLimiter(RateLimiter rateLimiter) {
+        this.rateLimiter = Optional.ofNullable(rateLimiter);
+    }
+
+    public void setRetryPolicy(RetryPolicy retryPolicy) {
+        this.retryPolicy = withDefaultValue(retryPolicy, RetryPolicy.none());
+    }
+
+    public void setCircuitBreaker(CircuitBreaker circuitBreaker) {
+        this.circuitBreaker = Optional.ofNullable(circuitBreaker);
+    }
+
+    public void setDeserializationProfile(DeserializationProfile deserializationProfile) {
+        this.deserialization = SdkDeserialization.forProfile(withDefaultValue(deserializationProfile, DeserializationProfile.DEFAULT));
+    }
+
+    public void setDeserializationExecutor(Executor deserializationExecutor) {
+        this.deserializationExecutor = withDefaultValue(deserializationExecutor, SdkExecutors.forkJoinPool());
+    }
+
+    public void setCallbackExecutor(Executor callbackExecutor) {
+        this.callbackExecutor = withDefaultValue(callbackExecutor, SdkExecutors.forkJoinPool());
+    }
+
+    public void setMetrics(SdkMetrics metrics) {
+        this.metrics = withDefaultValue(metrics, SdkMetrics.noop());
     }
 
     public void setTimeoutSeconds(int timeoutSeconds) {
         this.timeoutSeconds = validateTimeoutSeconds(timeoutSeconds);
     }
+
+    public void setMaxConcurrentBulkRequests(int maxConcurrentBulkRequests) {
+        this.maxConcurrentBulkRequests = validateMaxConcurrentBulkRequests(maxConcurrentBulkRequests);
+    }
 }
@@ -1,11 +1,52 @@
 package com.gaspar.gw2sdk.http;
 
+import com.gaspar.gw2sdk.Constants;
+
 import java.net.URI;
 import java.util.Optional;
 
+/**
+ * Raw request to the API. Requests are equal if they fetch the same data: this is used to
+ * coalesce identical requests that are in flight at the same time.
+ * <p>
+ * A request can be made conditional with the validators of a previously received response, see
+ * {@link #withValidatorsOf(HttpResponse)}. The API answers conditional requests with HTTP 304
+ * if the data has not changed.
+ */
 public record HttpRequest(
         URI url,
         Optional<String> apiKey,
-        String schemaVersion
+        String schemaVersion,
+        Optional<String> ifNoneMatch,
+        Optional<String> ifModifiedSince
 ) {
+
+    /**
+     * Create an unconditional request.
+     */
+    public HttpRequest(URI url, Optional<String> apiKey, String schemaVersion) {
+        this(url, apiKey, schemaVersion, Optional.empty(), Optional.empty());
+    }
+
+    /**
+     * Create a conditional version of this request, using the '{@code ETag}' and '{@code Last-Modified}'
+     * headers of a previous response as '{@code If-None-Match}' and '{@code If-Modified-Since}'.
+     * @param previousResponse Previous response to this request.
+     * @return The conditional request, or empty optional if the response has no validators.
+     */
+    public Optional<HttpRequest> withValidatorsOf(HttpResponse previousResponse) {
+        Optional<String> etag = previousResponse.header(Constants.ETAG_HEADER);
+        Optional<String> lastModified = previousResponse.header(Constants.LAST_MODIFIED_HEADER);
+        if(etag.isEmpty() && lastModified.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(new HttpRequest(url, apiKey, schemaVersion, etag, lastModified));
+    }
+
+    /**
+     * Check if this request is conditional: it has '{@code If-None-Match}' or '{@code If-Modified-Since}'.
+     */
+    public boolean isConditional() {
+        return ifNoneMatch.isPresent() || ifModifiedSince.isPresent();
+    }
 }
@@ -2,12 +2,96 @@ package com.gaspar.gw2sdk.http;
 
 import com.gaspar.gw2sdk.annotations.SdkInternal;
 
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
 /**
- * Raw response from the API.
+ * Raw response from the API. The body is kept as the bytes that were received (after decompression), so that
+ * it can be deserialized without decoding it into a string first. The deserialized form of the body is remembered
+ * in {@link #deserializedContent()}. If the body was compressed, {@link #transferredBytes()} is its
+ * compressed size.
+ * <p>
+ * Only the first {@link #bodyLength()} bytes of {@link #body()} belong to the body: a decompressed body is kept in
+ * the buffer it was inflated into, instead of copying it into an array of the exact size.
  */
 @SdkInternal
 public record HttpResponse(
-        String content,
-        int statusCode
+        byte[] body,
+        int bodyLength,
+        int statusCode,
+        Map<String, List<String>> headers,
+        DeserializedContent deserializedContent,
+        long transferredBytes
 ) {
+
+    public HttpResponse {
+        if(bodyLength < 0 || bodyLength > body.length) {
+            throw new IllegalArgumentException("Body length " + bodyLength + " is out of the " + body.length + " bytes of the body");
+        }
+    }
+
+    /**
+     * Create a response that was not deserialized yet, and was received without compression.
+     */
+    public HttpResponse(byte[] body, int statusCode, Map<String, List<String>> headers) {
+        this(body, statusCode, headers, body.length);
+    }
+
+    /**
+     * Create a response that was not deserialized yet.
+     * @param transferredBytes Size of the body as it was received, before decompression.
+     */
+    public HttpResponse(byte[] body, int statusCode, Map<String, List<String>> headers, long transferredBytes) {
+        this(body, body.length, statusCode, headers, transferredBytes);
+    }
+
+    /**
+     * Create a response that was not deserialized yet, whose body is the first {@code bodyLength} bytes of the array.
+     * @param transferredBytes Size of the body as it was received, before decompression.
+     */
+    public HttpResponse(byte[] body, int bodyLength, int statusCode, Map<String, List<String>> headers, long transferredBytes) {
+        this(body, bodyLength, statusCode, headers, new DeserializedContent(), transferredBytes);
+    }
+
+    /**
+     * Create a response from string content, encoded as UTF-8.
+     */
+    public HttpResponse(String content, int statusCode, Map<String, List<String>> headers) {
+        this(content.getBytes(StandardCharsets.UTF_8), statusCode, headers);
+    }
+
+    /**
+     * Create a response from string content without any headers.
+     */
+    public HttpResponse(String content, int statusCode) {
+        this(content, statusCode, Map.of());
+    }
+
+    /**
+     * Get the body decoded into a string. The GW2 API always responds with UTF-8. Prefer using the
+     * {@link #body()} directly, because this creates a copy of it.
+     */
+    public String content() {
+        return new String(body, 0, bodyLength, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Get the first value of a response header. Header names are case-insensitive.
+     * @param name Name of the header, such as '{@code Cache-Control}'.
+     * @return The first value of the header, or empty optional if the response does not have this header.
+     */
+    public Optional<String> header(String name) {
+        List<String> values = headers.get(name);
+        if(values == null) {
+            //not all maps are case-insensitive, like the one used by the JDK client
+            values = headers.entrySet().stream()
+                    .filter(entry -> name.equalsIgnoreCase(entry.getKey()))
+                    .map(Map.Entry::getValue)
+                    .findFirst()
+                    .orElse(List.of());
+        }
+        return values.stream().findFirst();
+    }
 }
@@ -1,32 +1,145 @@
 package com.gaspar.gw2sdk.http;
 
 import com.gaspar.gw2sdk.Constants;
+import com.gaspar.gw2sdk.InvalidParamException;
+import lombok.Builder;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.TreeMap;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * HTTP client implementation using the built-in JDK HTTP client. This is the default
  * {@link UnderlyingHttpClient} used by the SDK.
+ * <p>
+ * By default, HTTP/2 is preferred: the GW2 API supports it, so concurrent requests are multiplexed over a
+ * single connection instead of opening a connection (and making a TLS handshake) for each of them. The
+ * JDK client can be configured with the builder, for example to fan out many requests:
+ * <pre>{@code
+ * var underlyingHttpClient = Java11HttpClient.builder()
+ *         .connectTimeout(Duration.ofSeconds(5))
+ *         .maxConcurrentStreams(100)
+ *         .build();
+ * }</pre>
  */
 @Slf4j
 public class Java11HttpClient implements UnderlyingHttpClient<HttpClient> {
 
+    /**
+     * Maximum amount of converted requests kept, see {@link #convertedRequests}.
+     */
+    private static final int MAX_CONVERTED_REQUESTS = 256;
+
     private HttpClient httpClient;
 
+    /**
+     * Maximum amount of requests in flight at the same time, or empty optional if not limited. Requests over
+     * the limit wait in a queue until a request completes. With HTTP/2, this should not be more than the
+     * maximum concurrent streams the server allows, so that requests never need a new connection.
+     * <p>
+     * The time spent in the queue counts towards the timeout of the request (see
+     * {@link Gw2HttpClient#getTimeoutSeconds()}). Requests that time out or are cancelled while waiting
+     * are never sent.
+     */
+    @Getter
+    private final Optional<Integer> maxConcurrentStreams;
+
+    /**
+     * If enabled, the API is asked to compress the responses with gzip or deflate. The responses are decompressed
+     * while they are received, see {@link HttpResponse#transferredBytes()} for their compressed size.
+     */
+    @Getter
+    private final boolean compression;
+
+    private final AtomicInteger requestsInFlight = new AtomicInteger();
+
+    private final Queue<WaitingRequest> waitingRequests = new ConcurrentLinkedQueue<>();
+
+    //number of calls to send the waiting requests that are not handled yet, only one thread sends them at a time
+    private final AtomicInteger sendCalls = new AtomicInteger();
+
+    /**
+     * JDK requests are immutable, so the unconditional requests of fixed paths (without query parameters)
+     * are only converted once. The SDK reuses its requests for these paths, so the lookup is cheap.
+     */
+    private final ConcurrentMap<HttpRequest, java.net.http.HttpRequest> convertedRequests = new ConcurrentHashMap<>();
+
+    /**
+     * The '{@code Authorization}' header value of the last used API key. Usually there is only one API key,
+     * so its header value is only formatted once.
+     */
+    private volatile AuthorizationHeader lastAuthorizationHeader = new AuthorizationHeader("", "");
+
+    /**
+     * Create a client with the default values of the {@link #builder()}.
+     */
     public Java11HttpClient() {
-        this.httpClient = HttpClient.newHttpClient();
-        log.debug("HTTP Client initialized with default values");
+        this(null, null, null, null, null);
+    }
+
+    /**
+     * @param httpVersion Preferred HTTP version. By default, this is HTTP/2, which falls back to HTTP/1.1
+     *                    if the server does not support it.
+     * @param connectTimeout How long to wait for a new connection to be established. By default, 10 seconds.
+     * @param executor Runs the tasks of the JDK client, such as handling the responses. By default, the JDK client
+     *                 creates its own executor.
+     * @param maxConcurrentStreams See {@link #getMaxConcurrentStreams()}. By default, not limited.
+     * @param compression See {@link #isCompression()}. Enabled by default.
+     */
+    @Builder
+    private Java11HttpClient(
+            HttpClient.Version httpVersion,
+            Duration connectTimeout,
+            Executor executor,
+            Integer maxConcurrentStreams,
+            Boolean compression
+    ) {
+        var builder = HttpClient.newBuilder()
+                .version(withDefaultValue(httpVersion, HttpClient.Version.HTTP_2))
+                .connectTimeout(validateConnectTimeout(withDefaultValue(connectTimeout, Duration.ofSeconds(10))));
+        if(executor != null) {
+            builder.executor(executor);
+        }
+        this.httpClient = builder.build();
+        this.maxConcurrentStreams = Optional.ofNullable(maxConcurrentStreams).map(Java11HttpClient::validateMaxConcurrentStreams);
+        this.compression = withDefaultValue(compression, true);
+        log.debug("HTTP Client initialized with version '{}'", httpClient.version());
     }
 
     @Override
     public CompletableFuture<HttpResponse> httpGetAsync(HttpRequest httpRequest) {
         try {
-            java.net.http.HttpRequest request = convertGw2Request(httpRequest);
-            log.debug("Making async HTTP GET request to '{}'", request.uri().toString());
-            return httpClient.sendAsync(request, java.net.http.HttpResponse.BodyHandlers.ofString())
-                    .thenApply(this::convertGw2Response);
+            java.net.http.HttpRequest request = getConvertedRequest(httpRequest);
+            if(log.isDebugEnabled()) {
+                log.debug("Making async HTTP GET request to '{}'", request.uri().toString());
+            }
+            if(maxConcurrentStreams.isEmpty()) {
+                return send(request);
+            }
+            var waitingRequest = new WaitingRequest(request, new CompletableFuture<>());
+            waitingRequests.add(waitingRequest);
+            //if the caller gives up while the request is waiting, it does not stay in the queue
+            waitingRequest.response().whenComplete((result, throwable) -> {
+                if(throwable != null) {
+                    waitingRequests.remove(waitingRequest);
+                }
+            });
+            sendWaitingRequests();
+            return waitingRequest.response();
         } catch (Exception e) {
             log.warn("Failed to make HTTP request", e);
             return CompletableFuture.failedFuture(e);
@@ -43,6 +156,71 @@ public class Java11HttpClient implements UnderlyingHttpClient<HttpClient> {
         this.httpClient = httpClient;
     }
 
+    private CompletableFuture<HttpResponse> send(java.net.http.HttpRequest request) {
+        return httpClient.sendAsync(request, DecompressingBodyHandler.INSTANCE)
+                .thenApply(this::convertGw2Response);
+    }
+
+    //the request must complete in any case, otherwise the waiting requests would never be sent
+    private CompletableFuture<HttpResponse> sendSafely(java.net.http.HttpRequest request) {
+        try {
+            return send(request);
+        } catch (RuntimeException e) {
+            log.warn("Failed to make HTTP request", e);
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Send the waiting requests, for as long as the {@link #maxConcurrentStreams} allows. If another thread is
+     * already sending them, it's asked to check the queue again instead, so this never recurses when a request
+     * fails right away, and only the sending thread increments the {@link #requestsInFlight}.
+     */
+    private void sendWaitingRequests() {
+        if(sendCalls.getAndIncrement() != 0) {
+            return;
+        }
+        int limit = maxConcurrentStreams.orElse(Integer.MAX_VALUE);
+        int missed = 1;
+        do {
+            //when the limit is reached, a request in flight sends the next one when it completes
+            while(requestsInFlight.get() < limit) {
+                WaitingRequest waitingRequest = waitingRequests.poll();
+                if(waitingRequest == null) {
+                    break;
+                }
+                if(waitingRequest.response().isDone()) {
+                    continue; //timed out or cancelled while waiting
+                }
+                requestsInFlight.incrementAndGet();
+                sendSafely(waitingRequest.request()).whenComplete((result, throwable) -> {
+                    requestsInFlight.decrementAndGet();
+                    sendWaitingRequests();
+                    if(throwable != null) {
+                        waitingRequest.response().completeExceptionally(throwable);
+                    } else {
+                        waitingRequest.response().complete(result);
+                    }
+                });
+            }
+            missed = sendCalls.addAndGet(-missed);
+        } while(missed != 0);
+    }
+
+    private java.net.http.HttpRequest getConvertedRequest(HttpRequest httpRequest) {
+        if(httpRequest.isConditional() || httpRequest.url().getRawQuery() != null) {
+            return convertGw2Request(httpRequest);
+        }
+        java.net.http.HttpRequest request = convertedRequests.get(httpRequest);
+        if(request == null) {
+            request = convertGw2Request(httpRequest);
+            if(convertedRequests.size() < MAX_CONVERTED_REQUESTS) {
+                convertedRequests.put(httpRequest, request);
+            }
+        }
+        return request;
+    }
+
     private java.net.http.HttpRequest convertGw2Request(HttpRequest httpRequest) {
         var builder = java.net.http.HttpRequest.newBuilder()
                 .GET()
@@ -51,16 +229,67 @@ public class Java11HttpClient implements UnderlyingHttpClient<HttpClient> {
         //headers
         httpRequest.apiKey().ifPresent(apiKey -> {
             log.debug("Setting '{}' header for request", Constants.AUTHORIZATION_HEADER);
-            builder.setHeader(Constants.AUTHORIZATION_HEADER, "Bearer " + apiKey);
+            builder.setHeader(Constants.AUTHORIZATION_HEADER, authorizationHeaderValue(apiKey));
         });
 
-        log.debug("Setting '{}' header for request with value '{}'", Constants.SCHEMA_VERSION_HEADER, httpRequest.schemaVersion());
+        if(log.isDebugEnabled()) {
+            log.debug("Setting '{}' header for request with value '{}'", Constants.SCHEMA_VERSION_HEADER, httpRequest.schemaVersion());
+        }
         builder.header(Constants.SCHEMA_VERSION_HEADER, httpRequest.schemaVersion());
+        if(compression) {
+            builder.header(Constants.ACCEPT_ENCODING_HEADER, "gzip, deflate");
+        }
+
+        httpRequest.ifNoneMatch().ifPresent(etag -> builder.header(Constants.IF_NONE_MATCH_HEADER, etag));
+        httpRequest.ifModifiedSince().ifPresent(date -> builder.header(Constants.IF_MODIFIED_SINCE_HEADER, date));
 
         return builder.build();
     }
 
-    private HttpResponse convertGw2Response(java.net.http.HttpResponse<String> response) {
-        return new HttpResponse(response.body(), response.statusCode());
+    private String authorizationHeaderValue(String apiKey) {
+        AuthorizationHeader header = lastAuthorizationHeader;
+        if(!header.apiKey().equals(apiKey)) {
+            header = new AuthorizationHeader(apiKey, "Bearer " + apiKey);
+            lastAuthorizationHeader = header;
+        }
+        return header.value();
+    }
+
+    private record AuthorizationHeader(String apiKey, String value) {}
+
+    private record WaitingRequest(java.net.http.HttpRequest request, CompletableFuture<HttpResponse> response) {}
+
+    private HttpResponse convertGw2Response(java.net.http.HttpResponse<DecompressingBodyHandler.DecodedBody> response) {
+        Map<String, List<String>> headers = response.headers().map();
+        boolean decompressed = response.headers().firstValue(Constants.CONTENT_ENCODING_HEADER)
+                .map(DecompressingBodyHandler::isDecompressed)
+                .orElse(false);
+        if(decompressed) {
+            //the body is no longer encoded, the headers must not say otherwise (for example in a response cache)
+            Map<String, List<String>> decodedHeaders = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            decodedHeaders.putAll(headers);
+            decodedHeaders.remove(Constants.CONTENT_ENCODING_HEADER);
+            decodedHeaders.remove(Constants.CONTENT_LENGTH_HEADER);
+            headers = decodedHeaders;
+        }
+        return new HttpResponse(response.body().bytes(), response.body().length(), response.statusCode(), headers, response.body().transferredBytes());
+    }
+
+    private static Duration validateConnectTimeout(Duration connectTimeout) {
+        if(connectTimeout.isNegative() || connectTimeout.isZero()) {
+            throw new InvalidParamException("connectTimeout", connectTimeout, List.of("Must be positive"));
+        }
+        return connectTimeout;
+    }
+
+    private static int validateMaxConcurrentStreams(int maxConcurrentStreams) {
+        if(maxConcurrentStreams <= 0) {
+            throw new InvalidParamException("maxConcurrentStreams", maxConcurrentStreams, List.of("Must be positive"));
+        }
+        return maxConcurrentStreams;
+    }
+
+    private static <T> T withDefaultValue(@Nullable T value, @Nonnull T defaultValue) {
+        return value != null ? value : defaultValue;
     }
 }
@@ -0,0 +1,82 @@
+package com.gaspar.gw2sdk.http;
+
+import com.gaspar.gw2sdk.annotations.SdkInternal;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Remembers the IDs that a bulk endpoint reported as missing, for a limited time. Bulk requests skip these IDs
+ * until they expire, so repeated lookups of IDs that do not exist never reach the API.
+ * <p>
+ * Expired IDs are removed when they are looked up, or when many IDs are remembered.
+ */
+@Slf4j
+@SdkInternal
+final class MissingIdCache {
+
+    /**
+     * Above this many remembered IDs of a path, the expired ones are removed when new ones are added.
+     */
+    private static final int CLEANUP_THRESHOLD = 10_000;
+
+    private final long ttlNanos;
+
+    //expiry of the missing IDs in System.nanoTime(), by the path of the bulk endpoint
+    private final ConcurrentMap<String, ConcurrentMap<Long, Long>> expiries = new ConcurrentHashMap<>();
+
+    MissingIdCache(Duration ttl) {
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    /**
+     * Check if IDs are remembered at all. If not, nothing is recorded.
+     */
+    boolean isEnabled() {
+        return ttlNanos > 0L;
+    }
+
+    /**
+     * Check if the ID was reported as missing from the endpoint, and that has not expired yet.
+     */
+    boolean isMissing(String path, long id) {
+        if(!isEnabled()) {
+            return false;
+        }
+        ConcurrentMap<Long, Long> pathExpiries = expiries.get(path);
+        if(pathExpiries == null) {
+            return false;
+        }
+        Long expiry = pathExpiries.get(id);
+        if(expiry == null) {
+            return false;
+        }
+        if(expiry - System.nanoTime() <= 0L) {
+            pathExpiries.remove(id, expiry);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Remember IDs which were reported as missing from the endpoint.
+     */
+    void recordMissing(String path, long[] ids) {
+        if(!isEnabled() || ids.length == 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        ConcurrentMap<Long, Long> pathExpiries = expiries.computeIfAbsent(path, ignored -> new ConcurrentHashMap<>());
+        if(pathExpiries.size() + ids.length > CLEANUP_THRESHOLD) {
+            pathExpiries.values().removeIf(expiry -> expiry - now <= 0L);
+        }
+        for(long id : ids) {
+            pathExpiries.put(id, now + ttlNanos);
+        }
+        if(log.isDebugEnabled()) {
+            log.debug("Remembering '{}' missing IDs of '{}' for {}", ids.length, path, Duration.ofNanos(ttlNanos));
+        }
+    }
+}
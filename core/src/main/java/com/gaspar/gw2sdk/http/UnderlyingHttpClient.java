@@ -6,7 +6,7 @@ import java.util.concurrent.CompletableFuture;
  * All HTTP clients used by the SDK must implement this interface. It forces underlying HTTP clients to
  * wrap their classes into SDK response/request class: {@link HttpRequest}, {@link HttpResponse}.
  * <ul>
- *     <li>Implementations must not serialize the responses: it needs to be string.</li>
+ *     <li>Implementations must not deserialize the responses: the body needs to be the raw bytes that were received.</li>
  *     <li>Implementations must not throw exceptions on HTTP status codes 400, 500: this is up to the caller.</li>
  * </ul>
  * @param <ClientType> Type of the HTTP client used.
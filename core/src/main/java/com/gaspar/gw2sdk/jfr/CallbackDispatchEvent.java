@@ -0,0 +1,28 @@
+package com.gaspar.gw2sdk.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import lombok.Setter;
+
+/**
+ * Invocation of a callback attached to an {@link com.gaspar.gw2sdk.ApiPromise}. The duration is how long the
+ * callback took, which includes the user code.
+ */
+@Name("com.gaspar.gw2sdk.CallbackDispatch")
+@Label("GW2 API Callback Dispatch")
+@Description("Invoking a callback of an ApiPromise")
+@Category({"GW2 SDK", "Promise"})
+@Enabled(false)
+@StackTrace(false)
+@Setter
+public final class CallbackDispatchEvent extends Event {
+
+    @Label("Callback Type")
+    @Description("One of 'onSuccess', 'onError' or 'onNoAnswer'")
+    private String callbackType;
+}
@@ -0,0 +1,38 @@
+package com.gaspar.gw2sdk.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import lombok.Setter;
+
+/**
+ * Deserialization of a response with {@link com.gaspar.gw2sdk.serialization.SdkDeserialization}.
+ */
+@Name("com.gaspar.gw2sdk.Deserialization")
+@Label("GW2 API Deserialization")
+@Description("Deserializing a GW2 API response into a data object")
+@Category({"GW2 SDK", "Serialization"})
+@Enabled(false)
+@StackTrace(false)
+@Setter
+public final class DeserializationEvent extends Event {
+
+    @Label("Data Type")
+    private String dataType;
+
+    @Label("Profile")
+    private String profile;
+
+    @Label("Content Size")
+    @Description("Size of the content: bytes, or characters if it was deserialized from a string")
+    @DataAmount
+    private long contentSize;
+
+    @Label("Successful")
+    private boolean successful;
+}
@@ -0,0 +1,40 @@
+package com.gaspar.gw2sdk.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import lombok.Setter;
+
+/**
+ * A call of {@link com.gaspar.gw2sdk.http.Gw2HttpClient#fetchDataAsync(String)}, from the start until the
+ * response is available. This includes responses served from the cache, retries and waiting for the rate limiter.
+ */
+@Name("com.gaspar.gw2sdk.Fetch")
+@Label("GW2 API Fetch")
+@Description("Fetching data from the GW2 API, including caching, rate limiting and retries")
+@Category({"GW2 SDK", "HTTP"})
+@Enabled(false)
+@StackTrace(false)
+@Setter
+public final class FetchEvent extends Event {
+
+    @Label("Path")
+    private String path;
+
+    @Label("Operation")
+    @Description("Component base path and operation path, see @Gw2ApiOperation")
+    private String operation;
+
+    @Label("Status Code")
+    @Description("HTTP status code of the response, or -1 if there was no answer")
+    private int statusCode;
+
+    @Label("Response Size")
+    @DataAmount
+    private long responseSize;
+}
@@ -0,0 +1,45 @@
+package com.gaspar.gw2sdk.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import lombok.Setter;
+
+/**
+ * A single request made with {@link com.gaspar.gw2sdk.http.UnderlyingHttpClient#httpGetAsync(com.gaspar.gw2sdk.http.HttpRequest)}.
+ * Retries of the same fetch are separate events.
+ */
+@Name("com.gaspar.gw2sdk.HttpRequest")
+@Label("GW2 API HTTP Request")
+@Description("A single HTTP request sent to the GW2 API by the underlying HTTP client")
+@Category({"GW2 SDK", "HTTP"})
+@Enabled(false)
+@StackTrace(false)
+@Setter
+public final class HttpRequestEvent extends Event {
+
+    @Label("URL")
+    private String url;
+
+    @Label("Status Code")
+    @Description("HTTP status code of the response, or -1 if there was no answer")
+    private int statusCode;
+
+    @Label("Response Size")
+    @Description("Size of the response body, after decompression")
+    @DataAmount
+    private long responseSize;
+
+    @Label("Transfer Size")
+    @Description("Size of the response body as it was received, before decompression")
+    @DataAmount
+    private long transferSize;
+
+    @Label("Timed Out")
+    private boolean timedOut;
+}
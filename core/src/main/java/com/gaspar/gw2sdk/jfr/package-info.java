@@ -0,0 +1,10 @@
+/**
+ * Java Flight Recorder events emitted by the SDK. All of them are disabled by default, and cost (close to)
+ * nothing while disabled. They can be enabled in a JFR configuration by their names, for example:
+ * <pre>{@code
+ * jcmd <pid> JFR.start settings=gw2sdk.jfc
+ * }</pre>
+ * where the '{@code gw2sdk.jfc}' file contains '{@code <event name="com.gaspar.gw2sdk.Fetch"><setting name="enabled">true</setting></event>}'
+ * for each event, or programmatically with {@code recording.enable(FetchEvent.class)}.
+ */
+package com.gaspar.gw2sdk.jfr;
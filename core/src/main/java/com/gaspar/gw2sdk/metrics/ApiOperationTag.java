@@ -0,0 +1,57 @@
+package com.gaspar.gw2sdk.metrics;
+
+import com.gaspar.gw2sdk.annotations.Gw2ApiComponent;
+import com.gaspar.gw2sdk.annotations.Gw2ApiOperation;
+
+import javax.annotation.Nonnull;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Identifies an operation of an API component, for the metrics. It is made of the
+ * {@link Gw2ApiComponent#basePath()} of the component, and the {@link Gw2ApiOperation#path()} of the operation.
+ * <p>
+ * API components should resolve the tags of their operations once, with {@link #of(Class, String, Class[])}, and
+ * store them in constants.
+ * @param component Base path of the component, such as '{@code /v2/achievements}'.
+ * @param operation Path of the operation. If the operation has multiple paths, they are separated by '{@code |}'.
+ */
+public record ApiOperationTag(
+        String component,
+        String operation
+) {
+
+    /**
+     * Used for requests that are not made by an API component operation.
+     */
+    public static final ApiOperationTag UNTAGGED = new ApiOperationTag("unknown", "unknown");
+
+    /**
+     * Resolve the tag of an operation from its annotations.
+     * @param componentClass Class of the API component, annotated with {@link Gw2ApiComponent}.
+     * @param methodName Name of the operation method, annotated with {@link Gw2ApiOperation}.
+     * @param parameterTypes Parameter types of the operation method.
+     * @throws IllegalArgumentException If the method does not exist, or the annotations are missing.
+     */
+    public static ApiOperationTag of(@Nonnull Class<?> componentClass, @Nonnull String methodName, Class<?>... parameterTypes) {
+        Gw2ApiComponent component = componentClass.getAnnotation(Gw2ApiComponent.class);
+        if(component == null) {
+            throw new IllegalArgumentException(componentClass.getName() + " is not annotated with @Gw2ApiComponent");
+        }
+        Method method;
+        try {
+            method = componentClass.getDeclaredMethod(methodName, parameterTypes);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalArgumentException("Operation method '" + methodName + "' does not exist in " + componentClass.getName(), e);
+        }
+        Gw2ApiOperation[] operations = method.getAnnotationsByType(Gw2ApiOperation.class);
+        if(operations.length == 0) {
+            throw new IllegalArgumentException("Method '" + methodName + "' is not annotated with @Gw2ApiOperation");
+        }
+        String operationPaths = Arrays.stream(operations)
+                .map(Gw2ApiOperation::path)
+                .collect(Collectors.joining("|"));
+        return new ApiOperationTag(component.basePath(), operationPaths);
+    }
+}
@@ -0,0 +1,104 @@
+package com.gaspar.gw2sdk.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of non-negative long values, in the style of HDR histograms. Values are counted in buckets
+ * whose width grows with the magnitude of the value: every power of two range is split into
+ * {@value #SUB_BUCKET_COUNT} buckets, so a recorded value is known with about 3% precision. Values below
+ * {@value #SUB_BUCKET_COUNT} are exact.
+ * <p>
+ * Recording is a few atomic increments and never allocates. Reading can happen at the same time as recording,
+ * in which case the results may not include the latest values.
+ */
+public class ConcurrentHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    //values below SUB_BUCKET_COUNT have their own buckets, then SUB_BUCKET_COUNT buckets for every power of two
+    private static final int BUCKET_COUNT = SUB_BUCKET_COUNT + (Long.SIZE - 1 - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder totalCount = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Record a value. Negative values are recorded as 0.
+     */
+    public void record(long value) {
+        long positiveValue = Math.max(0L, value);
+        counts.incrementAndGet(bucketIndex(positiveValue));
+        totalCount.increment();
+        sum.add(positiveValue);
+        if(positiveValue > max.get()) {
+            max.accumulateAndGet(positiveValue, Math::max);
+        }
+    }
+
+    public long getCount() {
+        return totalCount.sum();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Get the mean of the recorded values, or 0 if there are none.
+     */
+    public double getMean() {
+        long count = totalCount.sum();
+        return count == 0 ? 0.0 : (double) sum.sum() / count;
+    }
+
+    /**
+     * Get the value below which the given percentage of the recorded values are. The result is the upper bound
+     * of the bucket of that value, but never more than {@link #getMax()}.
+     * @param percentile Between 0 and 100, for example 99.9.
+     * @return The value, or 0 if there are no recorded values.
+     */
+    public long getValueAtPercentile(double percentile) {
+        long[] snapshot = new long[BUCKET_COUNT];
+        long count = 0;
+        for(int i = 0; i < BUCKET_COUNT; i++) {
+            snapshot[i] = counts.get(i);
+            count += snapshot[i];
+        }
+        if(count == 0) {
+            return 0L;
+        }
+        long targetCount = Math.max(1L, (long) Math.ceil(Math.min(100.0, Math.max(0.0, percentile)) / 100.0 * count));
+        long accumulated = 0;
+        for(int i = 0; i < BUCKET_COUNT; i++) {
+            accumulated += snapshot[i];
+            if(accumulated >= targetCount) {
+                return Math.min(bucketUpperBound(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    static int bucketIndex(long value) {
+        if(value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1);
+        return SUB_BUCKET_COUNT + (exponent - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    static long bucketUpperBound(int index) {
+        if(index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int exponent = (index - SUB_BUCKET_COUNT) / SUB_BUCKET_COUNT + SUB_BUCKET_BITS;
+        int subBucket = (index - SUB_BUCKET_COUNT) % SUB_BUCKET_COUNT;
+        long bucketWidth = 1L << (exponent - SUB_BUCKET_BITS);
+        long lowerBound = (1L << exponent) + subBucket * bucketWidth;
+        return lowerBound + bucketWidth - 1;
+    }
+}
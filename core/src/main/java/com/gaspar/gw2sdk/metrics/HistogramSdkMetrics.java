@@ -0,0 +1,148 @@
+package com.gaspar.gw2sdk.metrics;
+
+import lombok.Getter;
+
+import javax.annotation.Nonnull;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Built-in {@link SdkMetrics} implementation, which records the metrics of each operation into
+ * lock-free counters and {@link ConcurrentHistogram}s. The metrics can be read at any time with
+ * {@link #getOperationStats()}, for example to export them to a monitoring system periodically.
+ */
+public class HistogramSdkMetrics implements SdkMetrics {
+
+    private final ConcurrentMap<ApiOperationTag, OperationStats> operationStats = new ConcurrentHashMap<>();
+
+    @Override
+    public OperationStats forOperation(@Nonnull ApiOperationTag operation) {
+        OperationStats stats = operationStats.get(operation); //avoid locking of computeIfAbsent if possible
+        return stats != null ? stats : operationStats.computeIfAbsent(operation, tag -> new OperationStats());
+    }
+
+    /**
+     * Get the metrics of all operations that were requested so far. The returned map is a live, read only view.
+     */
+    public Map<ApiOperationTag, OperationStats> getOperationStats() {
+        return Collections.unmodifiableMap(operationStats);
+    }
+
+    /**
+     * Metrics of one operation.
+     */
+    public static class OperationStats implements OperationMetrics {
+
+        private final LongAdder requestCount = new LongAdder();
+        private final LongAdder timeoutCount = new LongAdder();
+        private final LongAdder failureCount = new LongAdder();
+
+        //index 0 is for status codes that don't belong to any class
+        private final LongAdder[] statusClassCounts = new LongAdder[6];
+
+        /**
+         * Time the requests waited before being sent, in nanoseconds.
+         */
+        @Getter
+        private final ConcurrentHistogram queueTime = new ConcurrentHistogram();
+
+        /**
+         * Time from sending the requests until their responses arrived, in nanoseconds.
+         */
+        @Getter
+        private final ConcurrentHistogram networkTime = new ConcurrentHistogram();
+
+        /**
+         * Time of deserializing the responses, in nanoseconds.
+         */
+        @Getter
+        private final ConcurrentHistogram deserializationTime = new ConcurrentHistogram();
+
+        /**
+         * Size of the response bodies, in bytes.
+         */
+        @Getter
+        private final ConcurrentHistogram responseSize = new ConcurrentHistogram();
+
+        /**
+         * Size of the response bodies as they were transferred, in bytes. If the responses are compressed,
+         * this is smaller than the {@link #getResponseSize()}.
+         */
+        @Getter
+        private final ConcurrentHistogram transferSize = new ConcurrentHistogram();
+
+        OperationStats() {
+            for(int i = 0; i < statusClassCounts.length; i++) {
+                statusClassCounts[i] = new LongAdder();
+            }
+        }
+
+        @Override
+        public void recordRequest() {
+            requestCount.increment();
+        }
+
+        @Override
+        public void recordQueueTime(long nanos) {
+            queueTime.record(nanos);
+        }
+
+        @Override
+        public void recordResponse(int statusCode, long sizeBytes, long networkNanos) {
+            statusClassCounts[statusClassIndex(statusCode)].increment();
+            responseSize.record(sizeBytes);
+            networkTime.record(networkNanos);
+        }
+
+        @Override
+        public void recordTransferSize(long transferredBytes) {
+            transferSize.record(transferredBytes);
+        }
+
+        @Override
+        public void recordTimeout() {
+            timeoutCount.increment();
+        }
+
+        @Override
+        public void recordFailure() {
+            failureCount.increment();
+        }
+
+        @Override
+        public void recordDeserializationTime(long nanos) {
+            deserializationTime.record(nanos);
+        }
+
+        public long getRequestCount() {
+            return requestCount.sum();
+        }
+
+        public long getTimeoutCount() {
+            return timeoutCount.sum();
+        }
+
+        public long getFailureCount() {
+            return failureCount.sum();
+        }
+
+        /**
+         * Get how many responses had a status code of the given class.
+         * @param statusClass Between 1 and 5, for example 2 means the 2xx responses.
+         */
+        public long getStatusClassCount(int statusClass) {
+            if(statusClass < 1 || statusClass > 5) {
+                return 0L;
+            }
+            return statusClassCounts[statusClass].sum();
+        }
+
+        private static int statusClassIndex(int statusCode) {
+            int statusClass = statusCode / 100;
+            return statusClass >= 1 && statusClass <= 5 ? statusClass : 0;
+        }
+    }
+}
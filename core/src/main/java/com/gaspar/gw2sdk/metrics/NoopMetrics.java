@@ -0,0 +1,40 @@
+package com.gaspar.gw2sdk.metrics;
+
+import com.gaspar.gw2sdk.annotations.SdkInternal;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Default {@link SdkMetrics} which discards everything.
+ */
+@SdkInternal
+enum NoopMetrics implements SdkMetrics, SdkMetrics.OperationMetrics {
+
+    INSTANCE;
+
+    @Override
+    public OperationMetrics forOperation(@Nonnull ApiOperationTag operation) {
+        return this;
+    }
+
+    @Override
+    public void recordRequest() {}
+
+    @Override
+    public void recordQueueTime(long nanos) {}
+
+    @Override
+    public void recordResponse(int statusCode, long sizeBytes, long networkNanos) {}
+
+    @Override
+    public void recordTransferSize(long transferredBytes) {}
+
+    @Override
+    public void recordTimeout() {}
+
+    @Override
+    public void recordFailure() {}
+
+    @Override
+    public void recordDeserializationTime(long nanos) {}
+}
@@ -0,0 +1,73 @@
+package com.gaspar.gw2sdk.metrics;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Receives the metrics of the requests made by the SDK. The metrics are recorded per operation, see
+ * {@link ApiOperationTag}. Implementations must be thread safe, and they must be fast, because they are called
+ * on the threads of the HTTP client.
+ * <p>
+ * By default, the metrics are not recorded: see {@link #noop()}. The SDK has a built-in implementation that
+ * records them into histograms: {@link HistogramSdkMetrics}.
+ */
+public interface SdkMetrics {
+
+    /**
+     * Get the recorder of an operation. This is called once per request, so implementations
+     * should avoid expensive lookups.
+     */
+    OperationMetrics forOperation(@Nonnull ApiOperationTag operation);
+
+    /**
+     * Metrics implementation which discards everything.
+     */
+    static SdkMetrics noop() {
+        return NoopMetrics.INSTANCE;
+    }
+
+    /**
+     * Records the metrics of one operation. All durations are in nanoseconds.
+     */
+    interface OperationMetrics {
+
+        /**
+         * The operation was requested. This includes requests served from the cache, or shared with an identical
+         * request that was already in flight.
+         */
+        void recordRequest();
+
+        /**
+         * A request to the API had to wait this long before it could be sent, for example because of rate limiting.
+         */
+        void recordQueueTime(long nanos);
+
+        /**
+         * A request to the API received a response.
+         * @param statusCode HTTP status code of the response.
+         * @param sizeBytes Size of the response body.
+         * @param networkNanos Time from sending the request until the response arrived.
+         */
+        void recordResponse(int statusCode, long sizeBytes, long networkNanos);
+
+        /**
+         * A request to the API received a response, which was this large when it was transferred. This is
+         * smaller than the size of {@link #recordResponse(int, long, long)} if the response was compressed.
+         */
+        default void recordTransferSize(long transferredBytes) {}
+
+        /**
+         * A request to the API timed out.
+         */
+        void recordTimeout();
+
+        /**
+         * A request to the API failed without response, for some other reason than a timeout.
+         */
+        void recordFailure();
+
+        /**
+         * A response was deserialized, which took this long.
+         */
+        void recordDeserializationTime(long nanos);
+    }
+}
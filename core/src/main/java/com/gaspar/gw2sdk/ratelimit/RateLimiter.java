@@ -0,0 +1,32 @@
+package com.gaspar.gw2sdk.ratelimit;
+
+import com.gaspar.gw2sdk.http.HttpRequest;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Limits the rate of requests that the {@link com.gaspar.gw2sdk.http.Gw2HttpClient} sends to the GW2 API, so
+ * that the API's rate limit is not exceeded. Requests that are served from a cache are not rate limited.
+ * <ul>
+ *     <li>Implementations must not block the calling thread: requests that have to wait should be delayed
+ *     with the returned future.</li>
+ *     <li>Implementations must be thread safe.</li>
+ * </ul>
+ * The default implementation is {@link TokenBucketRateLimiter}.
+ */
+public interface RateLimiter {
+
+    /**
+     * Acquire permission to send a request.
+     * @param request The request that is about to be sent.
+     * @return A future that completes when the request may be sent.
+     */
+    CompletableFuture<Void> acquire(HttpRequest request);
+
+    /**
+     * Called when the API has rejected a request because of its rate limit (HTTP 429). This means that the
+     * limiter allowed more requests than the API, for example because other clients share the same IP address.
+     * @param request The request that was rejected.
+     */
+    default void onThrottled(HttpRequest request) {}
+}
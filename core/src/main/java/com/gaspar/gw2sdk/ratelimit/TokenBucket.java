@@ -0,0 +1,61 @@
+package com.gaspar.gw2sdk.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free token bucket, implemented as a generic cell rate algorithm: instead of counting tokens, it stores
+ * the theoretical time when the bucket will be full again. Every request reserves one token, and is told how long
+ * it has to wait for that token. This way requests are queued without any locks or waiting threads.
+ */
+class TokenBucket {
+
+    /**
+     * Time it takes to refill one token, in nanoseconds.
+     */
+    private final long nanosPerToken;
+
+    /**
+     * Time it takes to refill the whole bucket, in nanoseconds.
+     */
+    private final long burstNanos;
+
+    private final LongSupplier nanoClock;
+
+    /**
+     * The time when all reserved tokens will be refilled.
+     */
+    private final AtomicLong theoreticalArrivalTime;
+
+    TokenBucket(int tokensPerMinute, int burst, LongSupplier nanoClock) {
+        this.nanosPerToken = TimeUnit.MINUTES.toNanos(1) / tokensPerMinute;
+        this.burstNanos = nanosPerToken * burst;
+        this.nanoClock = nanoClock;
+        this.theoreticalArrivalTime = new AtomicLong(nanoClock.getAsLong());
+    }
+
+    /**
+     * Reserve one token.
+     * @return How many nanoseconds the caller has to wait until the reserved token is available. Zero if it is
+     * available right away.
+     */
+    long reserve() {
+        while(true) {
+            long now = nanoClock.getAsLong();
+            long current = theoreticalArrivalTime.get();
+            long next = Math.max(current, now) + nanosPerToken;
+            if(theoreticalArrivalTime.compareAndSet(current, next)) {
+                return Math.max(0L, next - burstNanos - now);
+            }
+        }
+    }
+
+    /**
+     * Remove all tokens that are currently available, so that the following requests have to wait.
+     */
+    void drain() {
+        long now = nanoClock.getAsLong();
+        theoreticalArrivalTime.accumulateAndGet(now + burstNanos, Math::max);
+    }
+}
@@ -0,0 +1,150 @@
+package com.gaspar.gw2sdk.ratelimit;
+
+import com.gaspar.gw2sdk.InvalidParamException;
+import com.gaspar.gw2sdk.http.HttpRequest;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link RateLimiter} matching the GW2 API quota: every client (IP address) can make a burst of requests, after which
+ * it can make a limited amount of requests per minute. There is a global bucket for all requests, and a separate
+ * bucket for each API key.
+ * <p>
+ * Requests that have to wait are delayed asynchronously, without blocking any threads. The waiting can be
+ * observed with {@link #getQueueDepth()}, {@link #getDelayedRequestCount()} and {@link #getTotalWaitTime()}.
+ * <pre>{@code
+ * var client = Gw2HttpClient.builder()
+ *         .rateLimiter(TokenBucketRateLimiter.builder().build()) //uses the GW2 API defaults
+ *         .build();
+ * }</pre>
+ */
+@Slf4j
+public class TokenBucketRateLimiter implements RateLimiter {
+
+    /**
+     * Amount of requests that the GW2 API allows per minute, after the burst is used up.
+     */
+    public static final int GW2_REQUESTS_PER_MINUTE = 300;
+
+    /**
+     * Amount of requests that the GW2 API allows in a burst.
+     */
+    public static final int GW2_BURST = 300;
+
+    @Getter
+    private final int requestsPerMinute;
+
+    @Getter
+    private final int burst;
+
+    @Getter
+    private final int perKeyRequestsPerMinute;
+
+    @Getter
+    private final int perKeyBurst;
+
+    private final TokenBucket globalBucket;
+
+    private final ConcurrentMap<String, TokenBucket> keyBuckets = new ConcurrentHashMap<>();
+
+    private final AtomicInteger queueDepth = new AtomicInteger();
+    private final LongAdder delayedRequestCount = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    @Builder
+    private TokenBucketRateLimiter(
+            Integer requestsPerMinute,
+            Integer burst,
+            Integer perKeyRequestsPerMinute,
+            Integer perKeyBurst
+    ) {
+        this.requestsPerMinute = validatePositive("requestsPerMinute", withDefaultValue(requestsPerMinute, GW2_REQUESTS_PER_MINUTE));
+        this.burst = validatePositive("burst", withDefaultValue(burst, GW2_BURST));
+        this.perKeyRequestsPerMinute = validatePositive("perKeyRequestsPerMinute", withDefaultValue(perKeyRequestsPerMinute, this.requestsPerMinute));
+        this.perKeyBurst = validatePositive("perKeyBurst", withDefaultValue(perKeyBurst, this.burst));
+        this.globalBucket = new TokenBucket(this.requestsPerMinute, this.burst, System::nanoTime);
+        log.debug("Rate limiter initialized with '{}' requests per minute and burst of '{}'", this.requestsPerMinute, this.burst);
+    }
+
+    @Override
+    public CompletableFuture<Void> acquire(HttpRequest request) {
+        long waitNanos = globalBucket.reserve();
+        if(request.apiKey().isPresent()) {
+            waitNanos = Math.max(waitNanos, keyBucket(request.apiKey().get()).reserve());
+        }
+        if(waitNanos == 0L) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        log.debug("Rate limit reached, delaying request to '{}' by '{}' ms", request.url(), TimeUnit.NANOSECONDS.toMillis(waitNanos));
+        delayedRequestCount.increment();
+        totalWaitNanos.add(waitNanos);
+        maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+        queueDepth.incrementAndGet();
+        return CompletableFuture.runAsync(queueDepth::decrementAndGet, CompletableFuture.delayedExecutor(waitNanos, TimeUnit.NANOSECONDS));
+    }
+
+    @Override
+    public void onThrottled(HttpRequest request) {
+        log.warn("GW2 API rate limit was exceeded, pausing requests until the buckets refill");
+        globalBucket.drain();
+        request.apiKey().ifPresent(apiKey -> keyBucket(apiKey).drain());
+    }
+
+    /**
+     * Get how many requests are currently waiting for the rate limit.
+     */
+    public int getQueueDepth() {
+        return queueDepth.get();
+    }
+
+    /**
+     * Get how many requests had to wait for the rate limit so far.
+     */
+    public long getDelayedRequestCount() {
+        return delayedRequestCount.sum();
+    }
+
+    /**
+     * Get the sum of the time that requests had to wait for the rate limit so far.
+     */
+    public Duration getTotalWaitTime() {
+        return Duration.ofNanos(totalWaitNanos.sum());
+    }
+
+    /**
+     * Get the longest time that a request had to wait for the rate limit so far.
+     */
+    public Duration getMaxWaitTime() {
+        return Duration.ofNanos(maxWaitNanos.get());
+    }
+
+    private TokenBucket keyBucket(String apiKey) {
+        return keyBuckets.computeIfAbsent(apiKey, key -> new TokenBucket(perKeyRequestsPerMinute, perKeyBurst, System::nanoTime));
+    }
+
+    private static int validatePositive(String paramName, int value) {
+        if(value <= 0) {
+            throw new InvalidParamException(paramName, value, List.of("Must be positive"));
+        }
+        return value;
+    }
+
+    private static <T> T withDefaultValue(@Nullable T value, @Nonnull T defaultValue) {
+        return value != null ? value : defaultValue;
+    }
+}
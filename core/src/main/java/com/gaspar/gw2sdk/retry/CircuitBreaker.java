@@ -0,0 +1,163 @@
+package com.gaspar.gw2sdk.retry;
+
+import com.gaspar.gw2sdk.InvalidParamException;
+import com.gaspar.gw2sdk.http.HttpResponse;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * Circuit breaker that makes the {@link com.gaspar.gw2sdk.http.Gw2HttpClient} fail fast while an endpoint of the
+ * GW2 API is degraded, instead of sending requests that are doomed to fail. Each endpoint (URL path, without the
+ * query parameters) has its own circuit:
+ * <ul>
+ *     <li>{@link State#CLOSED}: requests are sent. After {@link #getFailureThreshold()} consecutive failures, the
+ *     circuit opens. Failures are responses that did not arrive, or server errors (HTTP 5xx).</li>
+ *     <li>{@link State#OPEN}: requests are not sent, they have no answer right away. After {@link #getOpenDuration()}
+ *     a single probe request is allowed, and the circuit becomes half-open.</li>
+ *     <li>{@link State#HALF_OPEN}: the probe request is in flight, other requests are not sent. If the probe
+ *     succeeds the circuit closes, otherwise it opens again.</li>
+ * </ul>
+ */
+@Slf4j
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    /**
+     * Amount of consecutive failures after which the circuit of an endpoint opens.
+     */
+    @Getter
+    private final int failureThreshold;
+
+    /**
+     * How long the circuit stays open before a probe request is allowed.
+     */
+    @Getter
+    private final Duration openDuration;
+
+    private final LongSupplier nanoClock;
+
+    private final ConcurrentMap<String, AtomicReference<Circuit>> circuits = new ConcurrentHashMap<>();
+
+    @Builder
+    private CircuitBreaker(
+            Integer failureThreshold,
+            Duration openDuration
+    ) {
+        this(failureThreshold, openDuration, System::nanoTime);
+    }
+
+    CircuitBreaker(Integer failureThreshold, Duration openDuration, LongSupplier nanoClock) {
+        this.failureThreshold = validateFailureThreshold(withDefaultValue(failureThreshold, 5));
+        this.openDuration = validateOpenDuration(withDefaultValue(openDuration, Duration.ofSeconds(30)));
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Check if a request to the endpoint may be sent.
+     * @param endpoint URL path of the endpoint, such as '{@code /v2/achievements}'.
+     */
+    public boolean tryAcquire(String endpoint) {
+        AtomicReference<Circuit> circuit = circuit(endpoint);
+        while(true) {
+            Circuit current = circuit.get();
+            switch (current.state()) {
+                case CLOSED:
+                    return true;
+                case HALF_OPEN:
+                    return false;
+                default:
+                    long now = nanoClock.getAsLong();
+                    if(now - current.openedAtNanos() < openDuration.toNanos()) {
+                        return false;
+                    }
+                    if(circuit.compareAndSet(current, new Circuit(State.HALF_OPEN, current.consecutiveFailures(), current.openedAtNanos()))) {
+                        log.info("Circuit of endpoint '{}' is half-open, sending probe request", endpoint);
+                        return true;
+                    }
+            }
+        }
+    }
+
+    /**
+     * Record the outcome of a request to the endpoint.
+     * @param endpoint URL path of the endpoint, such as '{@code /v2/achievements}'.
+     * @param response The response, or empty optional if the API has not answered.
+     */
+    public void record(String endpoint, Optional<HttpResponse> response) {
+        boolean failure = response.isEmpty() || response.get().statusCode() >= 500;
+        AtomicReference<Circuit> circuit = circuit(endpoint);
+        while(true) {
+            Circuit current = circuit.get();
+            Circuit next;
+            if(!failure) {
+                next = Circuit.CLOSED;
+            } else if(current.state() == State.HALF_OPEN || current.consecutiveFailures() + 1 >= failureThreshold) {
+                next = new Circuit(State.OPEN, current.consecutiveFailures() + 1, nanoClock.getAsLong());
+            } else {
+                next = new Circuit(current.state(), current.consecutiveFailures() + 1, current.openedAtNanos());
+            }
+            if(current.equals(next) || circuit.compareAndSet(current, next)) {
+                if(current.state() != State.OPEN && next.state() == State.OPEN) {
+                    log.warn("Circuit of endpoint '{}' opened after '{}' consecutive failures", endpoint, next.consecutiveFailures());
+                } else if(current.state() != State.CLOSED && next.state() == State.CLOSED) {
+                    log.info("Circuit of endpoint '{}' closed", endpoint);
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Get the state of the circuit of an endpoint.
+     * @param endpoint URL path of the endpoint, such as '{@code /v2/achievements}'.
+     */
+    public State getState(String endpoint) {
+        return circuit(endpoint).get().state();
+    }
+
+    private AtomicReference<Circuit> circuit(String endpoint) {
+        return circuits.computeIfAbsent(endpoint, e -> new AtomicReference<>(Circuit.CLOSED));
+    }
+
+    private static int validateFailureThreshold(int failureThreshold) {
+        if(failureThreshold <= 0) {
+            throw new InvalidParamException("failureThreshold", failureThreshold, List.of("Must be positive"));
+        }
+        return failureThreshold;
+    }
+
+    private static Duration validateOpenDuration(Duration openDuration) {
+        if(openDuration.isNegative() || openDuration.isZero()) {
+            throw new InvalidParamException("openDuration", openDuration, List.of("Must be positive"));
+        }
+        return openDuration;
+    }
+
+    private static <T> T withDefaultValue(@Nullable T value, @Nonnull T defaultValue) {
+        return value != null ? value : defaultValue;
+    }
+
+    private record Circuit(
+            State state,
+            int consecutiveFailures,
+            long openedAtNanos
+    ) {
+        private static final Circuit CLOSED = new Circuit(State.CLOSED, 0, 0L);
+    }
+}
@@ -0,0 +1,153 @@
+package com.gaspar.gw2sdk.retry;
+
+import com.gaspar.gw2sdk.Constants;
+import com.gaspar.gw2sdk.InvalidParamException;
+import com.gaspar.gw2sdk.http.HttpResponse;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Determines if and when failed requests are retried by the {@link com.gaspar.gw2sdk.http.Gw2HttpClient}. The SDK
+ * only makes GET requests, so all of them are safe to retry. Requests are retried when:
+ * <ul>
+ *     <li>The API has not answered, for example because of a timeout.</li>
+ *     <li>The API answered with HTTP 429 (too many requests).</li>
+ *     <li>The API answered with a server error (HTTP 5xx).</li>
+ * </ul>
+ * The delay between attempts grows exponentially with decorrelated jitter, so that many clients retrying at the same
+ * time don't overload the API again. If the API sends a '{@code Retry-After}' header, the delay is at least that long.
+ * No more attempts are made after the {@link #getDeadline()} has passed since the first attempt.
+ * <pre>{@code
+ * var client = Gw2HttpClient.builder()
+ *         .retryPolicy(RetryPolicy.builder()
+ *                 .maxAttempts(4)
+ *                 .deadline(Duration.ofSeconds(20))
+ *                 .build())
+ *         .build();
+ * }</pre>
+ */
+@Slf4j
+@Getter
+public class RetryPolicy {
+
+    /**
+     * Maximum amount of attempts, including the first one.
+     */
+    private final int maxAttempts;
+
+    /**
+     * Minimum delay between attempts.
+     */
+    private final Duration baseDelay;
+
+    /**
+     * Maximum delay between attempts. This also limits the '{@code Retry-After}' header.
+     */
+    private final Duration maxDelay;
+
+    /**
+     * Maximum time that can pass between the first attempt and the end of the last attempt. The time spent waiting
+     * for the rate limiter before the first attempt is not included. It has no effect if there is only one attempt.
+     */
+    private final Duration deadline;
+
+    @Builder
+    private RetryPolicy(
+            Integer maxAttempts,
+            Duration baseDelay,
+            Duration maxDelay,
+            Duration deadline
+    ) {
+        this.maxAttempts = validateMaxAttempts(withDefaultValue(maxAttempts, 3));
+        this.baseDelay = validatePositive("baseDelay", withDefaultValue(baseDelay, Duration.ofMillis(100)));
+        this.maxDelay = validatePositive("maxDelay", withDefaultValue(maxDelay, Duration.ofSeconds(10)));
+        this.deadline = validatePositive("deadline", withDefaultValue(deadline, Duration.ofSeconds(30)));
+    }
+
+    /**
+     * Create a policy which never retries.
+     */
+    public static RetryPolicy none() {
+        return RetryPolicy.builder()
+                .maxAttempts(1)
+                .build();
+    }
+
+    /**
+     * Check if a request should be retried after it received this response.
+     * @param response The response, or empty optional if the API has not answered.
+     */
+    public boolean isRetryable(Optional<HttpResponse> response) {
+        if(response.isEmpty()) {
+            return true;
+        }
+        int statusCode = response.get().statusCode();
+        return statusCode == 429 || (statusCode >= 500 && statusCode < 600);
+    }
+
+    /**
+     * Calculate the delay before the next attempt.
+     * @param previousDelay Delay before the previous attempt, or zero if this is the first retry.
+     * @param response The response of the previous attempt, or empty optional if the API has not answered.
+     */
+    public Duration nextDelay(Duration previousDelay, Optional<HttpResponse> response) {
+        //decorrelated jitter: random between the base delay and 3 times the previous delay
+        long baseMillis = baseDelay.toMillis();
+        long upperMillis = Math.max(baseMillis, previousDelay.toMillis() * 3);
+        long delayMillis = baseMillis + ThreadLocalRandom.current().nextLong(upperMillis - baseMillis + 1);
+        Duration delay = Duration.ofMillis(delayMillis);
+
+        Optional<Duration> retryAfter = response.flatMap(r -> r.header(Constants.RETRY_AFTER_HEADER))
+                .flatMap(RetryPolicy::parseRetryAfter);
+        if(retryAfter.isPresent() && retryAfter.get().compareTo(delay) > 0) {
+            delay = retryAfter.get();
+        }
+        return delay.compareTo(maxDelay) > 0 ? maxDelay : delay;
+    }
+
+    private static Optional<Duration> parseRetryAfter(String value) {
+        try {
+            return Optional.of(Duration.ofSeconds(Long.parseLong(value.trim())));
+        } catch (NumberFormatException e) {
+            //not seconds, it must be a date
+        }
+        try {
+            Instant retryAt = ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+            Duration untilRetry = Duration.between(Instant.now(), retryAt);
+            return Optional.of(untilRetry.isNegative() ? Duration.ZERO : untilRetry);
+        } catch (DateTimeParseException e) {
+            log.debug("Invalid '{}' header: '{}'", Constants.RETRY_AFTER_HEADER, value);
+            return Optional.empty();
+        }
+    }
+
+    private static int validateMaxAttempts(int maxAttempts) {
+        if(maxAttempts <= 0) {
+            throw new InvalidParamException("maxAttempts", maxAttempts, List.of("Must be positive"));
+        }
+        return maxAttempts;
+    }
+
+    private static Duration validatePositive(String paramName, Duration duration) {
+        if(duration.isNegative() || duration.isZero()) {
+            throw new InvalidParamException(paramName, duration, List.of("Must be positive"));
+        }
+        return duration;
+    }
+
+    private static <T> T withDefaultValue(@Nullable T value, @Nonnull T defaultValue) {
+        return value != null ? value : defaultValue;
+    }
+}
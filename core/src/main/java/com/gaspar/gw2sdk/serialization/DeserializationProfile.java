@@ -0,0 +1,24 @@
+package com.gaspar.gw2sdk.serialization;
+
+/**
+ * Determines how the SDK configures Jackson to deserialize the API responses. It can be set with
+ * the builder of {@link com.gaspar.gw2sdk.http.Gw2HttpClient}.
+ */
+public enum DeserializationProfile {
+
+    /**
+     * Plain Jackson object mapper with default settings. Unknown properties in the responses are not allowed.
+     */
+    DEFAULT,
+
+    /**
+     * Object mapper tuned for throughput:
+     * <ul>
+     *     <li>Uses the Blackbird module, which replaces reflection with generated accessors.</li>
+     *     <li>Interns and canonicalizes field names, which repeat in every element of large arrays.</li>
+     *     <li>Ignores unknown properties, and does not keep the source in error locations.</li>
+     * </ul>
+     * The first deserialization of each type is slower, because the accessors must be generated.
+     */
+    HIGH_PERFORMANCE
+}
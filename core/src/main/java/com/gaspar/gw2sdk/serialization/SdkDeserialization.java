@@ -1,32 +1,145 @@
 package com.gaspar.gw2sdk.serialization;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.StreamReadFeature;
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
 import com.gaspar.gw2sdk.annotations.SdkInternal;
-import lombok.AccessLevel;
-import lombok.NoArgsConstructor;
+import com.gaspar.gw2sdk.jfr.DeserializationEvent;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Deserializes the API responses into data objects. There is one instance for each {@link DeserializationProfile},
+ * which can be obtained with {@link #forProfile(DeserializationProfile)}. The static methods use the
+ * {@link DeserializationProfile#DEFAULT} profile.
+ * <p>
+ * For each data type, an {@link ObjectReader} is resolved only once and reused for every response.
+ */
 @Slf4j
 @SdkInternal
-@NoArgsConstructor(access = AccessLevel.PRIVATE)
 public class SdkDeserialization {
 
-    private static final ObjectMapper mapper = new ObjectMapper();
+    private static final Map<DeserializationProfile, SdkDeserialization> instances = new EnumMap<>(DeserializationProfile.class);
+
+    static {
+        for(DeserializationProfile profile : DeserializationProfile.values()) {
+            instances.put(profile, new SdkDeserialization(profile));
+        }
+    }
+
+    @Getter
+    private final DeserializationProfile profile;
+
+    private final ObjectMapper mapper;
+
+    private final ConcurrentMap<Type, ObjectReader> readers = new ConcurrentHashMap<>();
+
+    private SdkDeserialization(DeserializationProfile profile) {
+        this.profile = profile;
+        this.mapper = createMapper(profile);
+    }
 
     /**
-     * Serialize JSON string into a data object.
+     * Get the deserialization instance of a profile.
+     */
+    public static SdkDeserialization forProfile(DeserializationProfile profile) {
+        return instances.get(profile);
+    }
+
+    /**
+     * Serialize JSON string into a data object, using the default profile.
      * @param content Raw content, expected in JSON format.
      * @param dataType Type of data class.
      * @throws SdkDeserializationException If serialization failed.
      */
     public static <T> T deserializeData(String content, TypeReference<T> dataType) throws SdkDeserializationException {
+        return forProfile(DeserializationProfile.DEFAULT).deserialize(content, dataType);
+    }
+
+    /**
+     * Deserialize JSON bytes into a data object, using the default profile. The bytes are parsed directly,
+     * without decoding them into a string first.
+     * @param content Raw content, expected in UTF-8 encoded JSON format.
+     * @param dataType Type of data class.
+     * @throws SdkDeserializationException If deserialization failed.
+     */
+    public static <T> T deserializeData(byte[] content, TypeReference<T> dataType) throws SdkDeserializationException {
+        return forProfile(DeserializationProfile.DEFAULT).deserialize(content, dataType);
+    }
+
+    /**
+     * Serialize JSON string into a data object.
+     * @param content Raw content, expected in JSON format.
+     * @param dataType Type of data class.
+     * @throws SdkDeserializationException If serialization failed.
+     */
+    public <T> T deserialize(String content, TypeReference<T> dataType) throws SdkDeserializationException {
+        DeserializationEvent event = new DeserializationEvent();
+        if(!event.isEnabled()) {
+            return deserializeString(content, dataType);
+        }
+        event.begin();
+        boolean successful = false;
+        try {
+            T data = deserializeString(content, dataType);
+            successful = true;
+            return data;
+        } finally {
+            commitEvent(event, dataType, content.length(), successful);
+        }
+    }
+
+    /**
+     * Deserialize JSON bytes into a data object. The bytes are parsed directly, without decoding them into a
+     * string first.
+     * @param content Raw content, expected in UTF-8 encoded JSON format.
+     * @param dataType Type of data class.
+     * @throws SdkDeserializationException If deserialization failed.
+     */
+    public <T> T deserialize(byte[] content, TypeReference<T> dataType) throws SdkDeserializationException {
+        return deserialize(content, content.length, dataType);
+    }
+
+    /**
+     * Same as {@link #deserialize(byte[], TypeReference)}, but only the first {@code length} bytes of the array
+     * are the content.
+     */
+    public <T> T deserialize(byte[] content, int length, TypeReference<T> dataType) throws SdkDeserializationException {
+        DeserializationEvent event = new DeserializationEvent();
+        if(!event.isEnabled()) {
+            return deserializeBytes(content, length, dataType);
+        }
+        event.begin();
+        boolean successful = false;
+        try {
+            T data = deserializeBytes(content, length, dataType);
+            successful = true;
+            return data;
+        } finally {
+            commitEvent(event, dataType, length, successful);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T deserializeString(String content, TypeReference<T> dataType) throws SdkDeserializationException {
         try {
             if(isRawString(dataType)) {
                 log.debug("Data type is raw string: no deserialization needed, skipping...");
                 return (T) content;
             } else {
-                return mapper.readValue(content, dataType);
+                return readerFor(dataType).readValue(content);
             }
         } catch (Exception e) {
             log.error("Fail to serialize string '{}' into data class '{}'", content, dataType.getType().getTypeName(), e);
@@ -36,8 +149,69 @@ public class SdkDeserialization {
         }
     }
 
+    @SuppressWarnings("unchecked")
+    private <T> T deserializeBytes(byte[] content, int length, TypeReference<T> dataType) throws SdkDeserializationException {
+        try {
+            if(isRawString(dataType)) {
+                log.debug("Data type is raw string: decoding bytes without deserialization...");
+                return (T) new String(content, 0, length, StandardCharsets.UTF_8);
+            } else {
+                return readerFor(dataType).readValue(content, 0, length);
+            }
+        } catch (Exception e) {
+            String decodedContent = new String(content, 0, length, StandardCharsets.UTF_8);
+            log.error("Fail to deserialize bytes '{}' into data class '{}'", decodedContent, dataType.getType().getTypeName(), e);
+            throw new SdkDeserializationException(String.format(
+                    "Failed to deserialize raw data into object of type '%s'. Raw data:\n%s", dataType.getType().getTypeName(), decodedContent
+            ));
+        }
+    }
+
+    private void commitEvent(DeserializationEvent event, TypeReference<?> dataType, long contentSize, boolean successful) {
+        event.end();
+        if(event.shouldCommit()) {
+            event.setDataType(dataType.getType().getTypeName());
+            event.setProfile(profile.name());
+            event.setContentSize(contentSize);
+            event.setSuccessful(successful);
+            event.commit();
+        }
+    }
+
+    /**
+     * Get the reader of a data type, which is only resolved on the first call.
+     */
+    ObjectReader readerFor(TypeReference<?> dataType) {
+        ObjectReader reader = readers.get(dataType.getType());
+        if(reader == null) {
+            //not inside computeIfAbsent: resolving a type can take long, and it's fine to do it twice in a race
+            reader = mapper.readerFor(dataType);
+            ObjectReader previous = readers.putIfAbsent(dataType.getType(), reader);
+            if(previous != null) {
+                reader = previous;
+            }
+        }
+        return reader;
+    }
+
     private static boolean isRawString(TypeReference<?> dataType) {
-        return "java.lang.String".equals(dataType.getType().getTypeName());
+        return dataType.getType() == String.class;
+    }
+
+    private static ObjectMapper createMapper(DeserializationProfile profile) {
+        if(profile == DeserializationProfile.HIGH_PERFORMANCE) {
+            JsonFactory factory = JsonFactory.builder()
+                    .enable(JsonFactory.Feature.INTERN_FIELD_NAMES)
+                    .enable(JsonFactory.Feature.CANONICALIZE_FIELD_NAMES)
+                    .disable(StreamReadFeature.INCLUDE_SOURCE_IN_LOCATION)
+                    .build();
+            return JsonMapper.builder(factory)
+                    .addModule(new BlackbirdModule())
+                    .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                    .disable(DeserializationFeature.FAIL_ON_IGNORED_PROPERTIES)
+                    .build();
+        }
+        return new ObjectMapper();
     }
 
 }
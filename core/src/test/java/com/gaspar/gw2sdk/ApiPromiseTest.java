@@ -0,0 +1,203 @@
+package com.gaspar.gw2sdk;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.gaspar.gw2sdk.collections.LongIdSet;
+import com.gaspar.gw2sdk.http.HttpResponse;
+import com.gaspar.gw2sdk.serialization.DeserializationProfile;
+import com.gaspar.gw2sdk.serialization.SdkDeserialization;
+import lombok.Getter;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ApiPromiseTest {
+
+    @Test
+    public void shouldInvokeCallbackAttachedAfterCompletion() {
+        var promise = ApiPromise.of(completedRaw("[1,2,3]", 200), new TypeReference<List<Long>>() {});
+        promise.join();
+
+        var receivedData = new AtomicReference<List<Long>>();
+        promise.onSuccess(receivedData::set).join();
+
+        assertEquals(List.of(1L, 2L, 3L), receivedData.get());
+    }
+
+    @Test
+    public void shouldInvokeOnlyMatchingCallbacks() {
+        var rawResponse = new CompletableFuture<Optional<HttpResponse>>();
+        var errorCount = new AtomicInteger();
+        var otherCount = new AtomicInteger();
+
+        var promise = ApiPromise.of(rawResponse, new TypeReference<List<Long>>() {})
+                .onSuccess(data -> otherCount.incrementAndGet())
+                .onError(errorData -> errorCount.incrementAndGet())
+                .onError(errorData -> errorCount.incrementAndGet())
+                .onNoAnswer(otherCount::incrementAndGet);
+        assertFalse(promise.isDone());
+
+        rawResponse.complete(Optional.of(new HttpResponse("Error!", 500)));
+        promise.join();
+
+        assertEquals(2, errorCount.get());
+        assertEquals(0, otherCount.get());
+    }
+
+    @Test
+    public void shouldRethrowCallbackExceptionOnJoin() {
+        var promise = ApiPromise.of(CompletableFuture.completedFuture(Optional.<HttpResponse>empty()), new TypeReference<String>() {})
+                .onNoAnswer(() -> {
+                    throw new IllegalStateException("callback failed");
+                });
+
+        assertThrows(CompletionException.class, promise::join);
+    }
+
+    @Test
+    public void shouldMapSuccessfulData() {
+        var response = ApiPromise.of(completedRaw("[1,2,3]", 200), new TypeReference<List<Long>>() {})
+                .map(List::size)
+                .toCompletableFuture()
+                .join();
+
+        assertEquals(3, response.data().orElseThrow(AssertionError::new));
+    }
+
+    @Test
+    public void shouldNotMapError() {
+        var response = ApiPromise.of(completedRaw("Error!", 500), new TypeReference<List<Long>>() {})
+                .map(List::size)
+                .toCompletableFuture()
+                .join();
+
+        assertTrue(response.isApiError());
+        assertEquals(new ApiErrorData("Error!", 500), response.errorData().orElseThrow(AssertionError::new));
+    }
+
+    @Test
+    public void shouldFlatMapOnlySuccessfulData() {
+        var flatMapCount = new AtomicInteger();
+
+        var response = ApiPromise.<Integer>completed(ApiResponse.noAnswer())
+                .flatMap(data -> {
+                    flatMapCount.incrementAndGet();
+                    return ApiPromise.completed(ApiResponse.success(data + 1));
+                })
+                .toCompletableFuture()
+                .join();
+        assertTrue(response.isNoAnswer());
+        assertEquals(0, flatMapCount.get());
+
+        var successfulResponse = ApiPromise.completed(ApiResponse.success(1))
+                .flatMap(data -> ApiPromise.completed(ApiResponse.success(data + 1)))
+                .toCompletableFuture()
+                .join();
+        assertEquals(2, successfulResponse.data().orElseThrow(AssertionError::new));
+    }
+
+    @Test
+    public void shouldZipPromises() {
+        var first = ApiPromise.completed(ApiResponse.success("a"));
+        var second = ApiPromise.completed(ApiResponse.success(1));
+        var failed = ApiPromise.<Integer>completed(ApiResponse.error(new ApiErrorData("Error!", 500)));
+
+        var zipped = first.zip(second, (s, i) -> s + i).toCompletableFuture().join();
+        var zippedWithError = first.zip(failed, (s, i) -> s + i).toCompletableFuture().join();
+
+        assertEquals("a1", zipped.data().orElseThrow(AssertionError::new));
+        assertTrue(zippedWithError.isApiError());
+    }
+
+    @Test
+    public void shouldCombineAllPromises() {
+        var rawResponse = new CompletableFuture<Optional<HttpResponse>>();
+        var promises = List.of(
+                ApiPromise.completed(ApiResponse.success(1L)),
+                ApiPromise.of(rawResponse, new TypeReference<Long>() {}),
+                ApiPromise.completed(ApiResponse.success(3L))
+        );
+
+        var combined = ApiPromise.allOf(promises);
+        assertFalse(combined.isDone());
+        rawResponse.complete(Optional.of(new HttpResponse("2", 200)));
+        combined.join();
+
+        var response = combined.getResponse().orElseThrow(AssertionError::new);
+        assertEquals(List.of(1L, 2L, 3L), response.data().orElseThrow(AssertionError::new));
+    }
+
+    @Test
+    public void shouldKeepPartialStateWhenCombining() {
+        var partial = ApiPromise.of(CompletableFuture.completedFuture(Optional.of(new HttpResponse("[1]", 206,
+                Map.of(Constants.MISSING_IDS_HEADER, List.of("2,3"))))), new TypeReference<List<Long>>() {});
+        var otherPartial = ApiPromise.of(CompletableFuture.completedFuture(Optional.of(new HttpResponse("[4]", 206,
+                Map.of(Constants.MISSING_IDS_HEADER, List.of("5"))))), new TypeReference<List<Long>>() {});
+        var complete = ApiPromise.completed(ApiResponse.success(List.of(6L)));
+
+        var combined = ApiPromise.allOf(List.of(partial, complete, otherPartial)).toCompletableFuture().join();
+        var zipped = complete.zip(partial, (first, second) -> first.size() + second.size()).toCompletableFuture().join();
+        var zippedComplete = complete.zip(complete, (first, second) -> first.size() + second.size()).toCompletableFuture().join();
+
+        assertTrue(combined.isPartial());
+        assertEquals(LongIdSet.of(2L, 3L, 5L), combined.missingIds());
+        assertTrue(zipped.isPartial());
+        assertEquals(LongIdSet.of(2L, 3L), zipped.missingIds());
+        assertFalse(zippedComplete.isPartial());
+        assertTrue(zippedComplete.missingIds().isEmpty());
+    }
+
+    @Test
+    public void shouldNotCombineAllPromisesIfAnyHasNoAnswer() {
+        var combined = ApiPromise.allOf(List.of(
+                ApiPromise.completed(ApiResponse.success(1L)),
+                ApiPromise.<Long>completed(ApiResponse.noAnswer())
+        ));
+        combined.join();
+
+        var response = combined.getResponse().orElseThrow(AssertionError::new);
+        assertTrue(response.isNoAnswer());
+    }
+
+    @Test
+    public void shouldDeserializeAndInvokeCallbacksOnExecutors() throws Exception {
+        var deserializationExecutor = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "deserialization"));
+        var callbackExecutor = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "callback"));
+        var callbackThread = new AtomicReference<String>();
+        try {
+            var rawResponse = new CompletableFuture<Optional<HttpResponse>>();
+            var promise = ApiPromise.of(rawResponse, new TypeReference<ThreadRecordingData>() {},
+                            SdkDeserialization.forProfile(DeserializationProfile.DEFAULT), deserializationExecutor, callbackExecutor)
+                    .onSuccess(data -> callbackThread.set(Thread.currentThread().getName()));
+            rawResponse.complete(Optional.of(new HttpResponse("{}", 200)));
+            promise.join();
+
+            var deserializationThread = promise.getResponse()
+                    .flatMap(ApiResponse::data)
+                    .map(ThreadRecordingData::getDeserializedOn)
+                    .orElseThrow(AssertionError::new);
+            assertEquals("deserialization", deserializationThread);
+            assertEquals("callback", callbackThread.get());
+        } finally {
+            deserializationExecutor.shutdown();
+            callbackExecutor.shutdown();
+        }
+    }
+
+    @Getter
+    static class ThreadRecordingData {
+        private final String deserializedOn = Thread.currentThread().getName();
+    }
+
+    private CompletableFuture<Optional<HttpResponse>> completedRaw(String content, int statusCode) {
+        return CompletableFuture.completedFuture(Optional.of(new HttpResponse(content, statusCode)));
+    }
+}
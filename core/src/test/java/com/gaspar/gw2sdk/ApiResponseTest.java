@@ -2,10 +2,15 @@ package com.gaspar.gw2sdk;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gaspar.gw2sdk.collections.LongIdSet;
 import com.gaspar.gw2sdk.http.HttpResponse;
+import com.gaspar.gw2sdk.serialization.SdkDeserializationException;
 import com.gaspar.gw2sdk.serialization.SdkDeserializationTest;
 import org.junit.jupiter.api.Test;
 
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -33,6 +38,53 @@ class ApiResponseTest {
         assertTrue(response.errorData().isEmpty());
     }
 
+    @Test
+    public void shouldCreatePartialApiResponse() {
+        var response = new ApiResponse<List<Long>>(
+                Optional.of(new HttpResponse("[1,3]".getBytes(StandardCharsets.UTF_8), 206, Map.of(Constants.MISSING_IDS_HEADER, List.of("2,4")))),
+                new TypeReference<>() {}
+        );
+
+        assertTrue(response.isSuccessful());
+        assertTrue(response.isPartial());
+        assertEquals(List.of(1L, 3L), response.data().orElseThrow(AssertionError::new));
+        assertEquals(LongIdSet.of(2L, 4L), response.missingIds());
+        assertEquals(LongIdSet.of(2L, 4L), response.map(List::size).missingIds());
+    }
+
+    @Test
+    public void shouldDeserializeSharedResponseOnlyOnce() throws Exception {
+        SdkDeserializationTest.TestData testData = new SdkDeserializationTest.TestData("hello", 1);
+        var rawResponse = new HttpResponse(mapper.writeValueAsString(testData), 200);
+
+        var firstResponse = new ApiResponse<SdkDeserializationTest.TestData>(Optional.of(rawResponse), new TypeReference<>() {});
+        var secondResponse = new ApiResponse<SdkDeserializationTest.TestData>(Optional.of(rawResponse), new TypeReference<>() {});
+
+        assertSame(firstResponse.data().orElseThrow(AssertionError::new), secondResponse.data().orElseThrow(AssertionError::new));
+    }
+
+    @Test
+    public void shouldDeserializeOnlyWhenDataIsRequested() {
+        var response = new ApiResponse<SdkDeserializationTest.TestData>(
+                Optional.of(new HttpResponse("not json", 200)),
+                new TypeReference<>() {}
+        );
+
+        assertTrue(response.isSuccessful());
+        assertThrows(SdkDeserializationException.class, response::data);
+    }
+
+    @Test
+    public void shouldRememberDeserializedData() throws Exception {
+        SdkDeserializationTest.TestData testData = new SdkDeserializationTest.TestData("hello", 1);
+        var response = new ApiResponse<SdkDeserializationTest.TestData>(
+                Optional.of(new HttpResponse(mapper.writeValueAsString(testData), 200)),
+                new TypeReference<>() {}
+        );
+
+        assertSame(response.data(), response.data());
+    }
+
     @Test
     public void shouldCreateErrorApiResponse() {
         var response = new ApiResponse<>(
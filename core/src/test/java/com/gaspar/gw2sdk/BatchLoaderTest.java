@@ -0,0 +1,117 @@
+package com.gaspar.gw2sdk;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.gaspar.gw2sdk.http.Gw2HttpClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchLoaderTest {
+
+    private MockUnderlyingHttpClient mockClient;
+
+    private Gw2HttpClient client;
+
+    @BeforeEach
+    public void setUp() {
+        mockClient = new MockUnderlyingHttpClient();
+        mockClient.setMockResponse("[1,2,3]");
+        client = Gw2HttpClient.builder()
+                .underlyingHttpClient(mockClient)
+                .build();
+    }
+
+    @Test
+    public void shouldFetchLookupsOfWindowTogether() {
+        var loader = createLoader(Duration.ofMillis(100L), 200);
+
+        var first = loader.load(1L);
+        var second = loader.load(2L);
+        var repeated = loader.load(1L);
+        ApiPromise.allOf(List.of(first, second, repeated)).join();
+
+        assertEquals(1, mockClient.getRequests().size());
+        assertEquals("ids=1,2", mockClient.getRequests().get(0).url().getQuery());
+        assertEquals(1L, first.getResponse().flatMap(ApiResponse::data).orElseThrow(AssertionError::new));
+        assertEquals(2L, second.getResponse().flatMap(ApiResponse::data).orElseThrow(AssertionError::new));
+        assertEquals(1L, repeated.getResponse().flatMap(ApiResponse::data).orElseThrow(AssertionError::new));
+    }
+
+    @Test
+    public void shouldSendFullBatchBeforeWindowEnds() throws InterruptedException {
+        var loader = createLoader(Duration.ofMinutes(1L), 2);
+
+        var first = loader.load(1L);
+        var second = loader.load(2L);
+
+        var response = second.await(Duration.ofSeconds(5L));
+        assertTrue(response.isSuccessful());
+        assertTrue(first.await(Duration.ofSeconds(5L)).isSuccessful());
+        assertEquals(1, mockClient.getRequests().size());
+    }
+
+    @Test
+    public void shouldGiveErrorForMissingId() {
+        var loader = createLoader(Duration.ofMillis(10L), 200);
+
+        var missing = loader.load(4L);
+        missing.join();
+
+        var errorData = missing.getResponse().flatMap(ApiResponse::errorData).orElseThrow(AssertionError::new);
+        assertEquals(404, errorData.statusCode());
+    }
+
+    @Test
+    public void shouldNotFetchKnownMissingIdAgain() {
+        mockClient.setMockResponse("[1]", 206);
+        var loader = createLoader(Duration.ofMillis(500L), 200);
+
+        var found = loader.load(1L);
+        var missing = loader.load(4L);
+        ApiPromise.allOf(List.of(found, missing)).join();
+        var missingAgain = loader.load(4L);
+        missingAgain.join();
+
+        assertEquals(1, mockClient.getRequests().size());
+        assertTrue(found.getResponse().map(ApiResponse::isSuccessful).orElse(false));
+        assertEquals(404, missingAgain.getResponse().flatMap(ApiResponse::errorData).orElseThrow(AssertionError::new).statusCode());
+    }
+
+    @Test
+    public void shouldGiveBatchErrorToAllLookups() {
+        mockClient.setMockResponse("Error!", 500);
+        var loader = createLoader(Duration.ofMillis(500L), 200);
+
+        var promises = new ArrayList<ApiPromise<Long>>();
+        for(long id = 1; id <= 3; id++) {
+            promises.add(loader.load(id));
+        }
+        promises.forEach(ApiPromise::join);
+
+        assertEquals(1, mockClient.getRequests().size());
+        for(var promise : promises) {
+            assertTrue(promise.getResponse().map(ApiResponse::isApiError).orElse(false));
+        }
+    }
+
+    @Test
+    public void shouldRejectTooLargeBatches() {
+        assertThrows(InvalidParamException.class, () -> createLoader(Duration.ofMillis(10L), 201));
+    }
+
+    private BatchLoader<Long> createLoader(Duration batchWindow, int maxBatchSize) {
+        return BatchLoader.<Long>builder()
+                .gw2HttpClient(client)
+                .path("/v2/achievements")
+                .dataType(new TypeReference<>() {})
+                .idOf(Long::longValue)
+                .batchWindow(batchWindow)
+                .maxBatchSize(maxBatchSize)
+                .build();
+    }
+}
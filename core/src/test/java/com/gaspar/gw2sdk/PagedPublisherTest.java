@@ -0,0 +1,172 @@
+package com.gaspar.gw2sdk;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.gaspar.gw2sdk.collections.LongIdSet;
+import com.gaspar.gw2sdk.http.Gw2HttpClient;
+import com.gaspar.gw2sdk.metrics.ApiOperationTag;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PagedPublisherTest {
+
+    private static final TypeReference<List<Long>> PAGE_TYPE = new TypeReference<>() {};
+
+    private MockUnderlyingHttpClient mockClient;
+
+    private Gw2HttpClient client;
+
+    @BeforeEach
+    public void setUp() {
+        mockClient = new MockUnderlyingHttpClient();
+        mockClient.setDelayMillis(20L);
+        mockClient.setMockResponse("[]");
+        client = Gw2HttpClient.builder()
+                .underlyingHttpClient(mockClient)
+                .maxConcurrentBulkRequests(2)
+                .build();
+        for(int page = 0; page < 3; page++) {
+            String query = "page=" + page + "&";
+            String content = "[" + (2 * page + 1) + "," + (2 * page + 2) + "]";
+            mockClient.setMockResponseWhen(request -> request.url().getQuery().startsWith(query), content, 200,
+                    Map.of("X-Page-Total", List.of("3")));
+        }
+    }
+
+    @Test
+    public void shouldPublishAllPagesInOrder() throws Exception {
+        var subscriber = new RecordingSubscriber();
+        PagedPublisher.paged(client, "/v2/achievements", 2, PAGE_TYPE, ApiOperationTag.UNTAGGED).subscribe(subscriber);
+
+        subscriber.subscription.join().request(Long.MAX_VALUE);
+
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L), subscriber.awaitCompletion());
+        assertEquals(3, mockClient.getRequests().size());
+    }
+
+    @Test
+    public void shouldOnlyFetchPagesOnDemand() throws Exception {
+        var subscriber = new RecordingSubscriber();
+        PagedPublisher.paged(client, "/v2/achievements", 2, PAGE_TYPE, ApiOperationTag.UNTAGGED).subscribe(subscriber);
+        Thread.sleep(100L);
+        assertEquals(0, mockClient.getRequests().size());
+
+        subscriber.subscription.join().request(2);
+        assertEquals(1L, subscriber.awaitNext());
+        assertEquals(2L, subscriber.awaitNext());
+        Thread.sleep(100L);
+        assertEquals(1, mockClient.getRequests().size()); //the demand was satisfied by the first page
+
+        subscriber.subscription.join().request(1);
+        assertEquals(3L, subscriber.awaitNext());
+        Thread.sleep(100L);
+        assertEquals(2, mockClient.getRequests().size()); //one more page is enough for the demand
+
+        subscriber.subscription.join().request(Long.MAX_VALUE);
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L), subscriber.awaitCompletion());
+        assertEquals(3, mockClient.getRequests().size());
+    }
+
+    @Test
+    public void shouldPrefetchPagesForTheWholeDemand() throws Exception {
+        var subscriber = new RecordingSubscriber();
+        PagedPublisher.paged(client, "/v2/achievements", 2, PAGE_TYPE, ApiOperationTag.UNTAGGED).subscribe(subscriber);
+        subscriber.subscription.join().request(1);
+        assertEquals(1L, subscriber.awaitNext());
+
+        subscriber.subscription.join().request(5);
+        assertEquals(2L, subscriber.awaitNext());
+        Thread.sleep(100L);
+        assertEquals(3, mockClient.getRequests().size()); //the remaining 2 pages are needed for the demand
+    }
+
+    @Test
+    public void shouldSignalErrorOfFailedPage() throws Exception {
+        mockClient.setMockResponseWhen(request -> request.url().getQuery().contains("ids=201,"), "Error!", 500);
+        var ids = LongIdSet.of(LongStream.rangeClosed(1, 500).toArray());
+        var subscriber = new RecordingSubscriber();
+        PagedPublisher.bulk(client, "/v2/achievements", ids, PAGE_TYPE, ApiOperationTag.UNTAGGED).subscribe(subscriber);
+
+        subscriber.subscription.join().request(Long.MAX_VALUE);
+
+        var exception = assertThrows(ExecutionException.class, subscriber::awaitCompletion);
+        assertTrue(exception.getCause() instanceof PageFetchException);
+        var pageException = (PageFetchException) exception.getCause();
+        assertEquals(1, pageException.getPage());
+        assertEquals(500, pageException.getErrorData().orElseThrow(AssertionError::new).statusCode());
+    }
+
+    @Test
+    public void shouldCompleteWithoutPages() throws Exception {
+        var subscriber = new RecordingSubscriber();
+        PagedPublisher.bulk(client, "/v2/achievements", LongIdSet.of(), PAGE_TYPE, ApiOperationTag.UNTAGGED).subscribe(subscriber);
+
+        assertEquals(List.of(), subscriber.awaitCompletion());
+        assertEquals(0, mockClient.getRequests().size());
+    }
+
+    @Test
+    public void shouldSignalErrorOfInvalidRequest() {
+        var subscriber = new RecordingSubscriber();
+        PagedPublisher.paged(client, "/v2/achievements", 2, PAGE_TYPE, ApiOperationTag.UNTAGGED).subscribe(subscriber);
+
+        subscriber.subscription.join().request(0);
+
+        var exception = assertThrows(ExecutionException.class, subscriber::awaitCompletion);
+        assertTrue(exception.getCause() instanceof IllegalArgumentException);
+    }
+
+    private static class RecordingSubscriber implements Flow.Subscriber<Long> {
+
+        private final CompletableFuture<Flow.Subscription> subscription = new CompletableFuture<>();
+
+        private final LinkedBlockingQueue<Long> received = new LinkedBlockingQueue<>();
+
+        private final List<Long> elements = new CopyOnWriteArrayList<>();
+
+        private final CompletableFuture<List<Long>> completion = new CompletableFuture<>();
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription.complete(subscription);
+        }
+
+        @Override
+        public void onNext(Long element) {
+            elements.add(element);
+            received.add(element);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            completion.completeExceptionally(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            completion.complete(elements);
+        }
+
+        private long awaitNext() throws InterruptedException {
+            Long element = received.poll(5, TimeUnit.SECONDS);
+            assertNotNull(element, "No element was received");
+            return element;
+        }
+
+        private List<Long> awaitCompletion() throws ExecutionException, InterruptedException, TimeoutException {
+            return completion.get(5, TimeUnit.SECONDS);
+        }
+    }
+}
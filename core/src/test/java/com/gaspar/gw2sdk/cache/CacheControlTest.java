@@ -0,0 +1,58 @@
+package com.gaspar.gw2sdk.cache;
+
+import com.gaspar.gw2sdk.http.HttpResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheControlTest {
+
+    private final Instant now = Instant.parse("2023-03-10T12:00:00Z");
+
+    @Test
+    public void shouldUseMaxAge() {
+        var response = responseWithHeaders(Map.of("cache-control", List.of("public, max-age=300")));
+        assertEquals(Duration.ofSeconds(300), CacheControl.freshnessLifetime(response, now).orElseThrow(AssertionError::new));
+    }
+
+    @Test
+    public void shouldSubtractAgeFromMaxAge() {
+        var response = responseWithHeaders(Map.of(
+                "Cache-Control", List.of("max-age=300"),
+                "Age", List.of("100")
+        ));
+        assertEquals(Duration.ofSeconds(200), CacheControl.freshnessLifetime(response, now).orElseThrow(AssertionError::new));
+    }
+
+    @Test
+    public void shouldUseExpiresRelativeToDate() {
+        var response = responseWithHeaders(Map.of(
+                "Expires", List.of("Fri, 10 Mar 2023 08:05:00 GMT"),
+                "Date", List.of("Fri, 10 Mar 2023 08:00:00 GMT")
+        ));
+        assertEquals(Duration.ofMinutes(5), CacheControl.freshnessLifetime(response, now).orElseThrow(AssertionError::new));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"no-store", "no-cache, max-age=300", "private, max-age=300", "max-age=0", "max-age=invalid"})
+    public void shouldNotCacheIfHeadersForbid(String cacheControl) {
+        var response = responseWithHeaders(Map.of("Cache-Control", List.of(cacheControl)));
+        assertTrue(CacheControl.freshnessLifetime(response, now).isEmpty());
+    }
+
+    @Test
+    public void shouldNotCacheWithoutHeaders() {
+        assertTrue(CacheControl.freshnessLifetime(new HttpResponse("[]", 200), now).isEmpty());
+    }
+
+    private HttpResponse responseWithHeaders(Map<String, List<String>> headers) {
+        return new HttpResponse("[]", 200, headers);
+    }
+}
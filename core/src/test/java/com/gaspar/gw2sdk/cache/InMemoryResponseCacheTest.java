@@ -0,0 +1,161 @@
+package com.gaspar.gw2sdk.cache;
+
+import com.gaspar.gw2sdk.http.HttpRequest;
+import com.gaspar.gw2sdk.http.HttpResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryResponseCacheTest {
+
+    private MutableClock clock;
+
+    @BeforeEach
+    public void setUp() {
+        clock = new MutableClock(Instant.parse("2023-03-10T12:00:00Z"));
+    }
+
+    @Test
+    public void shouldReturnFreshResponse() {
+        var cache = InMemoryResponseCache.builder().clock(clock).build();
+        var response = cacheableResponse("[1,2,3]", 60);
+
+        cache.put(request("/v2/achievements"), response);
+
+        assertEquals(Optional.of(response), cache.get(request("/v2/achievements")));
+        assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    public void shouldNotReturnExpiredResponse() {
+        var cache = InMemoryResponseCache.builder().clock(clock).build();
+        cache.put(request("/v2/achievements"), cacheableResponse("[1,2,3]", 60));
+
+        clock.advance(Duration.ofSeconds(61));
+
+        assertTrue(cache.get(request("/v2/achievements")).isEmpty());
+        assertEquals(0, cache.size());
+        assertEquals(0L, cache.sizeBytes());
+    }
+
+    @Test
+    public void shouldKeyByApiKey() {
+        var cache = InMemoryResponseCache.builder().clock(clock).build();
+        cache.put(request("/v2/account"), cacheableResponse("{}", 60));
+
+        var authenticatedRequest = new HttpRequest(URI.create("https://api.guildwars2.com/v2/account"), Optional.of("key"), "latest");
+        assertTrue(cache.get(authenticatedRequest).isEmpty());
+    }
+
+    @Test
+    public void shouldNotCacheErrorResponse() {
+        var cache = InMemoryResponseCache.builder().clock(clock).build();
+        cache.put(request("/v2/achievements"), new HttpResponse("error", 500, Map.of("Cache-Control", List.of("max-age=60"))));
+
+        assertTrue(cache.get(request("/v2/achievements")).isEmpty());
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedWhenTooManyEntries() {
+        var cache = InMemoryResponseCache.builder().clock(clock).maxEntries(2).build();
+        cache.put(request("/1"), cacheableResponse("1", 60));
+        cache.put(request("/2"), cacheableResponse("2", 60));
+        cache.get(request("/1")); //now '/2' is the least recently used
+        cache.put(request("/3"), cacheableResponse("3", 60));
+
+        assertTrue(cache.get(request("/1")).isPresent());
+        assertTrue(cache.get(request("/2")).isEmpty());
+        assertTrue(cache.get(request("/3")).isPresent());
+    }
+
+    @Test
+    public void shouldEvictWhenTooManyBytes() {
+        var cache = InMemoryResponseCache.builder().clock(clock).maxBytes(1000L).build();
+        cache.put(request("/1"), cacheableResponse("a".repeat(200), 60));
+        cache.put(request("/2"), cacheableResponse("b".repeat(200), 60));
+
+        assertTrue(cache.get(request("/1")).isEmpty());
+        assertTrue(cache.get(request("/2")).isPresent());
+        assertTrue(cache.sizeBytes() <= 1000L);
+    }
+
+    @Test
+    public void shouldNotCacheResponseLargerThanCache() {
+        var cache = InMemoryResponseCache.builder().clock(clock).maxBytes(100L).build();
+        cache.put(request("/1"), cacheableResponse("a".repeat(200), 60));
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void shouldKeepExpiredResponseWithValidatorForRevalidation() {
+        var cache = InMemoryResponseCache.builder().clock(clock).build();
+        var response = new HttpResponse("[1]", 200, Map.of("Cache-Control", List.of("max-age=60"), "ETag", List.of("\"v1\"")));
+        cache.put(request("/v2/achievements"), response);
+
+        clock.advance(Duration.ofSeconds(61));
+
+        assertTrue(cache.get(request("/v2/achievements")).isEmpty());
+        assertEquals(Optional.of(response), cache.getStale(request("/v2/achievements")));
+    }
+
+    @Test
+    public void shouldMakeResponseFreshAfterRevalidation() {
+        var cache = InMemoryResponseCache.builder().clock(clock).build();
+        var response = new HttpResponse("[1]", 200, Map.of("Cache-Control", List.of("no-cache"), "ETag", List.of("\"v1\"")));
+        cache.put(request("/v2/achievements"), response);
+        assertTrue(cache.get(request("/v2/achievements")).isEmpty());
+
+        var notModified = new HttpResponse("", 304, Map.of("Cache-Control", List.of("max-age=60")));
+        assertEquals(Optional.of(response), cache.revalidate(request("/v2/achievements"), notModified));
+        assertEquals(Optional.of(response), cache.get(request("/v2/achievements")));
+        assertEquals(1, cache.getRevalidationCount());
+    }
+
+    private HttpRequest request(String path) {
+        return new HttpRequest(URI.create("https://api.guildwars2.com" + path), Optional.empty(), "latest");
+    }
+
+    private HttpResponse cacheableResponse(String content, int maxAgeSeconds) {
+        return new HttpResponse(content, 200, Map.of("Cache-Control", List.of("public, max-age=" + maxAgeSeconds)));
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        private void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.gaspar.gw2sdk.cache;
+
+import com.gaspar.gw2sdk.http.HttpRequest;
+import com.gaspar.gw2sdk.http.HttpResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PersistentResponseCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path cachePath;
+
+    private MutableClock clock;
+
+    @BeforeEach
+    public void setUp() {
+        cachePath = tempDir.resolve("cache.bin");
+        clock = new MutableClock(Instant.parse("2023-03-10T12:00:00Z"));
+    }
+
+    @Test
+    public void shouldKeepResponsesAfterReopen() throws IOException {
+        try(var cache = openCache()) {
+            cache.put(request("/v2/achievements"), cacheableResponse("[1,2,3]", 60));
+            cache.put(request("/v2/achievements/daily"), cacheableResponse("{}", 60));
+        }
+
+        try(var cache = openCache()) {
+            assertEquals(2, cache.size());
+            var response = cache.get(request("/v2/achievements")).orElseThrow(AssertionError::new);
+            assertEquals("[1,2,3]", response.content());
+            assertEquals(Optional.of("public, max-age=60"), response.header("Cache-Control"));
+        }
+    }
+
+    @Test
+    public void shouldReturnLatestResponseOfRequest() throws IOException {
+        try(var cache = openCache()) {
+            cache.put(request("/v2/achievements"), cacheableResponse("[1]", 60));
+            cache.put(request("/v2/achievements"), cacheableResponse("[1,2]", 60));
+        }
+
+        try(var cache = openCache()) {
+            assertEquals(Optional.of("[1,2]"), cache.get(request("/v2/achievements")).map(HttpResponse::content));
+        }
+    }
+
+    @Test
+    public void shouldKeepValidatorsAndExpiryAfterReopen() throws IOException {
+        try(var cache = openCache()) {
+            cache.put(request("/v2/achievements"), revalidatableResponse("[1]"));
+            cache.put(request("/v2/achievements/daily"), cacheableResponse("{}", 60));
+        }
+        clock.advance(Duration.ofSeconds(61));
+
+        try(var cache = openCache()) {
+            assertEquals(1, cache.size()); //the response without validators expired
+            assertTrue(cache.get(request("/v2/achievements")).isEmpty());
+            var staleResponse = cache.getStale(request("/v2/achievements")).orElseThrow(AssertionError::new);
+            assertEquals(Optional.of("\"v1\""), staleResponse.header("ETag"));
+
+            var notModified = new HttpResponse("", 304, Map.of("Cache-Control", List.of("max-age=60")));
+            assertTrue(cache.revalidate(request("/v2/achievements"), notModified).isPresent());
+        }
+
+        try(var cache = openCache()) {
+            assertEquals(Optional.of("[1]"), cache.get(request("/v2/achievements")).map(HttpResponse::content));
+        }
+    }
+
+    @Test
+    public void shouldRecoverFromDamagedRecord() throws IOException {
+        long damagedPosition;
+        try(var cache = openCache()) {
+            cache.put(request("/1"), cacheableResponse("1", 60));
+            damagedPosition = cache.sizeBytes();
+            cache.put(request("/2"), cacheableResponse("2", 60));
+        }
+        //simulate a crash in the middle of writing the second record
+        try(var file = new RandomAccessFile(cachePath.toFile(), "rw")) {
+            file.seek(damagedPosition + 20);
+            file.writeLong(0xDEADBEEFL);
+        }
+
+        try(var cache = openCache()) {
+            assertEquals(1, cache.size());
+            assertTrue(cache.get(request("/1")).isPresent());
+            assertEquals(damagedPosition, cache.sizeBytes());
+
+            cache.put(request("/3"), cacheableResponse("3", 60));
+        }
+
+        try(var cache = openCache()) {
+            assertTrue(cache.get(request("/1")).isPresent());
+            assertTrue(cache.get(request("/2")).isEmpty());
+            assertTrue(cache.get(request("/3")).isPresent());
+        }
+    }
+
+    @Test
+    public void shouldNotPersistAuthenticatedResponses() throws IOException {
+        var authenticatedRequest = new HttpRequest(URI.create("https://api.guildwars2.com/v2/account"), Optional.of("key"), "latest");
+        try(var cache = openCache()) {
+            cache.put(authenticatedRequest, cacheableResponse("{}", 60));
+
+            assertTrue(cache.get(authenticatedRequest).isEmpty());
+            assertEquals(0, cache.size());
+        }
+    }
+
+    @Test
+    public void shouldCompactWhenFileIsFull() throws IOException {
+        try(var cache = PersistentResponseCache.builder().path(cachePath).clock(clock).maxBytes(4096L).build()) {
+            for(int i = 0; i < 50; i++) {
+                cache.put(request("/v2/achievements"), cacheableResponse("a".repeat(100) + i, 60));
+            }
+
+            assertTrue(cache.sizeBytes() <= 4096L);
+            assertEquals(Optional.of("a".repeat(100) + 49), cache.get(request("/v2/achievements")).map(HttpResponse::content));
+        }
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedWhenFullOfRevalidatableResponses() throws IOException {
+        try(var cache = PersistentResponseCache.builder().path(cachePath).clock(clock).maxBytes(8192L).build()) {
+            cache.put(request("/v2/achievements/0"), revalidatableResponse("a".repeat(100)));
+            for(int i = 1; i < 200; i++) {
+                cache.get(request("/v2/achievements/0")); //keeps it recently used
+                cache.put(request("/v2/achievements/" + i), revalidatableResponse("a".repeat(100)));
+            }
+
+            assertTrue(cache.sizeBytes() <= 8192L);
+            assertTrue(cache.getCompactionCount() > 0L);
+            assertTrue(cache.getCompactionCount() < 40L, "Compacted " + cache.getCompactionCount() + " times");
+            assertTrue(cache.getEvictionCount() > 0L);
+            assertTrue(cache.getStale(request("/v2/achievements/0")).isPresent());
+            assertTrue(cache.getStale(request("/v2/achievements/199")).isPresent());
+            assertFalse(cache.getStale(request("/v2/achievements/1")).isPresent());
+        }
+
+        try(var cache = PersistentResponseCache.builder().path(cachePath).clock(clock).maxBytes(8192L).build()) {
+            assertTrue(cache.getStale(request("/v2/achievements/0")).isPresent());
+            assertTrue(cache.getStale(request("/v2/achievements/199")).isPresent());
+        }
+    }
+
+    @Test
+    public void shouldForgetResponsesAfterInvalidation() throws IOException {
+        try(var cache = openCache()) {
+            cache.put(request("/v2/achievements"), cacheableResponse("[1,2,3]", 60));
+            cache.invalidateAll();
+        }
+
+        try(var cache = openCache()) {
+            assertEquals(0, cache.size());
+        }
+    }
+
+    private PersistentResponseCache openCache() {
+        return PersistentResponseCache.builder().path(cachePath).clock(clock).build();
+    }
+
+    private HttpRequest request(String path) {
+        return new HttpRequest(URI.create("https://api.guildwars2.com" + path), Optional.empty(), "latest");
+    }
+
+    private HttpResponse cacheableResponse(String content, int maxAgeSeconds) {
+        return new HttpResponse(content, 200, Map.of("Cache-Control", List.of("public, max-age=" + maxAgeSeconds)));
+    }
+
+    private HttpResponse revalidatableResponse(String content) {
+        return new HttpResponse(content, 200, Map.of("Cache-Control", List.of("max-age=60"), "ETag", List.of("\"v1\"")));
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        private void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
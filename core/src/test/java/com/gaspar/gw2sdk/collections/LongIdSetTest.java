@@ -0,0 +1,66 @@
+package com.gaspar.gw2sdk.collections;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gaspar.gw2sdk.serialization.SdkDeserialization;
+import com.gaspar.gw2sdk.serialization.SdkDeserializationException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongIdSetTest {
+
+    @Test
+    public void shouldSortAndRemoveDuplicates() {
+        var ids = LongIdSet.of(5L, 1L, 3L, 1L, 5L);
+
+        assertEquals(3, ids.size());
+        assertArrayEquals(new long[] {1L, 3L, 5L}, ids.toArray());
+        assertTrue(ids.contains(3L));
+        assertFalse(ids.contains(4L));
+    }
+
+    @Test
+    public void shouldCalculateSetOperations() {
+        var first = LongIdSet.of(1L, 2L, 3L, 4L);
+        var second = LongIdSet.of(3L, 4L, 5L);
+
+        assertEquals(LongIdSet.of(1L, 2L), first.difference(second));
+        assertEquals(LongIdSet.of(5L), second.difference(first));
+        assertEquals(LongIdSet.of(3L, 4L), first.intersection(second));
+        assertEquals(LongIdSet.of(1L, 2L, 3L, 4L, 5L), first.union(second));
+        assertTrue(first.difference(first).isEmpty());
+    }
+
+    @Test
+    public void shouldDeserializeFromJsonArray() {
+        var ids = SdkDeserialization.deserializeData("[3, 1, 2, 1]", new TypeReference<LongIdSet>() {});
+
+        assertEquals(LongIdSet.of(1L, 2L, 3L), ids);
+    }
+
+    @Test
+    public void shouldDeserializeLargeJsonArray() {
+        var json = new StringBuilder("[");
+        for(int i = 1000; i > 0; i--) {
+            json.append(i).append(i > 1 ? "," : "]");
+        }
+
+        var ids = SdkDeserialization.deserializeData(json.toString(), new TypeReference<LongIdSet>() {});
+
+        assertEquals(1000, ids.size());
+        assertEquals(1L, ids.get(0));
+        assertEquals(1000L, ids.get(999));
+    }
+
+    @Test
+    public void shouldNotDeserializeInvalidJson() {
+        assertThrows(SdkDeserializationException.class,
+                () -> SdkDeserialization.deserializeData("[1, \"two\"]", new TypeReference<LongIdSet>() {}));
+    }
+
+    @Test
+    public void shouldSerializeToJsonArray() throws Exception {
+        assertEquals("[1,2,3]", new ObjectMapper().writeValueAsString(LongIdSet.of(3L, 2L, 1L)));
+    }
+}
@@ -0,0 +1,20 @@
+package com.gaspar.gw2sdk.concurrent;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SdkExecutorsTest {
+
+    @Test
+    public void shouldRunOnVirtualThreadsIfSupported() {
+        if(SdkExecutors.isVirtualThreadsSupported()) {
+            var threadName = CompletableFuture.supplyAsync(() -> Thread.currentThread().toString(), SdkExecutors.virtualThreads()).join();
+            assertTrue(threadName.startsWith("VirtualThread"));
+        } else {
+            assertThrows(UnsupportedOperationException.class, SdkExecutors::virtualThreads);
+        }
+    }
+}
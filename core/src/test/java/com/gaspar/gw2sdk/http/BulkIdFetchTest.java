@@ -0,0 +1,188 @@
+package com.gaspar.gw2sdk.http;
+
+import com.gaspar.gw2sdk.Constants;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkIdFetchTest {
+
+    @Test
+    public void shouldSplitIdsIntoPages() {
+        var requestedPaths = new CopyOnWriteArrayList<String>();
+        var ids = LongStream.rangeClosed(1, 401).boxed().collect(Collectors.toList());
+
+        var response = new BulkIdFetch("/v2/test", ids, 2, path -> {
+            requestedPaths.add(path);
+            return CompletableFuture.completedFuture(Optional.of(new HttpResponse("[" + path.length() + "]", 200)));
+        }).fetch().join().orElseThrow(AssertionError::new);
+
+        assertEquals(3, requestedPaths.size());
+        assertTrue(requestedPaths.get(0).startsWith("/v2/test?ids=1,2,3"));
+        assertTrue(requestedPaths.get(2).endsWith("?ids=401"));
+        assertEquals(200, response.statusCode());
+        assertEquals(3, response.content().split(",").length);
+    }
+
+    @Test
+    public void shouldNotExceedMaxInFlight() {
+        var inFlight = new AtomicInteger();
+        var maxObservedInFlight = new AtomicInteger();
+        var ids = LongStream.rangeClosed(1, 2000).boxed().collect(Collectors.toList());
+
+        var response = new BulkIdFetch("/v2/test", ids, 3, path -> {
+            maxObservedInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            return CompletableFuture.supplyAsync(() -> {
+                sleep(10L);
+                inFlight.decrementAndGet();
+                return Optional.of(new HttpResponse("[1]", 200));
+            });
+        }).fetch().join().orElseThrow(AssertionError::new);
+
+        assertTrue(maxObservedInFlight.get() <= 3);
+        assertEquals("[1,1,1,1,1,1,1,1,1,1]", response.content());
+    }
+
+    @Test
+    public void shouldMergeEmptyPages() {
+        var ids = LongStream.rangeClosed(1, 600).boxed().collect(Collectors.toList());
+        var contents = List.of("[{\"id\":1}]", "[ ]", "[{\"id\":3}]");
+        var page = new AtomicInteger();
+
+        var response = new BulkIdFetch("/v2/test", ids, 1, path -> CompletableFuture.completedFuture(
+                Optional.of(new HttpResponse(contents.get(page.getAndIncrement()), 200))
+        )).fetch().join().orElseThrow(AssertionError::new);
+
+        assertEquals("[{\"id\":1},{\"id\":3}]", response.content());
+    }
+
+    @Test
+    public void shouldReturnErrorIfAnyPageFailed() {
+        var ids = LongStream.rangeClosed(1, 600).boxed().collect(Collectors.toList());
+        var page = new AtomicInteger();
+
+        var response = new BulkIdFetch("/v2/test", ids, 1, path -> {
+            int status = page.getAndIncrement() == 1 ? 500 : 200;
+            return CompletableFuture.completedFuture(Optional.of(new HttpResponse("[]", status)));
+        }).fetch().join().orElseThrow(AssertionError::new);
+
+        assertEquals(500, response.statusCode());
+    }
+
+    @Test
+    public void shouldHaveNoAnswerIfAnyPageHadNoAnswer() {
+        var ids = LongStream.rangeClosed(1, 600).boxed().collect(Collectors.toList());
+        var page = new AtomicInteger();
+
+        var response = new BulkIdFetch("/v2/test", ids, 2, path -> CompletableFuture.completedFuture(
+                page.getAndIncrement() == 2 ? Optional.<HttpResponse>empty() : Optional.of(new HttpResponse("[]", 200))
+        )).fetch().join();
+
+        assertTrue(response.isEmpty());
+    }
+
+    @Test
+    public void shouldNotMakeRequestsWithoutIds() {
+        var response = new BulkIdFetch("/v2/test", List.of(), 2, path -> {
+            throw new AssertionError("No request should be made");
+        }).fetch().join().orElseThrow(AssertionError::new);
+
+        assertEquals("[]", response.content());
+    }
+
+    @Test
+    public void shouldReportMissingIdsOfPartialPages() {
+        var ids = LongStream.rangeClosed(1, 400).boxed().collect(Collectors.toList());
+        var contents = List.of("[{\"id\":1,\"tiers\":[{\"id\":7}]},{\"id\":3}]", "[{\"id\":201}]");
+        var statuses = List.of(206, 206);
+        var page = new AtomicInteger();
+
+        var response = new BulkIdFetch("/v2/test", ids, 1, path -> {
+            int current = page.getAndIncrement();
+            return CompletableFuture.completedFuture(Optional.of(new HttpResponse(contents.get(current), statuses.get(current))));
+        }).fetch().join().orElseThrow(AssertionError::new);
+
+        assertEquals(206, response.statusCode());
+        assertEquals("[{\"id\":1,\"tiers\":[{\"id\":7}]},{\"id\":3},{\"id\":201}]", response.content());
+        var missingIds = response.header(Constants.MISSING_IDS_HEADER).orElseThrow(AssertionError::new).split(",");
+        assertEquals(400 - 3, missingIds.length);
+        assertEquals("2", missingIds[0]);
+    }
+
+    @Test
+    public void shouldStayPartialIfMissingIdsAreUnknown() {
+        var ids = LongStream.rangeClosed(1, 400).boxed().collect(Collectors.toList());
+        var page = new AtomicInteger();
+
+        var response = new BulkIdFetch("/v2/test", ids, 1, path -> CompletableFuture.completedFuture(Optional.of(
+                page.getAndIncrement() == 0
+                        ? new HttpResponse("[{\"id\":1},", 206)
+                        : new HttpResponse("[{\"id\":201}]", 200)
+        ))).fetch().join().orElseThrow(AssertionError::new);
+
+        assertEquals(206, response.statusCode());
+        assertTrue(response.header(Constants.MISSING_IDS_HEADER).isEmpty());
+        assertEquals("[{\"id\":201}]", response.content());
+    }
+
+    @Test
+    public void shouldTreatPageWithOnlyInvalidIdsAsMissing() {
+        var ids = LongStream.rangeClosed(1, 400).boxed().collect(Collectors.toList());
+        var page = new AtomicInteger();
+
+        var response = new BulkIdFetch("/v2/test", ids, 1, path -> CompletableFuture.completedFuture(Optional.of(
+                page.getAndIncrement() == 0
+                        ? new HttpResponse("[{\"id\":1}]", 206)
+                        : new HttpResponse("{\"text\":\"all ids provided are invalid\"}", 404)
+        ))).fetch().join().orElseThrow(AssertionError::new);
+
+        assertEquals(206, response.statusCode());
+        assertEquals("[{\"id\":1}]", response.content());
+    }
+
+    @Test
+    public void shouldNotRequestRememberedMissingIds() {
+        var missingIdCache = new MissingIdCache(Duration.ofMinutes(1L));
+        var requestedPaths = new CopyOnWriteArrayList<String>();
+        Function<String, CompletableFuture<Optional<HttpResponse>>> fetcher = path -> {
+            requestedPaths.add(path);
+            return CompletableFuture.completedFuture(Optional.of(new HttpResponse("[{\"id\":1}]", 206)));
+        };
+
+        new BulkIdFetch("/v2/test", List.of(1L, 2L), 1, fetcher, missingIdCache).fetch().join();
+        var response = new BulkIdFetch("/v2/test", List.of(2L), 1, fetcher, missingIdCache)
+                .fetch().join().orElseThrow(AssertionError::new);
+
+        assertEquals(List.of("/v2/test?ids=1,2"), requestedPaths);
+        assertEquals(206, response.statusCode());
+        assertEquals("[]", response.content());
+        assertEquals(Optional.of("2"), response.header(Constants.MISSING_IDS_HEADER));
+    }
+
+    @Test
+    public void shouldRequestMissingIdsAgainAfterExpiry() {
+        var missingIdCache = new MissingIdCache(Duration.ofMillis(1L));
+        missingIdCache.recordMissing("/v2/test", new long[] {2L});
+        sleep(10L);
+
+        assertFalse(missingIdCache.isMissing("/v2/test", 2L));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
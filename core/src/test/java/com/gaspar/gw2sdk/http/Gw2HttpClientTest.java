@@ -0,0 +1,274 @@
+package com.gaspar.gw2sdk.http;
+
+import com.gaspar.gw2sdk.MockUnderlyingHttpClient;
+import com.gaspar.gw2sdk.cache.InMemoryResponseCache;
+import com.gaspar.gw2sdk.metrics.ApiOperationTag;
+import com.gaspar.gw2sdk.metrics.HistogramSdkMetrics;
+import com.gaspar.gw2sdk.ratelimit.RateLimiter;
+import com.gaspar.gw2sdk.retry.CircuitBreaker;
+import com.gaspar.gw2sdk.retry.RetryPolicy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Gw2HttpClientTest {
+
+    private MockUnderlyingHttpClient mockClient;
+
+    @BeforeEach
+    public void setUp() {
+        mockClient = new MockUnderlyingHttpClient();
+        mockClient.setDelayMillis(100L);
+        mockClient.setMockResponse("[1,2,3]");
+    }
+
+    @Test
+    public void shouldCoalesceIdenticalRequests() {
+        var client = Gw2HttpClient.builder()
+                .underlyingHttpClient(mockClient)
+                .build();
+
+        var responses = fetchConcurrently(client, "/v2/achievements", 10);
+
+        assertEquals(1, mockClient.getRequests().size());
+        for(var response : responses) {
+            assertEquals("[1,2,3]", response.join().orElseThrow(AssertionError::new).content());
+        }
+    }
+
+    @Test
+    public void shouldNotCoalesceDifferentRequests() {
+        var client = Gw2HttpClient.builder()
+                .underlyingHttpClient(mockClient)
+                .build();
+
+        var first = client.fetchDataAsync("/v2/achievements");
+        var second = client.fetchDataAsync("/v2/achievements/daily");
+        CompletableFuture.allOf(first, second).join();
+
+        assertEquals(2, mockClient.getRequests().size());
+    }
+
+    @Test
+    public void shouldMakeNewRequestAfterPreviousFinished() {
+        var client = Gw2HttpClient.builder()
+                .underlyingHttpClient(mockClient)
+                .build();
+
+        client.fetchDataAsync("/v2/achievements").join();
+        client.fetchDataAsync("/v2/achievements").join();
+
+        assertEquals(2, mockClient.getRequests().size());
+    }
+
+    @Test
+    public void shouldNotCoalesceIfDisabled() {
+        var client = Gw2HttpClient.builder()
+                .underlyingHttpClient(mockClient)
+                .coalesceRequests(false)
+                .build();
+
+        fetchConcurrently(client, "/v2/achievements", 5);
+
+        assertEquals(5, mockClient.getRequests().size());
+    }
+
+    @Test
+    public void shouldServeCachedResponse() {
+        mockClient.setMockResponse("[1,2,3]", 200, Map.of("Cache-Control", List.of("public, max-age=300")));
+        var client = Gw2HttpClient.builder()
+                .underlyingHttpClient(mockClient)
+                .responseCache(InMemoryResponseCache.builder().build())
+                .build();
+
+        client.fetchDataAsync("/v2/achievements").join();
+        var cachedResponse = client.fetchDataAsync("/v2/achievements").join();
+
+        assertEquals(1, mockClient.getRequests().size());
+        assertEquals("[1,2,3]", cachedResponse.orElseThrow(AssertionError::new).content());
+    }
+
+    @Test
+    public void shouldRevalidateStaleResponse() {
+        mockClient.setMockResponse("[1,2,3]", 200, Map.of("Cache-Control", List.of("no-cache"), "ETag", List.of("\"abc\"")));
+        var client = Gw2HttpClient.builder()
+                .underlyingHttpClient(mockClient)
+                .responseCache(InMemoryResponseCache.builder().build())
+                .build();
+
+        var firstResponse = client.fetchDataAsync("/v2/achievements").join().orElseThrow(AssertionError::new);
+        mockClient.setMockResponse("", 304);
+        var revalidatedResponse = client.fetchDataAsync("/v2/achievements").join().orElseThrow(AssertionError::new);
+
+        assertEquals(2, mockClient.getRequests().size());
+        assertEquals(Optional.of("\"abc\""), mockClient.getRequests().get(1).ifNoneMatch());
+        assertSame(firstResponse, revalidatedResponse);
+    }
+
+    @Test
+    public void shouldServeStaleResponseWhileRevalidating() {
+        mockClient.setMockResponse("[1,2,3]", 200, Map.of("Cache-Control", List.of("no-cache"), "ETag", List.of("\"abc\"")));
+        var client = Gw2HttpClient.builder()
+                .underlyingHttpClient(mockClient)
+                .responseCache(InMemoryResponseCache.builder().build())
+                .serveStaleWhileRevalidating(true)
+                .build();
+
+        var firstResponse = client.fetchDataAsync("/v2/achievements").join().orElseThrow(AssertionError::new);
+        mockClient.setMockResponse("[1,2,3,4]", 200, Map.of("Cache-Control", List.of("no-cache"), "ETag", List.of("\"def\"")));
+        var staleResponse = client.fetchDataAsync("/v2/achievements").join().orElseThrow(AssertionError::new);
+
+        assertSame(firstResponse, staleResponse);
+        //without serving stale, this shares the background revalidation (or revalidates once more)
+        client.setServeStaleWhileRevalidating(false);
+        var revalidatedResponse = client.fetchDataAsync("/v2/achievements").join().orElseThrow(AssertionError::new);
+
+        assertEquals("[1,2,3,4]", revalidatedResponse.content());
+        assertEquals(Optional.of("\"abc\""), mockClient.getRequests().get(1).ifNoneMatch());
+    }
+
+    @Test
+    public void shouldRetryServerErrors() {
+        mockClient.setDelayMillis(null);
+        mockClient.setMockResponse("error", 503);
+        var client = Gw2HttpClient.builder()
+                .underlyingHttpClient(mockClient)
+                .retryPolicy(RetryPolicy.builder()
+                        .maxAttempts(3)
+                        .baseDelay(Duration.ofMillis(10))
+                        .build())
+                .build();
+
+        var response = client.fetchDataAsync("/v2/achievements").join().orElseThrow(AssertionError::new);
+
+        assertEquals(503, response.statusCode());
+        assertEquals(3, mockClient.getRequests().size());
+    }
+
+    @Test
+    public void shouldNotCountRateLimiterQueueAgainstDeadline() {
+        mockClient.setDelayMillis(50L);
+        var client = Gw2HttpClient.builder()
+                .underlyingHttpClient(mockClient)
+                .timeoutSeconds(60)
+                .rateLimiter(delayingRateLimiter(300L))
+                .retryPolicy(RetryPolicy.builder()
+                        .maxAttempts(2)
+                        .deadline(Duration.ofMillis(200))
+                        .build())
+                .build();
+
+        var response = client.fetchDataAsync("/v2/achievements").join();
+
+        assertEquals(Optional.of("[1,2,3]"), response.map(HttpResponse::content));
+    }
+
+    @Test
+    public void shouldLimitRequestWithoutRetriesOnlyByTimeout() {
+        mockClient.setDelayMillis(300L);
+        var client = Gw2HttpClient.builder()
+                .underlyingHttpClient(mockClient)
+                .timeoutSeconds(60)
+                .rateLimiter(delayingRateLimiter(300L))
+                .retryPolicy(RetryPolicy.builder()
+                        .maxAttempts(1)
+                        .deadline(Duration.ofMillis(100))
+                        .build())
+                .build();
+
+        var response = client.fetchDataAsync("/v2/achievements").join();
+
+        assertEquals(Optional.of("[1,2,3]"), response.map(HttpResponse::content));
+    }
+
+    @Test
+    public void shouldNotRetryClientErrors() {
+        mockClient.setMockResponse("error", 404);
+        var client = Gw2HttpClient.builder()
+                .underlyingHttpClient(mockClient)
+                .retryPolicy(RetryPolicy.builder().build())
+                .build();
+
+        client.fetchDataAsync("/v2/achievements").join();
+
+        assertEquals(1, mockClient.getRequests().size());
+    }
+
+    @Test
+    public void shouldFailFastWhenCircuitIsOpen() {
+        mockClient.setDelayMillis(null);
+        mockClient.setMockResponse("error", 500);
+        var client = Gw2HttpClient.builder()
+                .underlyingHttpClient(mockClient)
+                .circuitBreaker(CircuitBreaker.builder().failureThreshold(2).build())
+                .build();
+
+        client.fetchDataAsync("/v2/achievements").join();
+        client.fetchDataAsync("/v2/achievements").join();
+        var response = client.fetchDataAsync("/v2/achievements").join();
+
+        assertTrue(response.isEmpty());
+        assertEquals(2, mockClient.getRequests().size());
+    }
+
+    @Test
+    public void shouldRecordMetricsOfOperation() {
+        var metrics = new HistogramSdkMetrics();
+        var operation = new ApiOperationTag("/v2/achievements", "/v2/achievements");
+        var client = Gw2HttpClient.builder()
+                .underlyingHttpClient(mockClient)
+                .metrics(metrics)
+                .build();
+
+        client.fetchDataAsync("/v2/achievements", operation).join();
+
+        var stats = metrics.getOperationStats().get(operation);
+        assertEquals(1, stats.getRequestCount());
+        assertEquals(1, stats.getStatusClassCount(2));
+        assertEquals(1, stats.getQueueTime().getCount());
+        assertEquals("[1,2,3]".length(), stats.getResponseSize().getMax());
+        assertTrue(stats.getNetworkTime().getMax() >= Duration.ofMillis(100L).toNanos());
+    }
+
+    @Test
+    public void shouldRecordTimeoutMetrics() {
+        var metrics = new HistogramSdkMetrics();
+        mockClient.setDelayMillis(2000L);
+        var client = Gw2HttpClient.builder()
+                .underlyingHttpClient(mockClient)
+                .timeoutSeconds(1)
+                .metrics(metrics)
+                .build();
+
+        var response = client.fetchDataAsync("/v2/achievements").join();
+
+        var stats = metrics.getOperationStats().get(ApiOperationTag.UNTAGGED);
+        assertTrue(response.isEmpty());
+        assertEquals(1, stats.getTimeoutCount());
+        assertEquals(0, stats.getNetworkTime().getCount());
+    }
+
+    private List<CompletableFuture<Optional<HttpResponse>>> fetchConcurrently(Gw2HttpClient client, String path, int count) {
+        var responses = new ArrayList<CompletableFuture<Optional<HttpResponse>>>();
+        for(int i = 0; i < count; i++) {
+            responses.add(client.fetchDataAsync(path));
+        }
+        CompletableFuture.allOf(responses.toArray(CompletableFuture[]::new)).join();
+        return responses;
+    }
+
+    private static RateLimiter delayingRateLimiter(long delayMillis) {
+        return request -> CompletableFuture.runAsync(() -> {},
+                CompletableFuture.delayedExecutor(delayMillis, TimeUnit.MILLISECONDS));
+    }
+
+}
@@ -0,0 +1,196 @@
+package com.gaspar.gw2sdk.http;
+
+import com.gaspar.gw2sdk.InvalidParamException;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Java11HttpClientTest {
+
+    private HttpServer server;
+
+    private ExecutorService serverExecutor;
+
+    private static final String COMPRESSIBLE_CONTENT = "[" + "{\"id\":1,\"name\":\"Achievement\",\"flags\":[\"Pvp\"]},".repeat(500) + "{}]";
+
+    private final AtomicInteger requestsInProgress = new AtomicInteger();
+
+    private final AtomicInteger maxRequestsInProgress = new AtomicInteger();
+
+    private final AtomicInteger requestCount = new AtomicInteger();
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        serverExecutor = Executors.newFixedThreadPool(10);
+        server.setExecutor(serverExecutor);
+        server.createContext("/v2/achievements", exchange -> {
+            requestCount.incrementAndGet();
+            maxRequestsInProgress.accumulateAndGet(requestsInProgress.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(20);
+                byte[] body = "[1,2,3]".getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(200, body.length);
+                exchange.getResponseBody().write(body);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                requestsInProgress.decrementAndGet();
+                exchange.close();
+            }
+        });
+        server.createContext("/v2/compressed", exchange -> {
+            String encoding = exchange.getRequestURI().getQuery();
+            byte[] body = compress(encoding, COMPRESSIBLE_CONTENT);
+            exchange.getResponseHeaders().add("Content-Encoding", encoding);
+            exchange.getResponseHeaders().add("X-Accept-Encoding", String.valueOf(exchange.getRequestHeaders().getFirst("Accept-Encoding")));
+            exchange.sendResponseHeaders(200, 0); //chunked, so the body arrives in many parts
+            var output = exchange.getResponseBody();
+            for(int offset = 0; offset < body.length; offset += 100) {
+                output.write(body, offset, Math.min(100, body.length - offset));
+                output.flush();
+            }
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    public void shouldConfigureJdkClient() {
+        var client = Java11HttpClient.builder()
+                .httpVersion(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(3))
+                .build();
+
+        assertEquals(HttpClient.Version.HTTP_1_1, client.exposeUnderlyingHttpClient().version());
+        assertEquals(Optional.of(Duration.ofSeconds(3)), client.exposeUnderlyingHttpClient().connectTimeout());
+        assertEquals(HttpClient.Version.HTTP_2, new Java11HttpClient().exposeUnderlyingHttpClient().version());
+    }
+
+    @Test
+    public void shouldNotExceedMaxConcurrentStreams() {
+        var client = Java11HttpClient.builder()
+                .maxConcurrentStreams(2)
+                .build();
+        var request = new HttpRequest(URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/v2/achievements"), Optional.empty(), "latest");
+
+        List<CompletableFuture<HttpResponse>> responses = new ArrayList<>();
+        for(int i = 0; i < 10; i++) {
+            responses.add(client.httpGetAsync(request));
+        }
+
+        for(var response : responses) {
+            assertEquals("[1,2,3]", response.join().content());
+        }
+        assertTrue(maxRequestsInProgress.get() <= 2);
+    }
+
+    @Test
+    public void shouldSendWaitingRequestsAfterFailure() {
+        var client = Java11HttpClient.builder()
+                .maxConcurrentStreams(1)
+                .build();
+        var unreachableRequest = new HttpRequest(URI.create("http://127.0.0.1:1/v2/achievements"), Optional.empty(), "latest");
+        var request = new HttpRequest(URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/v2/achievements"), Optional.empty(), "latest");
+
+        var failedResponse = client.httpGetAsync(unreachableRequest);
+        var response = client.httpGetAsync(request);
+
+        assertThrows(Exception.class, failedResponse::join);
+        assertEquals(200, response.join().statusCode());
+    }
+
+    @Test
+    public void shouldNotSendRequestsThatTimedOutWhileWaiting() {
+        var client = Java11HttpClient.builder()
+                .maxConcurrentStreams(1)
+                .build();
+        var request = new HttpRequest(URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/v2/achievements"), Optional.empty(), "latest");
+
+        var firstResponse = client.httpGetAsync(request);
+        List<CompletableFuture<HttpResponse>> timedOutResponses = new ArrayList<>();
+        for(int i = 0; i < 5; i++) {
+            timedOutResponses.add(client.httpGetAsync(request).orTimeout(1, TimeUnit.MILLISECONDS));
+        }
+        for(var timedOutResponse : timedOutResponses) {
+            assertThrows(Exception.class, timedOutResponse::join);
+        }
+
+        assertEquals(200, firstResponse.join().statusCode());
+        assertEquals(200, client.httpGetAsync(request).join().statusCode());
+        assertEquals(2, requestCount.get());
+    }
+
+    @Test
+    public void shouldDecompressGzipResponse() {
+        var response = new Java11HttpClient().httpGetAsync(request("/v2/compressed?gzip")).join();
+
+        assertEquals(COMPRESSIBLE_CONTENT, response.content());
+        assertTrue(response.transferredBytes() < response.bodyLength() / 5);
+        assertTrue(response.header("Content-Encoding").isEmpty());
+        assertEquals(Optional.of("gzip, deflate"), response.header("X-Accept-Encoding"));
+    }
+
+    @Test
+    public void shouldDecompressDeflateResponse() {
+        var response = new Java11HttpClient().httpGetAsync(request("/v2/compressed?deflate")).join();
+
+        assertEquals(COMPRESSIBLE_CONTENT, response.content());
+        assertTrue(response.transferredBytes() < response.bodyLength() / 5);
+    }
+
+    @Test
+    public void shouldNotAskForCompressionIfDisabled() {
+        var client = Java11HttpClient.builder().compression(false).build();
+
+        var response = client.httpGetAsync(request("/v2/achievements")).join();
+
+        assertEquals("[1,2,3]", response.content());
+        assertEquals(7L, response.transferredBytes());
+    }
+
+    @Test
+    public void shouldRejectInvalidSettings() {
+        assertThrows(InvalidParamException.class, () -> Java11HttpClient.builder().maxConcurrentStreams(0).build());
+        assertThrows(InvalidParamException.class, () -> Java11HttpClient.builder().connectTimeout(Duration.ZERO).build());
+    }
+
+    private HttpRequest request(String path) {
+        return new HttpRequest(URI.create("http://127.0.0.1:" + server.getAddress().getPort() + path), Optional.empty(), "latest");
+    }
+
+    private static byte[] compress(String encoding, String content) throws IOException {
+        var bytes = new ByteArrayOutputStream();
+        try(var output = encoding.equals("gzip") ? new GZIPOutputStream(bytes) : new DeflaterOutputStream(bytes)) {
+            output.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,91 @@
+package com.gaspar.gw2sdk.http;
+
+import com.gaspar.gw2sdk.MockUnderlyingHttpClient;
+import com.gaspar.gw2sdk.auth.ApiKey;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class RequestAllocationTest {
+
+    private static final String VALID_TOKEN = "924A8073-8EF2-2046-A7C7-3BC31911DB41C021088A-3AEA-4775-8D4B-6B374B79496B";
+
+    /**
+     * Upper bound of the garbage a request may create on the calling thread, when the response is available
+     * right away. This covers the futures of the request pipeline and the timeout.
+     */
+    private static final long MAX_BYTES_PER_REQUEST = 4096L;
+
+    private static final int REQUEST_COUNT = 20_000;
+
+    @Test
+    public void shouldReuseRequestOfSamePath() {
+        var mockClient = new MockUnderlyingHttpClient();
+        mockClient.setMockResponse("[1,2,3]");
+        var client = Gw2HttpClient.builder()
+                .underlyingHttpClient(mockClient)
+                .build();
+
+        client.fetchDataAsync("/v2/achievements").join();
+        client.fetchDataAsync("/v2/achievements").join();
+        client.setApiKey(ApiKey.builder().token(VALID_TOKEN).build());
+        client.fetchDataAsync("/v2/achievements").join();
+
+        var requests = mockClient.getRequests();
+        assertSame(requests.get(0), requests.get(1));
+        assertEquals(Optional.of(VALID_TOKEN), requests.get(2).apiKey());
+    }
+
+    @Test
+    public void shouldKeepAllocationPerRequestBounded() {
+        var threadMxBean = ManagementFactory.getThreadMXBean();
+        assumeTrue(threadMxBean instanceof com.sun.management.ThreadMXBean, "Allocation measurement is not supported");
+        var allocationMxBean = (com.sun.management.ThreadMXBean) threadMxBean;
+        assumeTrue(allocationMxBean.isThreadAllocatedMemorySupported(), "Allocation measurement is not supported");
+
+        var client = Gw2HttpClient.builder()
+                .underlyingHttpClient(new ImmediateHttpClient())
+                .apiKey(ApiKey.builder().token(VALID_TOKEN).build())
+                .build();
+        fetchRepeatedly(client); //warm up
+
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = allocationMxBean.getThreadAllocatedBytes(threadId);
+        fetchRepeatedly(client);
+        long bytesPerRequest = (allocationMxBean.getThreadAllocatedBytes(threadId) - allocatedBefore) / REQUEST_COUNT;
+
+        assertTrue(bytesPerRequest <= MAX_BYTES_PER_REQUEST, "Allocated " + bytesPerRequest + " bytes per request");
+    }
+
+    private void fetchRepeatedly(Gw2HttpClient client) {
+        for(int i = 0; i < REQUEST_COUNT; i++) {
+            client.fetchDataAsync("/v2/achievements").join();
+        }
+    }
+
+    /**
+     * Responds on the calling thread, so that all allocation of the request happens on that thread.
+     */
+    private static class ImmediateHttpClient implements UnderlyingHttpClient<Void> {
+
+        private final CompletableFuture<HttpResponse> response = CompletableFuture.completedFuture(new HttpResponse("[1,2,3]", 200));
+
+        @Override
+        public CompletableFuture<HttpResponse> httpGetAsync(HttpRequest request) {
+            return response;
+        }
+
+        @Override
+        public Void exposeUnderlyingHttpClient() {
+            return null;
+        }
+
+        @Override
+        public void replaceUnderlyingHttpClient(Void v) {}
+    }
+}
@@ -0,0 +1,99 @@
+package com.gaspar.gw2sdk.jfr;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.gaspar.gw2sdk.ApiPromise;
+import com.gaspar.gw2sdk.MockUnderlyingHttpClient;
+import com.gaspar.gw2sdk.http.Gw2HttpClient;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JfrEventsTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Gw2HttpClient client;
+
+    @BeforeEach
+    public void setUp() {
+        var mockClient = new MockUnderlyingHttpClient();
+        mockClient.setMockResponse("[1,2,3]");
+        client = Gw2HttpClient.builder()
+                .underlyingHttpClient(mockClient)
+                .build();
+    }
+
+    @Test
+    public void shouldEmitEventsOfRequestLifecycle() throws Exception {
+        List<RecordedEvent> events;
+        try(var recording = new Recording()) {
+            recording.enable(FetchEvent.class);
+            recording.enable(HttpRequestEvent.class);
+            recording.enable(DeserializationEvent.class);
+            recording.enable(CallbackDispatchEvent.class);
+            recording.start();
+            fetchAndConsume();
+            recording.stop();
+            events = readEvents(recording);
+        }
+
+        var fetchEvent = findEvent(events, "com.gaspar.gw2sdk.Fetch");
+        assertEquals("/v2/achievements", fetchEvent.getString("path"));
+        assertEquals(200, fetchEvent.getInt("statusCode"));
+        assertEquals(7L, fetchEvent.getLong("responseSize"));
+
+        var requestEvent = findEvent(events, "com.gaspar.gw2sdk.HttpRequest");
+        assertEquals("https://api.guildwars2.com/v2/achievements", requestEvent.getString("url"));
+        assertFalse(requestEvent.getBoolean("timedOut"));
+
+        var deserializationEvent = findEvent(events, "com.gaspar.gw2sdk.Deserialization");
+        assertEquals("java.util.List<java.lang.Long>", deserializationEvent.getString("dataType"));
+        assertTrue(deserializationEvent.getBoolean("successful"));
+
+        var callbackEvent = findEvent(events, "com.gaspar.gw2sdk.CallbackDispatch");
+        assertEquals("onSuccess", callbackEvent.getString("callbackType"));
+    }
+
+    @Test
+    public void shouldNotEmitEventsByDefault() throws Exception {
+        List<RecordedEvent> events;
+        try(var recording = new Recording()) {
+            recording.start();
+            fetchAndConsume();
+            recording.stop();
+            events = readEvents(recording);
+        }
+
+        assertTrue(events.stream().noneMatch(event -> event.getEventType().getName().startsWith("com.gaspar.gw2sdk")));
+    }
+
+    private void fetchAndConsume() {
+        ApiPromise.of(client.fetchDataAsync("/v2/achievements"), new TypeReference<List<Long>>() {})
+                .onSuccess(ids -> {})
+                .join();
+    }
+
+    private List<RecordedEvent> readEvents(Recording recording) throws Exception {
+        Path file = tempDir.resolve("recording.jfr");
+        recording.dump(file);
+        return RecordingFile.readAllEvents(file);
+    }
+
+    private RecordedEvent findEvent(List<RecordedEvent> events, String name) {
+        var matchingEvents = events.stream()
+                .filter(event -> event.getEventType().getName().equals(name))
+                .collect(Collectors.toList());
+        assertEquals(1, matchingEvents.size(), "Expected exactly one event of " + name);
+        return matchingEvents.get(0);
+    }
+}
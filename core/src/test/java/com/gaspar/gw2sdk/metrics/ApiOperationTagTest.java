@@ -0,0 +1,22 @@
+package com.gaspar.gw2sdk.metrics;
+
+import com.gaspar.gw2sdk.Gw2Api;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ApiOperationTagTest {
+
+    @Test
+    public void shouldResolveTagFromAnnotations() {
+        var tag = ApiOperationTag.of(Gw2Api.class, "getVersion2Info");
+
+        assertEquals(new ApiOperationTag("/", "/v2"), tag);
+    }
+
+    @Test
+    public void shouldNotResolveTagOfMissingOperation() {
+        assertThrows(IllegalArgumentException.class, () -> ApiOperationTag.of(Gw2Api.class, "getVersion3Info"));
+        assertThrows(IllegalArgumentException.class, () -> ApiOperationTag.of(String.class, "length"));
+    }
+}
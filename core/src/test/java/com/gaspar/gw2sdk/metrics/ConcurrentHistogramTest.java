@@ -0,0 +1,66 @@
+package com.gaspar.gw2sdk.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentHistogramTest {
+
+    @Test
+    public void shouldRecordSmallValuesExactly() {
+        var histogram = new ConcurrentHistogram();
+        for(long value = 1; value <= 10; value++) {
+            histogram.record(value);
+        }
+
+        assertEquals(10, histogram.getCount());
+        assertEquals(10, histogram.getMax());
+        assertEquals(5.5, histogram.getMean());
+        assertEquals(5, histogram.getValueAtPercentile(50.0));
+        assertEquals(10, histogram.getValueAtPercentile(100.0));
+    }
+
+    @Test
+    public void shouldRecordLargeValuesWithBoundedError() {
+        var histogram = new ConcurrentHistogram();
+        for(long value = 1; value <= 100_000; value++) {
+            histogram.record(value * 1000L);
+        }
+
+        long median = histogram.getValueAtPercentile(50.0);
+        long p99 = histogram.getValueAtPercentile(99.0);
+        assertEquals(50_000_000L, median, 50_000_000L * 0.04);
+        assertEquals(99_000_000L, p99, 99_000_000L * 0.04);
+        assertEquals(100_000_000L, histogram.getMax());
+    }
+
+    @Test
+    public void shouldMapValuesIntoBucketsThatContainThem() {
+        for(long value : new long[] {0L, 31L, 32L, 63L, 64L, 1000L, 123_456_789L, Long.MAX_VALUE}) {
+            int index = ConcurrentHistogram.bucketIndex(value);
+            assertTrue(ConcurrentHistogram.bucketUpperBound(index) >= value);
+            if(index > 0) {
+                assertTrue(ConcurrentHistogram.bucketUpperBound(index - 1) < value);
+            }
+        }
+    }
+
+    @Test
+    public void shouldNotLoseConcurrentRecords() {
+        var histogram = new ConcurrentHistogram();
+        var futures = IntStream.range(0, 4)
+                .mapToObj(i -> CompletableFuture.runAsync(() -> {
+                    for(int j = 0; j < 10_000; j++) {
+                        histogram.record(j);
+                    }
+                }))
+                .toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(futures).join();
+
+        assertEquals(40_000, histogram.getCount());
+        assertEquals(9_999, histogram.getMax());
+    }
+}
@@ -0,0 +1,56 @@
+package com.gaspar.gw2sdk.ratelimit;
+
+import com.gaspar.gw2sdk.InvalidParamException;
+import com.gaspar.gw2sdk.http.HttpRequest;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketRateLimiterTest {
+
+    @Test
+    public void shouldDelayRequestsAfterBurst() {
+        var limiter = TokenBucketRateLimiter.builder()
+                .requestsPerMinute(600) //one request per 100 ms
+                .burst(2)
+                .build();
+
+        assertTrue(limiter.acquire(request(Optional.empty())).isDone());
+        assertTrue(limiter.acquire(request(Optional.empty())).isDone());
+
+        var delayed = limiter.acquire(request(Optional.empty()));
+        assertFalse(delayed.isDone());
+        assertEquals(1, limiter.getQueueDepth());
+
+        delayed.join();
+        assertEquals(0, limiter.getQueueDepth());
+        assertEquals(1, limiter.getDelayedRequestCount());
+        assertTrue(limiter.getMaxWaitTime().toMillis() > 0);
+    }
+
+    @Test
+    public void shouldLimitEachApiKeySeparately() {
+        var limiter = TokenBucketRateLimiter.builder()
+                .perKeyRequestsPerMinute(60)
+                .perKeyBurst(1)
+                .build();
+
+        assertTrue(limiter.acquire(request(Optional.of("first"))).isDone());
+        assertTrue(limiter.acquire(request(Optional.of("second"))).isDone());
+        assertFalse(limiter.acquire(request(Optional.of("first"))).isDone());
+    }
+
+    @Test
+    public void shouldNotAcceptInvalidRate() {
+        assertThrows(InvalidParamException.class, () -> TokenBucketRateLimiter.builder()
+                .requestsPerMinute(0)
+                .build());
+    }
+
+    private HttpRequest request(Optional<String> apiKey) {
+        return new HttpRequest(URI.create("https://api.guildwars2.com/v2/achievements"), apiKey, "latest");
+    }
+}
@@ -0,0 +1,55 @@
+package com.gaspar.gw2sdk.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketTest {
+
+    private final AtomicLong now = new AtomicLong(0L);
+
+    @Test
+    public void shouldAllowBurstWithoutWaiting() {
+        var bucket = new TokenBucket(60, 3, now::get);
+
+        assertEquals(0L, bucket.reserve());
+        assertEquals(0L, bucket.reserve());
+        assertEquals(0L, bucket.reserve());
+    }
+
+    @Test
+    public void shouldQueueRequestsAfterBurst() {
+        var bucket = new TokenBucket(60, 2, now::get); //one token per second
+
+        bucket.reserve();
+        bucket.reserve();
+
+        assertEquals(TimeUnit.SECONDS.toNanos(1), bucket.reserve());
+        assertEquals(TimeUnit.SECONDS.toNanos(2), bucket.reserve());
+    }
+
+    @Test
+    public void shouldRefillOverTime() {
+        var bucket = new TokenBucket(60, 2, now::get);
+        bucket.reserve();
+        bucket.reserve();
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(2));
+
+        assertEquals(0L, bucket.reserve());
+        assertEquals(0L, bucket.reserve());
+        assertTrue(bucket.reserve() > 0L);
+    }
+
+    @Test
+    public void shouldWaitForWholeBurstAfterDrain() {
+        var bucket = new TokenBucket(60, 2, now::get);
+
+        bucket.drain();
+
+        assertEquals(TimeUnit.SECONDS.toNanos(1), bucket.reserve());
+    }
+}
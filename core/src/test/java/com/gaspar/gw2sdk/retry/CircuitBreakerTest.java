@@ -0,0 +1,85 @@
+package com.gaspar.gw2sdk.retry;
+
+import com.gaspar.gw2sdk.http.HttpResponse;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerTest {
+
+    private static final String ENDPOINT = "/v2/achievements";
+
+    private final AtomicLong now = new AtomicLong(0L);
+
+    private final CircuitBreaker breaker = new CircuitBreaker(3, Duration.ofSeconds(10), now::get);
+
+    @Test
+    public void shouldOpenAfterConsecutiveFailures() {
+        failRequests(3);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState(ENDPOINT));
+        assertFalse(breaker.tryAcquire(ENDPOINT));
+        assertTrue(breaker.tryAcquire("/v2/account")); //other endpoints are not affected
+    }
+
+    @Test
+    public void shouldResetFailuresOnSuccess() {
+        failRequests(2);
+        breaker.record(ENDPOINT, Optional.of(new HttpResponse("[]", 200)));
+        failRequests(2);
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState(ENDPOINT));
+    }
+
+    @Test
+    public void shouldNotCountClientErrorsAsFailures() {
+        for(int i = 0; i < 5; i++) {
+            breaker.record(ENDPOINT, Optional.of(new HttpResponse("error", 404)));
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState(ENDPOINT));
+    }
+
+    @Test
+    public void shouldAllowSingleProbeAfterOpenDuration() {
+        failRequests(3);
+        now.addAndGet(Duration.ofSeconds(11).toNanos());
+
+        assertTrue(breaker.tryAcquire(ENDPOINT));
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState(ENDPOINT));
+        assertFalse(breaker.tryAcquire(ENDPOINT));
+    }
+
+    @Test
+    public void shouldCloseWhenProbeSucceeds() {
+        failRequests(3);
+        now.addAndGet(Duration.ofSeconds(11).toNanos());
+        breaker.tryAcquire(ENDPOINT);
+
+        breaker.record(ENDPOINT, Optional.of(new HttpResponse("[]", 200)));
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState(ENDPOINT));
+    }
+
+    @Test
+    public void shouldOpenAgainWhenProbeFails() {
+        failRequests(3);
+        now.addAndGet(Duration.ofSeconds(11).toNanos());
+        breaker.tryAcquire(ENDPOINT);
+
+        breaker.record(ENDPOINT, Optional.empty());
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState(ENDPOINT));
+        assertFalse(breaker.tryAcquire(ENDPOINT));
+    }
+
+    private void failRequests(int count) {
+        for(int i = 0; i < count; i++) {
+            assertTrue(breaker.tryAcquire(ENDPOINT));
+            breaker.record(ENDPOINT, Optional.of(new HttpResponse("error", 503)));
+        }
+    }
+}
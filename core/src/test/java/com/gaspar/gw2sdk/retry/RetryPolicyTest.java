@@ -0,0 +1,62 @@
+package com.gaspar.gw2sdk.retry;
+
+import com.gaspar.gw2sdk.http.HttpResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RetryPolicyTest {
+
+    private final RetryPolicy policy = RetryPolicy.builder()
+            .baseDelay(Duration.ofMillis(100))
+            .maxDelay(Duration.ofSeconds(5))
+            .build();
+
+    @ParameterizedTest
+    @ValueSource(ints = {429, 500, 502, 503, 504})
+    public void shouldRetryOnThrottlingAndServerErrors(int statusCode) {
+        assertTrue(policy.isRetryable(Optional.of(new HttpResponse("", statusCode))));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {200, 206, 304, 400, 401, 404})
+    public void shouldNotRetryOnOtherResponses(int statusCode) {
+        assertFalse(policy.isRetryable(Optional.of(new HttpResponse("", statusCode))));
+    }
+
+    @Test
+    public void shouldRetryWhenNoAnswer() {
+        assertTrue(policy.isRetryable(Optional.empty()));
+    }
+
+    @Test
+    public void shouldKeepDelayWithinBounds() {
+        Duration delay = Duration.ZERO;
+        for(int i = 0; i < 50; i++) {
+            Duration previousDelay = delay;
+            delay = policy.nextDelay(previousDelay, Optional.empty());
+            assertTrue(delay.compareTo(Duration.ofMillis(100)) >= 0);
+            assertTrue(delay.compareTo(Duration.ofSeconds(5)) <= 0);
+            assertTrue(delay.toMillis() <= Math.max(100, previousDelay.toMillis() * 3));
+        }
+    }
+
+    @Test
+    public void shouldHonorRetryAfter() {
+        var response = new HttpResponse("", 429, Map.of("Retry-After", List.of("2")));
+        assertEquals(Duration.ofSeconds(2), policy.nextDelay(Duration.ZERO, Optional.of(response)));
+    }
+
+    @Test
+    public void shouldLimitRetryAfterToMaxDelay() {
+        var response = new HttpResponse("", 503, Map.of("Retry-After", List.of("3600")));
+        assertEquals(Duration.ofSeconds(5), policy.nextDelay(Duration.ZERO, Optional.of(response)));
+    }
+}
@@ -5,7 +5,10 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.*;
 import org.junit.jupiter.api.Test;
 
+import java.nio.charset.StandardCharsets;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class SdkDeserializationTest {
@@ -31,6 +34,29 @@ public class SdkDeserializationTest {
         assertEquals(testData, deserializedData);
     }
 
+    @Test
+    public void shouldDeserializeJsonBytes() throws Exception {
+        TestData testData = new TestData("OK \u0151", 2);
+        byte[] serialized = mapper.writeValueAsBytes(testData);
+
+        TestData deserializedData = SdkDeserialization.deserializeData(serialized, new TypeReference<>() {});
+        assertEquals(testData, deserializedData);
+    }
+
+    @Test
+    public void shouldDecodeRawStringBytes() throws Exception {
+        String testData = "hello \u0151";
+        String deserializedTestData = SdkDeserialization.deserializeData(testData.getBytes(StandardCharsets.UTF_8), new TypeReference<>() {});
+        assertEquals(testData, deserializedTestData);
+    }
+
+    @Test
+    public void shouldNotDeserializeInvalidJsonBytes() {
+        assertThrows(SdkDeserializationException.class, () -> {
+            SdkDeserialization.deserializeData("invalid".getBytes(StandardCharsets.UTF_8), new TypeReference<SdkDeserializationTest.TestData>() {});
+        });
+    }
+
     @Test
     public void shouldNotSerializeInvalidJson() {
         assertThrows(SdkDeserializationException.class, () -> {
@@ -45,4 +71,29 @@ public class SdkDeserializationTest {
         assertEquals(testData, deserializedTestData);
     }
 
-}
\ No newline at end of file
+    @Test
+    public void shouldReuseReaderOfType() {
+        var deserialization = SdkDeserialization.forProfile(DeserializationProfile.DEFAULT);
+        var firstReader = deserialization.readerFor(new TypeReference<TestData>() {});
+        var secondReader = deserialization.readerFor(new TypeReference<TestData>() {});
+        assertSame(firstReader, secondReader);
+    }
+
+    @Test
+    public void shouldDeserializeWithHighPerformanceProfile() throws Exception {
+        TestData testData = new TestData("OK", 2);
+        byte[] serialized = mapper.writeValueAsBytes(testData);
+
+        var deserialization = SdkDeserialization.forProfile(DeserializationProfile.HIGH_PERFORMANCE);
+        TestData deserializedData = deserialization.deserialize(serialized, new TypeReference<>() {});
+        assertEquals(testData, deserializedData);
+    }
+
+    @Test
+    public void shouldIgnoreUnknownPropertiesWithHighPerformanceProfile() {
+        var deserialization = SdkDeserialization.forProfile(DeserializationProfile.HIGH_PERFORMANCE);
+        TestData deserializedData = deserialization.deserialize("{\"x\":\"OK\",\"y\":2,\"z\":[1]}", new TypeReference<>() {});
+        assertEquals(new TestData("OK", 2), deserializedData);
+    }
+
+}
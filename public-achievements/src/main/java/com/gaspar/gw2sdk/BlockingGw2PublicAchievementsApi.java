@@ -0,0 +1,81 @@
+package com.gaspar.gw2sdk;
+
+import com.gaspar.gw2sdk.annotations.Gw2ApiComponent;
+import com.gaspar.gw2sdk.annotations.Gw2ApiOperation;
+import com.gaspar.gw2sdk.collections.LongIdSet;
+import com.gaspar.gw2sdk.dto.AchievementDto;
+import com.gaspar.gw2sdk.http.Gw2HttpClient;
+import lombok.Builder;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Blocking variant of {@link Gw2PublicAchievementsApi}: the methods wait for the response and return it.
+ * It is intended to be used from virtual threads, for example:
+ * <pre>{@code
+ * var response = blockingAchievementsApi.getAchievementIds();
+ * if(response.isSuccessful()) {
+ *     log.info("GW2 has '{}' achievements!", response.data().get().size());
+ * }
+ * }</pre>
+ * The waiting is interruptible, and it is limited by the await timeout (see {@link BlockingApiComponent}).
+ */
+@Slf4j
+@Gw2ApiComponent(
+        basePath = "/v2/achievements",
+        apiKeyNeeded = false,
+        requiredPermissions = {}
+)
+public class BlockingGw2PublicAchievementsApi extends BlockingApiComponent {
+
+    private final Gw2PublicAchievementsApi achievementsApi;
+
+    @Builder
+    private BlockingGw2PublicAchievementsApi(Gw2HttpClient gw2HttpClient, Duration awaitTimeout) {
+        super(awaitTimeout);
+        this.achievementsApi = Gw2PublicAchievementsApi.builder()
+                .gw2HttpClient(gw2HttpClient)
+                .build();
+        log.debug("Blocking public achievements API initialized");
+    }
+
+    /**
+     * Query the set of all whitelisted achievement IDs.
+     * @throws InterruptedException If the thread is interrupted while waiting.
+     */
+    @Gw2ApiOperation(path = "/v2/achievements")
+    public ApiResponse<LongIdSet> getAchievementIds() throws InterruptedException {
+        return await(achievementsApi.getAchievementIds());
+    }
+
+    /**
+     * Query a list of achievements by their IDs. See {@link Gw2PublicAchievementsApi#getAchievements(Collection)}.
+     * @throws InterruptedException If the thread is interrupted while waiting.
+     */
+    @Gw2ApiOperation(path = "/v2/achievements")
+    public ApiResponse<List<AchievementDto>> getAchievements(Collection<Long> ids) throws InterruptedException {
+        return await(achievementsApi.getAchievements(ids));
+    }
+
+    /**
+     * Query a set of achievements by their IDs. See {@link Gw2PublicAchievementsApi#getAchievements(LongIdSet)}.
+     * @throws InterruptedException If the thread is interrupted while waiting.
+     */
+    @Gw2ApiOperation(path = "/v2/achievements")
+    public ApiResponse<List<AchievementDto>> getAchievements(LongIdSet ids) throws InterruptedException {
+        return await(achievementsApi.getAchievements(ids));
+    }
+
+    /**
+     * Query a single achievement by its ID. See {@link Gw2PublicAchievementsApi#getAchievement(long)}: lookups of
+     * different threads are fetched together.
+     * @throws InterruptedException If the thread is interrupted while waiting.
+     */
+    @Gw2ApiOperation(path = "/v2/achievements")
+    public ApiResponse<AchievementDto> getAchievement(long id) throws InterruptedException {
+        return await(achievementsApi.getAchievement(id));
+    }
+}
@@ -3,11 +3,21 @@ package com.gaspar.gw2sdk;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.gaspar.gw2sdk.annotations.Gw2ApiComponent;
 import com.gaspar.gw2sdk.annotations.Gw2ApiOperation;
+import com.gaspar.gw2sdk.collections.LongIdSet;
+import com.gaspar.gw2sdk.dto.AchievementDto;
 import com.gaspar.gw2sdk.http.Gw2HttpClient;
+import com.gaspar.gw2sdk.metrics.ApiOperationTag;
+import com.gaspar.gw2sdk.snapshot.AchievementsSnapshot;
 import lombok.Builder;
 import lombok.extern.slf4j.Slf4j;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
 
 /**
  * Wrapper to access the GW2 public achievements API. This includes
@@ -27,21 +37,149 @@ public class Gw2PublicAchievementsApi extends ApiComponent {
 
     private static final String PUBLIC_ACHIEVEMENTS_PATH = "/v2/achievements";
 
+    private static final ApiOperationTag GET_ACHIEVEMENT_IDS = ApiOperationTag.of(
+            Gw2PublicAchievementsApi.class, "getAchievementIds");
+    private static final ApiOperationTag GET_ACHIEVEMENTS = ApiOperationTag.of(
+            Gw2PublicAchievementsApi.class, "getAchievements", Collection.class);
+    private static final ApiOperationTag GET_ACHIEVEMENT = ApiOperationTag.of(
+            Gw2PublicAchievementsApi.class, "getAchievement", long.class);
+    private static final ApiOperationTag STREAM_ACHIEVEMENTS = ApiOperationTag.of(
+            Gw2PublicAchievementsApi.class, "streamAchievements");
+    private static final ApiOperationTag STREAM_ACHIEVEMENTS_BY_ID = ApiOperationTag.of(
+            Gw2PublicAchievementsApi.class, "streamAchievements", LongIdSet.class);
+
+    /**
+     * Writes every snapshot on its own daemon thread: snapshots are downloaded rarely, so no threads are kept for them.
+     */
+    private static final Executor SNAPSHOT_WRITER = task -> {
+        var thread = new Thread(task, "gw2-sdk-snapshot-writer");
+        thread.setDaemon(true);
+        thread.start();
+    };
+
+    private final BatchLoader<AchievementDto> achievementLoader;
+
+    /**
+     * @param batchWindow How long the lookups of {@link #getAchievement(long)} are collected into one request.
+     *                    By default, 10 milliseconds.
+     */
     @Builder
-    private Gw2PublicAchievementsApi(Gw2HttpClient gw2HttpClient) {
+    private Gw2PublicAchievementsApi(Gw2HttpClient gw2HttpClient, Duration batchWindow) {
         super(gw2HttpClient);
+        this.achievementLoader = BatchLoader.<AchievementDto>builder()
+                .gw2HttpClient(this.gw2HttpClient)
+                .path(PUBLIC_ACHIEVEMENTS_PATH)
+                .dataType(new TypeReference<>() {})
+                .idOf(AchievementDto::getId)
+                .operation(GET_ACHIEVEMENT)
+                .batchWindow(batchWindow)
+                .build();
         log.debug("Public achievements API initialized");
     }
 
     /**
-     * Query the list of all whitelisted achievement IDs.
+     * Query the set of all whitelisted achievement IDs.
      */
     @Gw2ApiOperation(path = "/v2/achievements")
-    public ApiPromise<List<Long>> getAchievementIds() {
-        var future = gw2HttpClient.fetchDataAsync(PUBLIC_ACHIEVEMENTS_PATH);
-        return ApiPromise.of(future, new TypeReference<>() {});
+    public ApiPromise<LongIdSet> getAchievementIds() {
+        var future = gw2HttpClient.fetchDataAsync(PUBLIC_ACHIEVEMENTS_PATH, GET_ACHIEVEMENT_IDS);
+        return promiseOf(future, new TypeReference<>() {}, GET_ACHIEVEMENT_IDS);
     }
 
-    //TODO get a single achievement by id
-    //TODO get a list of achievements by ID list
+    /**
+     * Query a list of achievements by their IDs. There is no limit on the amount of IDs: the SDK
+     * splits them into pages that the GW2 API accepts, fetches the pages in parallel and merges the results.
+     * Duplicate IDs are only fetched once.
+     * <p>
+     * The promise will be an error if any of the pages is an error, and it will have no answer if any of
+     * the pages has no answer. If some of the IDs don't exist, it's still successful, but partial: the missing
+     * IDs are in {@link ApiResponse#missingIds()}.
+     */
+    @Gw2ApiOperation(path = "/v2/achievements")
+    public ApiPromise<List<AchievementDto>> getAchievements(Collection<Long> ids) {
+        log.debug("Fetching '{}' achievements by ID...", ids.size());
+        var future = gw2HttpClient.fetchBulkDataAsync(PUBLIC_ACHIEVEMENTS_PATH, ids, GET_ACHIEVEMENTS);
+        return promiseOf(future, new TypeReference<>() {}, GET_ACHIEVEMENTS);
+    }
+
+    /**
+     * Query a set of achievements by their IDs. Same as {@link #getAchievements(Collection)}, but
+     * it accepts the result of {@link #getAchievementIds()} (or a part of it) directly.
+     */
+    @Gw2ApiOperation(path = "/v2/achievements")
+    public ApiPromise<List<AchievementDto>> getAchievements(LongIdSet ids) {
+        log.debug("Fetching '{}' achievements by ID...", ids.size());
+        var future = gw2HttpClient.fetchBulkDataAsync(PUBLIC_ACHIEVEMENTS_PATH, ids, GET_ACHIEVEMENTS);
+        return promiseOf(future, new TypeReference<>() {}, GET_ACHIEVEMENTS);
+    }
+
+    /**
+     * Download the whole catalog of achievements, and write it into a snapshot file. The snapshot can be
+     * loaded later with {@link AchievementsSnapshot#open(Path)}, without fetching the catalog again. The file
+     * is written on a new thread, so that the blocking I/O does not occupy the callback executor.
+     * <p>
+     * The promise will be an error or have no answer in the same cases as {@link #getAchievementIds()} and
+     * {@link #getAchievements(LongIdSet)}. If the snapshot can't be written, the promise completes exceptionally:
+     * {@link ApiPromise#join()} throws a {@link java.util.concurrent.CompletionException}, whose cause is an
+     * {@link SdkException}.
+     * @param path The snapshot file, which is created or replaced.
+     * @return Promise of the written snapshot, already opened.
+     */
+    @Gw2ApiOperation(path = "/v2/achievements")
+    public ApiPromise<AchievementsSnapshot> downloadSnapshot(Path path) {
+        return downloadSnapshot(path, SNAPSHOT_WRITER);
+    }
+
+    /**
+     * Same as {@link #downloadSnapshot(Path)}, but the file is written on the given executor.
+     * @param ioExecutor Executor for the blocking file I/O.
+     */
+    @Gw2ApiOperation(path = "/v2/achievements")
+    public ApiPromise<AchievementsSnapshot> downloadSnapshot(Path path, Executor ioExecutor) {
+        return getAchievementIds()
+                .flatMap(this::getAchievements)
+                .mapAsync(achievements -> {
+                    try {
+                        AchievementsSnapshot.write(achievements, path);
+                        return AchievementsSnapshot.open(path);
+                    } catch (IOException e) {
+                        throw new SdkException("Failed to write achievements snapshot to '" + path + "'", e);
+                    }
+                }, ioExecutor);
+    }
+
+    /**
+     * Stream the whole catalog of achievements, page by page. Unlike {@link #getAchievements(LongIdSet)}, the
+     * catalog is never held in memory as a whole: pages are only fetched while the subscriber requests more
+     * achievements, see {@link PagedPublisher}. The list of IDs is not needed either, because the pages are
+     * queried with the '{@code page}' parameter.
+     */
+    @Gw2ApiOperation(path = "/v2/achievements")
+    public Flow.Publisher<AchievementDto> streamAchievements() {
+        return PagedPublisher.paged(gw2HttpClient, PUBLIC_ACHIEVEMENTS_PATH, PagedPublisher.MAX_PAGE_SIZE,
+                new TypeReference<>() {}, STREAM_ACHIEVEMENTS);
+    }
+
+    /**
+     * Stream the achievements with the given IDs, page by page. Same as {@link #streamAchievements()}, but
+     * only for a part of the catalog.
+     */
+    @Gw2ApiOperation(path = "/v2/achievements")
+    public Flow.Publisher<AchievementDto> streamAchievements(LongIdSet ids) {
+        log.debug("Streaming '{}' achievements by ID...", ids.size());
+        return PagedPublisher.bulk(gw2HttpClient, PUBLIC_ACHIEVEMENTS_PATH, ids, new TypeReference<>() {}, STREAM_ACHIEVEMENTS_BY_ID);
+    }
+
+    /**
+     * Query a single achievement by its ID. Lookups made within a short window (see the '{@code batchWindow}'
+     * of the builder) are fetched together, with as few requests as possible, and an ID that is looked up
+     * multiple times is only fetched once. This makes it cheap to look up achievements one by one, from many
+     * independent places.
+     * <p>
+     * The promise will be an error with status 404 if the achievement does not exist.
+     */
+    @Gw2ApiOperation(path = "/v2/achievements")
+    public ApiPromise<AchievementDto> getAchievement(long id) {
+        return achievementLoader.load(id);
+    }
 }
@@ -0,0 +1,44 @@
+package com.gaspar.gw2sdk.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * An achievement as returned by the GW2 API, for example from '{@code /v2/achievements?ids=1,2}'.
+ * Properties which the SDK does not model (such as rewards and bits) are ignored.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class AchievementDto {
+
+    private long id;
+
+    private String icon;
+
+    private String name;
+
+    private String description;
+
+    private String requirement;
+
+    @JsonProperty("locked_text")
+    private String lockedText;
+
+    private String type;
+
+    private List<String> flags;
+
+    private List<AchievementTierDto> tiers;
+
+    private List<Long> prerequisites;
+
+    @JsonProperty("point_cap")
+    private Integer pointCap;
+}
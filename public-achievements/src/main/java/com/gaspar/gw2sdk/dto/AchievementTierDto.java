@@ -0,0 +1,21 @@
+package com.gaspar.gw2sdk.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One tier of an {@link AchievementDto}: how much progress is needed to complete it, and how many
+ * achievement points it gives.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class AchievementTierDto {
+
+    private int count;
+
+    private int points;
+}
@@ -0,0 +1,423 @@
+package com.gaspar.gw2sdk.snapshot;
+
+import com.gaspar.gw2sdk.SdkException;
+import com.gaspar.gw2sdk.collections.LongIdSet;
+import com.gaspar.gw2sdk.dto.AchievementDto;
+import com.gaspar.gw2sdk.dto.AchievementTierDto;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nonnull;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * Read-only snapshot of the achievements catalog, stored in a compact binary file. A snapshot can be made once with
+ * {@link #write(Collection, Path)} (or {@link com.gaspar.gw2sdk.Gw2PublicAchievementsApi#downloadSnapshot(Path)}), and
+ * then loaded by any amount of applications with {@link #open(Path)}, without fetching the catalog from the API.
+ * <p>
+ * The file is memory-mapped when it's opened, and only the requested achievements are decoded from it:
+ * <ul>
+ *     <li>The layout is columnar: every property of the achievements is stored in its own section, in the order
+ *     of the IDs. The section of the IDs is sorted, so it's also the index used to find an achievement.</li>
+ *     <li>Strings are stored only once: most achievements share their icon, type and flags.</li>
+ *     <li>The file starts with a magic number and a format version. Files of other versions are rejected.</li>
+ * </ul>
+ * Snapshots are immutable and thread safe.
+ * <pre>{@code
+ * var snapshot = AchievementsSnapshot.open(Path.of("achievements.snapshot"));
+ * Optional<AchievementDto> achievement = snapshot.get(1840L);
+ * }</pre>
+ */
+@Slf4j
+public final class AchievementsSnapshot {
+
+    private static final int MAGIC = 0x47573241; //'GW2A'
+
+    /**
+     * Version of the file format. Must be increased whenever the layout changes.
+     */
+    public static final int FORMAT_VERSION = 1;
+
+    //marks a missing string or point cap
+    private static final int NULL_VALUE = -1;
+
+    //bits of the presence section: lists which are null and not just empty
+    private static final byte HAS_FLAGS = 1;
+    private static final byte HAS_TIERS = 1 << 1;
+    private static final byte HAS_PREREQUISITES = 1 << 2;
+
+    /**
+     * Sections of the file, in the order they are written. The header has the offset of each section.
+     */
+    private enum Section {
+        IDS,
+        ICONS,
+        NAMES,
+        DESCRIPTIONS,
+        REQUIREMENTS,
+        LOCKED_TEXTS,
+        TYPES,
+        POINT_CAPS,
+        PRESENCE,
+        FLAG_STARTS,
+        FLAGS,
+        TIER_STARTS,
+        TIER_COUNTS,
+        TIER_POINTS,
+        PREREQUISITE_STARTS,
+        PREREQUISITES,
+        STRING_STARTS,
+        STRING_BYTES
+    }
+
+    private static final Section[] SECTIONS = Section.values();
+
+    //magic, version, achievement count, string count, then the section offsets
+    private static final int HEADER_BYTES = 4 * Integer.BYTES + SECTIONS.length * Integer.BYTES;
+
+    /**
+     * Amount of achievements in the snapshot.
+     */
+    @Getter
+    private final int size;
+
+    private final ByteBuffer buffer;
+
+    private final int[] sectionOffsets;
+
+    private AchievementsSnapshot(ByteBuffer buffer) {
+        this.buffer = buffer;
+        if(buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new SdkException("Not an achievements snapshot");
+        }
+        int version = buffer.getInt(4);
+        if(version != FORMAT_VERSION) {
+            throw new SdkException("Unsupported achievements snapshot version " + version + ", expected " + FORMAT_VERSION);
+        }
+        this.size = buffer.getInt(8);
+        this.sectionOffsets = new int[SECTIONS.length];
+        for(int i = 0; i < SECTIONS.length; i++) {
+            sectionOffsets[i] = buffer.getInt(4 * Integer.BYTES + i * Integer.BYTES);
+        }
+    }
+
+    /**
+     * Load a snapshot by memory-mapping its file. This is fast regardless of the size of the catalog, because
+     * nothing is decoded until the achievements are requested.
+     * @param path The snapshot file made by {@link #write(Collection, Path)}.
+     * @throws IOException If the file can't be read.
+     * @throws SdkException If the file is not a snapshot, or it's a snapshot of a different {@link #FORMAT_VERSION}.
+     */
+    public static AchievementsSnapshot open(@Nonnull Path path) throws IOException {
+        try(var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            //the mapping stays valid after the channel is closed
+            var snapshot = new AchievementsSnapshot(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+            log.debug("Opened achievements snapshot '{}' with {} achievements", path, snapshot.size);
+            return snapshot;
+        }
+    }
+
+    /**
+     * Write the achievements into a snapshot file. The file is replaced atomically, so applications which opened
+     * the previous snapshot can keep using it.
+     * @param achievements The achievements, in any order. If an ID is present more than once, the last one is kept.
+     * @param path The snapshot file, which is created or replaced.
+     * @throws IOException If the file can't be written.
+     */
+    public static void write(@Nonnull Collection<AchievementDto> achievements, @Nonnull Path path) throws IOException {
+        Map<Long, AchievementDto> byId = new TreeMap<>();
+        achievements.forEach(achievement -> byId.put(achievement.getId(), achievement));
+        byte[] bytes = encode(new ArrayList<>(byId.values()));
+
+        Path temporaryPath = path.resolveSibling(path.getFileName() + ".tmp");
+        Files.write(temporaryPath, bytes);
+        Files.move(temporaryPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        log.debug("Wrote achievements snapshot '{}' with {} achievements in {} bytes", path, byId.size(), bytes.length);
+    }
+
+    /**
+     * Get the IDs of all achievements in the snapshot.
+     */
+    public LongIdSet ids() {
+        long[] ids = new long[size];
+        for(int i = 0; i < size; i++) {
+            ids[i] = idAt(i);
+        }
+        return LongIdSet.of(ids);
+    }
+
+    /**
+     * Check if the snapshot has an achievement.
+     */
+    public boolean contains(long id) {
+        return indexOf(id) >= 0;
+    }
+
+    /**
+     * Get an achievement, decoding only this achievement from the snapshot.
+     * @return The achievement, or empty optional if it's not in the snapshot.
+     */
+    public Optional<AchievementDto> get(long id) {
+        int index = indexOf(id);
+        return index >= 0 ? Optional.of(decode(index)) : Optional.empty();
+    }
+
+    /**
+     * Get the achievements with the given IDs. IDs that are not in the snapshot are skipped.
+     * @return The achievements, ordered by their IDs.
+     */
+    public List<AchievementDto> get(@Nonnull LongIdSet ids) {
+        List<AchievementDto> achievements = new ArrayList<>(ids.size());
+        ids.forEachId(id -> get(id).ifPresent(achievements::add));
+        return achievements;
+    }
+
+    /**
+     * Decode all achievements of the snapshot.
+     * @return The achievements, ordered by their IDs.
+     */
+    public List<AchievementDto> getAll() {
+        List<AchievementDto> achievements = new ArrayList<>(size);
+        for(int i = 0; i < size; i++) {
+            achievements.add(decode(i));
+        }
+        return achievements;
+    }
+
+    private int indexOf(long id) {
+        int low = 0;
+        int high = size - 1;
+        while(low <= high) {
+            int middle = (low + high) >>> 1;
+            long middleId = idAt(middle);
+            if(middleId < id) {
+                low = middle + 1;
+            } else if(middleId > id) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    private long idAt(int index) {
+        return buffer.getLong(offsetOf(Section.IDS) + index * Long.BYTES);
+    }
+
+    private AchievementDto decode(int index) {
+        byte presence = buffer.get(offsetOf(Section.PRESENCE) + index);
+        var achievement = new AchievementDto();
+        achievement.setId(idAt(index));
+        achievement.setIcon(stringAt(Section.ICONS, index));
+        achievement.setName(stringAt(Section.NAMES, index));
+        achievement.setDescription(stringAt(Section.DESCRIPTIONS, index));
+        achievement.setRequirement(stringAt(Section.REQUIREMENTS, index));
+        achievement.setLockedText(stringAt(Section.LOCKED_TEXTS, index));
+        achievement.setType(stringAt(Section.TYPES, index));
+        int pointCap = intAt(Section.POINT_CAPS, index);
+        achievement.setPointCap(pointCap == NULL_VALUE ? null : pointCap);
+
+        if((presence & HAS_FLAGS) != 0) {
+            int start = intAt(Section.FLAG_STARTS, index);
+            int end = intAt(Section.FLAG_STARTS, index + 1);
+            List<String> flags = new ArrayList<>(end - start);
+            for(int i = start; i < end; i++) {
+                flags.add(string(intAt(Section.FLAGS, i)));
+            }
+            achievement.setFlags(flags);
+        }
+        if((presence & HAS_TIERS) != 0) {
+            int start = intAt(Section.TIER_STARTS, index);
+            int end = intAt(Section.TIER_STARTS, index + 1);
+            List<AchievementTierDto> tiers = new ArrayList<>(end - start);
+            for(int i = start; i < end; i++) {
+                tiers.add(new AchievementTierDto(intAt(Section.TIER_COUNTS, i), intAt(Section.TIER_POINTS, i)));
+            }
+            achievement.setTiers(tiers);
+        }
+        if((presence & HAS_PREREQUISITES) != 0) {
+            int start = intAt(Section.PREREQUISITE_STARTS, index);
+            int end = intAt(Section.PREREQUISITE_STARTS, index + 1);
+            List<Long> prerequisites = new ArrayList<>(end - start);
+            for(int i = start; i < end; i++) {
+                prerequisites.add(buffer.getLong(offsetOf(Section.PREREQUISITES) + i * Long.BYTES));
+            }
+            achievement.setPrerequisites(prerequisites);
+        }
+        return achievement;
+    }
+
+    private int intAt(Section section, int index) {
+        return buffer.getInt(offsetOf(section) + index * Integer.BYTES);
+    }
+
+    private String stringAt(Section section, int index) {
+        int stringIndex = intAt(section, index);
+        return stringIndex == NULL_VALUE ? null : string(stringIndex);
+    }
+
+    private String string(int stringIndex) {
+        int start = intAt(Section.STRING_STARTS, stringIndex);
+        int end = intAt(Section.STRING_STARTS, stringIndex + 1);
+        byte[] bytes = new byte[end - start];
+        buffer.get(offsetOf(Section.STRING_BYTES) + start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private int offsetOf(Section section) {
+        return sectionOffsets[section.ordinal()];
+    }
+
+    private static byte[] encode(List<AchievementDto> achievements) throws IOException {
+        var strings = new StringTable();
+        var bytes = new ByteArrayOutputStream();
+        var output = new DataOutputStream(bytes);
+        output.write(new byte[HEADER_BYTES]); //filled in at the end
+        int[] sectionOffsets = new int[SECTIONS.length];
+
+        sectionOffsets[Section.IDS.ordinal()] = output.size();
+        for(var achievement : achievements) {
+            output.writeLong(achievement.getId());
+        }
+        writeStrings(output, sectionOffsets, Section.ICONS, achievements, AchievementDto::getIcon, strings);
+        writeStrings(output, sectionOffsets, Section.NAMES, achievements, AchievementDto::getName, strings);
+        writeStrings(output, sectionOffsets, Section.DESCRIPTIONS, achievements, AchievementDto::getDescription, strings);
+        writeStrings(output, sectionOffsets, Section.REQUIREMENTS, achievements, AchievementDto::getRequirement, strings);
+        writeStrings(output, sectionOffsets, Section.LOCKED_TEXTS, achievements, AchievementDto::getLockedText, strings);
+        writeStrings(output, sectionOffsets, Section.TYPES, achievements, AchievementDto::getType, strings);
+
+        sectionOffsets[Section.POINT_CAPS.ordinal()] = output.size();
+        for(var achievement : achievements) {
+            output.writeInt(achievement.getPointCap() == null ? NULL_VALUE : achievement.getPointCap());
+        }
+
+        sectionOffsets[Section.PRESENCE.ordinal()] = output.size();
+        for(var achievement : achievements) {
+            int presence = (achievement.getFlags() != null ? HAS_FLAGS : 0)
+                    | (achievement.getTiers() != null ? HAS_TIERS : 0)
+                    | (achievement.getPrerequisites() != null ? HAS_PREREQUISITES : 0);
+            output.writeByte(presence);
+        }
+
+        sectionOffsets[Section.FLAG_STARTS.ordinal()] = output.size();
+        writeStarts(output, achievements, AchievementDto::getFlags);
+        sectionOffsets[Section.FLAGS.ordinal()] = output.size();
+        for(var achievement : achievements) {
+            for(String flag : listOrEmpty(achievement.getFlags())) {
+                output.writeInt(strings.indexOf(flag));
+            }
+        }
+
+        sectionOffsets[Section.TIER_STARTS.ordinal()] = output.size();
+        writeStarts(output, achievements, AchievementDto::getTiers);
+        sectionOffsets[Section.TIER_COUNTS.ordinal()] = output.size();
+        for(var achievement : achievements) {
+            for(var tier : listOrEmpty(achievement.getTiers())) {
+                output.writeInt(tier.getCount());
+            }
+        }
+        sectionOffsets[Section.TIER_POINTS.ordinal()] = output.size();
+        for(var achievement : achievements) {
+            for(var tier : listOrEmpty(achievement.getTiers())) {
+                output.writeInt(tier.getPoints());
+            }
+        }
+
+        sectionOffsets[Section.PREREQUISITE_STARTS.ordinal()] = output.size();
+        writeStarts(output, achievements, AchievementDto::getPrerequisites);
+        sectionOffsets[Section.PREREQUISITES.ordinal()] = output.size();
+        for(var achievement : achievements) {
+            for(long prerequisite : listOrEmpty(achievement.getPrerequisites())) {
+                output.writeLong(prerequisite);
+            }
+        }
+
+        sectionOffsets[Section.STRING_STARTS.ordinal()] = output.size();
+        int stringStart = 0;
+        output.writeInt(stringStart);
+        for(byte[] string : strings.encodedStrings) {
+            stringStart += string.length;
+            output.writeInt(stringStart);
+        }
+        sectionOffsets[Section.STRING_BYTES.ordinal()] = output.size();
+        for(byte[] string : strings.encodedStrings) {
+            output.write(string);
+        }
+
+        output.flush();
+        var header = ByteBuffer.wrap(bytes.toByteArray());
+        header.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(achievements.size()).putInt(strings.encodedStrings.size());
+        for(int sectionOffset : sectionOffsets) {
+            header.putInt(sectionOffset);
+        }
+        return header.array();
+    }
+
+    private static void writeStrings(
+            DataOutputStream output,
+            int[] sectionOffsets,
+            Section section,
+            List<AchievementDto> achievements,
+            Function<AchievementDto, String> property,
+            StringTable strings
+    ) throws IOException {
+        sectionOffsets[section.ordinal()] = output.size();
+        for(var achievement : achievements) {
+            String value = property.apply(achievement);
+            output.writeInt(value == null ? NULL_VALUE : strings.indexOf(value));
+        }
+    }
+
+    //writes where the list of each achievement starts, and where the last one ends
+    private static void writeStarts(
+            DataOutputStream output,
+            List<AchievementDto> achievements,
+            Function<AchievementDto, List<?>> list
+    ) throws IOException {
+        int start = 0;
+        output.writeInt(start);
+        for(var achievement : achievements) {
+            start += listOrEmpty(list.apply(achievement)).size();
+            output.writeInt(start);
+        }
+    }
+
+    private static <T> List<T> listOrEmpty(List<T> list) {
+        return list != null ? list : List.of();
+    }
+
+    /**
+     * Strings of the snapshot, each stored only once.
+     */
+    private static class StringTable {
+
+        private final Map<String, Integer> indices = new HashMap<>();
+
+        private final List<byte[]> encodedStrings = new ArrayList<>();
+
+        private int indexOf(String string) {
+            return indices.computeIfAbsent(string, s -> {
+                encodedStrings.add(s.getBytes(StandardCharsets.UTF_8));
+                return encodedStrings.size() - 1;
+            });
+        }
+    }
+}
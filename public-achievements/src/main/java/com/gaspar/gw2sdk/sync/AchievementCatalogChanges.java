@@ -0,0 +1,26 @@
+package com.gaspar.gw2sdk.sync;
+
+import com.gaspar.gw2sdk.collections.LongIdSet;
+import com.gaspar.gw2sdk.dto.AchievementDto;
+
+import java.util.List;
+
+/**
+ * Changes of the achievements catalog found by one {@link AchievementCatalogSync#sync()}.
+ * @param added Achievements that were not in the catalog before.
+ * @param updated Achievements that were already in the catalog, but changed since they were fetched.
+ * @param removedIds IDs of the achievements that are no longer in the catalog.
+ */
+public record AchievementCatalogChanges(
+        List<AchievementDto> added,
+        List<AchievementDto> updated,
+        LongIdSet removedIds
+) {
+
+    /**
+     * Check if the catalog did not change at all.
+     */
+    public boolean isEmpty() {
+        return added.isEmpty() && updated.isEmpty() && removedIds.isEmpty();
+    }
+}
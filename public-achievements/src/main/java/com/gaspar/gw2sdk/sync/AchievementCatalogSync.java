@@ -0,0 +1,235 @@
+package com.gaspar.gw2sdk.sync;
+
+import com.gaspar.gw2sdk.ApiPromise;
+import com.gaspar.gw2sdk.ApiResponse;
+import com.gaspar.gw2sdk.Gw2PublicAchievementsApi;
+import com.gaspar.gw2sdk.InvalidParamException;
+import com.gaspar.gw2sdk.collections.LongIdSet;
+import com.gaspar.gw2sdk.dto.AchievementDto;
+import com.gaspar.gw2sdk.http.Gw2HttpClient;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.LongStream;
+
+/**
+ * Keeps a local copy of the achievements catalog up to date, without fetching the whole catalog every time.
+ * Every {@link #sync()} does the following:
+ * <ol>
+ *     <li>Fetches the current list of IDs with {@link Gw2PublicAchievementsApi#getAchievementIds()}, and compares
+ *     it with the IDs of the local catalog.</li>
+ *     <li>Fetches only the achievements that were added, and drops the ones that were removed.</li>
+ *     <li>After that, re-fetches the next batch of the existing achievements (see {@link #getRevalidationBatchSize()}),
+ *     to find the ones which changed. The batches go around the catalog, so every achievement is revalidated
+ *     once in a while, but a sync only costs a few requests.</li>
+ * </ol>
+ * The changes are reported to the listeners, see {@link #addListener(Consumer)}. The local catalog can be started
+ * from a snapshot, so that it does not need to be downloaded at all:
+ * <pre>{@code
+ * var sync = AchievementCatalogSync.builder()
+ *         .gw2HttpClient(gw2HttpClient)
+ *         .initialAchievements(AchievementsSnapshot.open(snapshotPath).getAll())
+ *         .build();
+ * sync.addListener(changes -> log.info("Added '{}' achievements", changes.added().size()));
+ * sync.sync();
+ * }</pre>
+ * This class is thread safe. If the catalog does not change in case of an error, a later sync will try again.
+ */
+@Slf4j
+public class AchievementCatalogSync {
+
+    private final Gw2PublicAchievementsApi achievementsApi;
+
+    /**
+     * How many existing achievements are re-fetched by one sync, to find changed achievements.
+     */
+    @Getter
+    private final int revalidationBatchSize;
+
+    private final List<Consumer<AchievementCatalogChanges>> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * The local catalog, which is replaced as a whole after every sync.
+     */
+    private volatile Catalog catalog;
+
+    //the revalidation continues after this ID in the next sync
+    private volatile long revalidationCursor = Long.MIN_VALUE;
+
+    //guards the sync in progress, a lock instead of a monitor so that virtual threads are not pinned
+    private final ReentrantLock syncLock = new ReentrantLock();
+
+    @Nullable
+    private ApiPromise<AchievementCatalogChanges> syncInProgress;
+
+    @Builder
+    private AchievementCatalogSync(
+            Gw2HttpClient gw2HttpClient,
+            Collection<AchievementDto> initialAchievements,
+            Integer revalidationBatchSize
+    ) {
+        this.achievementsApi = Gw2PublicAchievementsApi.builder()
+                .gw2HttpClient(gw2HttpClient)
+                .build();
+        this.revalidationBatchSize = validateRevalidationBatchSize(withDefaultValue(revalidationBatchSize, 200));
+        Map<Long, AchievementDto> achievements = new HashMap<>();
+        withDefaultValue(initialAchievements, List.<AchievementDto>of())
+                .forEach(achievement -> achievements.put(achievement.getId(), achievement));
+        this.catalog = new Catalog(achievements);
+    }
+
+    /**
+     * Bring the local catalog up to date with the API. If a sync is already in progress, its promise is returned
+     * instead of starting a new one.
+     * @return Promise of the changes, which were already applied to the local catalog when the promise completes.
+     * It's an error or has no answer if any of the requests failed: in this case, the local catalog is not changed.
+     */
+    public ApiPromise<AchievementCatalogChanges> sync() {
+        syncLock.lock();
+        try {
+            if(syncInProgress == null || syncInProgress.isDone()) {
+                syncInProgress = achievementsApi.getAchievementIds().flatMap(this::syncWith);
+            }
+            return syncInProgress;
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    /**
+     * Register a listener, which receives the changes after every sync (even if there were no changes).
+     * Listeners are called on the callback executor of the {@link Gw2HttpClient}.
+     */
+    public void addListener(@Nonnull Consumer<AchievementCatalogChanges> listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(@Nonnull Consumer<AchievementCatalogChanges> listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Get an achievement from the local catalog.
+     */
+    public Optional<AchievementDto> getAchievement(long id) {
+        return Optional.ofNullable(catalog.achievements().get(id));
+    }
+
+    /**
+     * Get all achievements of the local catalog. The returned collection does not change with later syncs.
+     */
+    public Collection<AchievementDto> getAchievements() {
+        return catalog.achievements().values();
+    }
+
+    /**
+     * Get the IDs of the achievements in the local catalog.
+     */
+    public LongIdSet getIds() {
+        return catalog.ids();
+    }
+
+    private ApiPromise<AchievementCatalogChanges> syncWith(LongIdSet currentIds) {
+        Catalog knownCatalog = catalog;
+        LongIdSet addedIds = currentIds.difference(knownCatalog.ids());
+        LongIdSet removedIds = knownCatalog.ids().difference(currentIds);
+        long[] revalidationBatch = nextRevalidationBatch(currentIds.intersection(knownCatalog.ids()));
+        LongIdSet revalidatedIds = LongIdSet.of(revalidationBatch);
+        log.debug("Syncing achievements: '{}' added, '{}' removed, revalidating '{}'", addedIds.size(), removedIds.size(), revalidatedIds.size());
+
+        //revalidation is only started after the added achievements arrived, so it never competes with them
+        return fetch(addedIds).flatMap(added -> fetch(revalidatedIds).map(revalidated -> {
+            AchievementCatalogChanges changes = apply(knownCatalog, added, revalidated, removedIds);
+            if(revalidationBatch.length > 0) {
+                revalidationCursor = revalidationBatch[revalidationBatch.length - 1];
+            }
+            notifyListeners(changes);
+            return changes;
+        }));
+    }
+
+    private ApiPromise<List<AchievementDto>> fetch(LongIdSet ids) {
+        if(ids.isEmpty()) {
+            return ApiPromise.completed(ApiResponse.success(List.of()));
+        }
+        return achievementsApi.getAchievements(ids);
+    }
+
+    /**
+     * Get the next existing IDs to revalidate, continuing after the {@link #revalidationCursor}, and starting over
+     * from the lowest ID when the end is reached. The last ID of the returned array is where the batch ended.
+     */
+    private long[] nextRevalidationBatch(LongIdSet existingIds) {
+        long cursor = revalidationCursor;
+        return LongStream.concat(
+                        existingIds.stream().filter(id -> id > cursor),
+                        existingIds.stream().filter(id -> id <= cursor))
+                .limit(revalidationBatchSize)
+                .toArray();
+    }
+
+    private AchievementCatalogChanges apply(
+            Catalog knownCatalog,
+            List<AchievementDto> added,
+            List<AchievementDto> revalidated,
+            LongIdSet removedIds
+    ) {
+        Map<Long, AchievementDto> achievements = new HashMap<>(knownCatalog.achievements());
+        removedIds.forEachId(achievements::remove);
+        added.forEach(achievement -> achievements.put(achievement.getId(), achievement));
+
+        List<AchievementDto> updated = new ArrayList<>();
+        for(AchievementDto achievement : revalidated) {
+            AchievementDto previous = achievements.put(achievement.getId(), achievement);
+            if(!achievement.equals(previous)) {
+                updated.add(achievement);
+            }
+        }
+        catalog = new Catalog(achievements);
+        return new AchievementCatalogChanges(List.copyOf(added), List.copyOf(updated), removedIds);
+    }
+
+    private void notifyListeners(AchievementCatalogChanges changes) {
+        for(var listener : listeners) {
+            try {
+                listener.accept(changes);
+            } catch (RuntimeException e) {
+                log.error("Achievement catalog listener failed", e);
+            }
+        }
+    }
+
+    private static int validateRevalidationBatchSize(int revalidationBatchSize) {
+        if(revalidationBatchSize <= 0) {
+            throw new InvalidParamException("revalidationBatchSize", revalidationBatchSize, List.of("Must be positive"));
+        }
+        return revalidationBatchSize;
+    }
+
+    private static <T> T withDefaultValue(@Nullable T value, @Nonnull T defaultValue) {
+        return value != null ? value : defaultValue;
+    }
+
+    private record Catalog(
+            Map<Long, AchievementDto> achievements,
+            LongIdSet ids
+    ) {
+
+        private Catalog(Map<Long, AchievementDto> achievements) {
+            this(Collections.unmodifiableMap(achievements), LongIdSet.of(achievements.keySet().stream().mapToLong(Long::longValue).toArray()));
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.gaspar.gw2sdk;
+
+import com.gaspar.gw2sdk.collections.LongIdSet;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BlockingGw2PublicAchievementsApiTest extends ApiBaseTest {
+
+    @Test
+    public void shouldGetList() throws Exception {
+        setMockResponse(List.of(11L, 22L, 33L));
+        var achievementsApi = BlockingGw2PublicAchievementsApi.builder()
+                .gw2HttpClient(gw2HttpClient)
+                .build();
+
+        var response = achievementsApi.getAchievementIds();
+
+        assertTrue(response.isSuccessful());
+        assertEquals(LongIdSet.of(11L, 22L, 33L), response.data().orElseThrow(AssertionError::new));
+    }
+
+    @Test
+    public void shouldNotGetListInCaseOfError() throws Exception {
+        setMockErrorResponse("Internal server error", 500);
+        var achievementsApi = BlockingGw2PublicAchievementsApi.builder()
+                .gw2HttpClient(gw2HttpClient)
+                .build();
+
+        var response = achievementsApi.getAchievementIds();
+
+        assertTrue(response.isApiError());
+        assertEquals(500, response.errorData().orElseThrow(AssertionError::new).statusCode());
+    }
+
+    @Test
+    public void shouldHaveNoAnswerIfAwaitTimesOut() throws Exception {
+        setMockResponse(List.of(11L, 22L, 33L));
+        var achievementsApi = BlockingGw2PublicAchievementsApi.builder()
+                .gw2HttpClient(gw2HttpClient)
+                .awaitTimeout(Duration.ofMillis(10L)) //mock client responds in 100 milliseconds
+                .build();
+
+        var response = achievementsApi.getAchievementIds();
+
+        assertTrue(response.isNoAnswer());
+    }
+
+    @Test
+    public void shouldStopWaitingIfInterrupted() throws Exception {
+        setMockResponse(List.of(11L, 22L, 33L));
+        var achievementsApi = BlockingGw2PublicAchievementsApi.builder()
+                .gw2HttpClient(gw2HttpClient)
+                .build();
+
+        Thread.currentThread().interrupt();
+        try {
+            assertThrows(InterruptedException.class, achievementsApi::getAchievementIds);
+        } finally {
+            Thread.interrupted();
+        }
+    }
+
+    @Test
+    public void shouldNotAllowNonPositiveAwaitTimeout() {
+        var builder = BlockingGw2PublicAchievementsApi.builder()
+                .gw2HttpClient(gw2HttpClient)
+                .awaitTimeout(Duration.ZERO);
+
+        assertThrows(InvalidParamException.class, builder::build);
+    }
+}
@@ -1,11 +1,35 @@
 package com.gaspar.gw2sdk;
 
+import com.gaspar.gw2sdk.collections.LongIdSet;
+import com.gaspar.gw2sdk.dto.AchievementDto;
+import com.gaspar.gw2sdk.dto.AchievementTierDto;
+import com.gaspar.gw2sdk.metrics.ApiOperationTag;
+import com.gaspar.gw2sdk.metrics.HistogramSdkMetrics;
+import com.gaspar.gw2sdk.snapshot.AchievementsSnapshot;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @Slf4j
 class Gw2PublicAchievementsApiTest extends ApiBaseTest {
@@ -27,7 +51,8 @@ class Gw2PublicAchievementsApiTest extends ApiBaseTest {
                 .onError(errorData -> log.error("GW2 API error: {}", errorData))
                 .onNoAnswer(() -> log.error("GW2 API failed to answer")))
                 .waitForCompletion()
-                .assertSuccessful();
+                .assertSuccessful()
+                .assertOnData(ids -> ids.equals(LongIdSet.of(11L, 22L, 33L)));
     }
 
     @Test
@@ -41,4 +66,144 @@ class Gw2PublicAchievementsApiTest extends ApiBaseTest {
                 .assertApiError(500);
     }
 
-}
\ No newline at end of file
+    @Test
+    public void shouldGetAchievementsInPages() throws Exception {
+        setMockResponse(List.of(createAchievement(1L), createAchievement(2L)));
+        var ids = LongStream.rangeClosed(1, 450).boxed().collect(Collectors.toList());
+        PromiseTester.of(achievementsApi.getAchievements(ids)
+                .onSuccess(achievements -> log.info("Got '{}' achievements!", achievements.size()))
+                .onError(errorData -> log.error("GW2 API error: {}", errorData))
+                .onNoAnswer(() -> log.error("GW2 API failed to answer")))
+                .waitForCompletion()
+                .assertSuccessful()
+                .assertOnData(achievements -> achievements.size() == 6); //3 pages, each returning the mock list
+        assertEquals(3, getMockRequestCount());
+    }
+
+    @Test
+    public void shouldNotGetAchievementsInCaseOfError() throws Exception {
+        setMockErrorResponse("Internal server error", 500);
+        PromiseTester.of(achievementsApi.getAchievements(List.of(1L, 2L, 3L)))
+                .waitForCompletion()
+                .assertApiError(500);
+    }
+
+    @Test
+    public void shouldGetAchievementsByIdSet() throws Exception {
+        setMockResponse(List.of(createAchievement(1L), createAchievement(2L)));
+        PromiseTester.of(achievementsApi.getAchievements(LongIdSet.of(1L, 2L)))
+                .waitForCompletion()
+                .assertSuccessful()
+                .assertOnData(achievements -> achievements.size() == 2);
+        assertEquals(1, getMockRequestCount());
+    }
+
+    @Test
+    public void shouldRecordMetricsOfOperation() throws Exception {
+        var metrics = new HistogramSdkMetrics();
+        gw2HttpClient.setMetrics(metrics);
+        setMockResponse(List.of(createAchievement(1L)));
+
+        PromiseTester.of(achievementsApi.getAchievements(List.of(1L)).onSuccess(achievements -> {}))
+                .waitForCompletion()
+                .assertSuccessful();
+
+        var stats = metrics.getOperationStats().get(new ApiOperationTag("/v2/achievements", "/v2/achievements"));
+        assertEquals(1, stats.getRequestCount());
+        assertEquals(1, stats.getDeserializationTime().getCount());
+    }
+
+    @Test
+    public void shouldDownloadSnapshot(@TempDir Path tempDir) throws Exception {
+        setMockResponse(List.of(1L, 2L));
+        setMockResponseWhen(request -> request.url().getQuery() != null, List.of(createAchievement(1L), createAchievement(2L)));
+        var path = tempDir.resolve("achievements.snapshot");
+
+        PromiseTester.of(achievementsApi.downloadSnapshot(path).onSuccess(snapshot -> {}))
+                .waitForCompletion()
+                .assertSuccessful()
+                .assertOnData(snapshot -> snapshot.ids().equals(LongIdSet.of(1L, 2L)));
+
+        assertEquals(Optional.of(createAchievement(2L)), AchievementsSnapshot.open(path).get(2L));
+    }
+
+    @Test
+    public void shouldWriteSnapshotOnGivenExecutor(@TempDir Path tempDir) throws Exception {
+        setMockResponse(List.of(1L, 2L));
+        setMockResponseWhen(request -> request.url().getQuery() != null, List.of(createAchievement(1L), createAchievement(2L)));
+        var ioExecutor = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "snapshot-io"));
+        var writerThread = new AtomicReference<String>();
+        try {
+            Executor recordingExecutor = task -> ioExecutor.execute(() -> {
+                writerThread.set(Thread.currentThread().getName());
+                task.run();
+            });
+
+            var failed = achievementsApi.downloadSnapshot(tempDir, recordingExecutor); //a directory can't be written
+
+            var exception = assertThrows(CompletionException.class, failed::join);
+            assertTrue(exception.getCause() instanceof SdkException);
+            assertEquals("snapshot-io", writerThread.get());
+        } finally {
+            ioExecutor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void shouldBatchSingleAchievementLookups() throws Exception {
+        setMockResponse(List.of(createAchievement(1L), createAchievement(2L)));
+        //a window long enough for all lookups to get into the same batch, even on a slow machine
+        var batchingApi = Gw2PublicAchievementsApi.builder()
+                .gw2HttpClient(gw2HttpClient)
+                .batchWindow(Duration.ofMillis(500L))
+                .build();
+
+        var first = batchingApi.getAchievement(1L);
+        var second = batchingApi.getAchievement(2L);
+        var missing = batchingApi.getAchievement(3L);
+
+        PromiseTester.of(first).waitForCompletion().assertSuccessful().assertOnData(achievement -> achievement.getId() == 1L);
+        PromiseTester.of(second).waitForCompletion().assertSuccessful().assertOnData(achievement -> achievement.getId() == 2L);
+        PromiseTester.of(missing).waitForCompletion().assertApiError(404);
+        assertEquals(1, getMockRequestCount());
+    }
+
+    @Test
+    public void shouldStreamAchievementsById() throws Exception {
+        setMockResponse(List.of(createAchievement(1L), createAchievement(2L)));
+        var received = new CopyOnWriteArrayList<AchievementDto>();
+        var completion = new CompletableFuture<Void>();
+
+        achievementsApi.streamAchievements(LongIdSet.of(1L, 2L)).subscribe(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(AchievementDto achievement) {
+                received.add(achievement);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                completion.completeExceptionally(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                completion.complete(null);
+            }
+        });
+
+        completion.get(5, TimeUnit.SECONDS);
+        assertEquals(List.of(createAchievement(1L), createAchievement(2L)), received);
+        assertEquals(1, getMockRequestCount());
+    }
+
+    private AchievementDto createAchievement(long id) {
+        return new AchievementDto(id, "icon", "Achievement " + id, "description", "requirement",
+                "locked", "Default", List.of("Pvp"), List.of(new AchievementTierDto(1, 10)), List.of(), null);
+    }
+
+}
@@ -0,0 +1,93 @@
+package com.gaspar.gw2sdk.snapshot;
+
+import com.gaspar.gw2sdk.SdkException;
+import com.gaspar.gw2sdk.collections.LongIdSet;
+import com.gaspar.gw2sdk.dto.AchievementDto;
+import com.gaspar.gw2sdk.dto.AchievementTierDto;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AchievementsSnapshotTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void shouldGetAchievementsById() throws IOException {
+        var first = createAchievement(1L);
+        var second = new AchievementDto(7L, null, "Achievement 7", "", "requirement", null, "ItemSet",
+                List.of(), List.of(new AchievementTierDto(1, 5), new AchievementTierDto(10, 15)), null, 100);
+        var path = tempDir.resolve("achievements.snapshot");
+
+        AchievementsSnapshot.write(List.of(second, first), path);
+        var snapshot = AchievementsSnapshot.open(path);
+
+        assertEquals(2, snapshot.getSize());
+        assertEquals(LongIdSet.of(1L, 7L), snapshot.ids());
+        assertEquals(Optional.of(first), snapshot.get(1L));
+        assertEquals(Optional.of(second), snapshot.get(7L));
+        assertTrue(snapshot.get(5L).isEmpty());
+        assertEquals(List.of(first, second), snapshot.getAll());
+        assertEquals(List.of(second), snapshot.get(LongIdSet.of(5L, 7L)));
+    }
+
+    @Test
+    public void shouldKeepLastAchievementWithSameId() throws IOException {
+        var path = tempDir.resolve("achievements.snapshot");
+        var updated = createAchievement(1L);
+        updated.setName("Updated");
+
+        AchievementsSnapshot.write(List.of(createAchievement(1L), updated), path);
+
+        assertEquals(Optional.of("Updated"), AchievementsSnapshot.open(path).get(1L).map(AchievementDto::getName));
+    }
+
+    @Test
+    public void shouldStoreSharedStringsOnce() throws IOException {
+        List<AchievementDto> achievements = new ArrayList<>();
+        for(long id = 1; id <= 1000; id++) {
+            achievements.add(createAchievement(id));
+        }
+        var path = tempDir.resolve("achievements.snapshot");
+
+        AchievementsSnapshot.write(achievements, path);
+
+        //the shared icon alone would take more than 100KB if it was stored for every achievement
+        assertTrue(Files.size(path) < 100_000L);
+        assertEquals(Optional.of(createAchievement(500L)), AchievementsSnapshot.open(path).get(500L));
+    }
+
+    @Test
+    public void shouldWriteEmptySnapshot() throws IOException {
+        var path = tempDir.resolve("achievements.snapshot");
+
+        AchievementsSnapshot.write(List.of(), path);
+        var snapshot = AchievementsSnapshot.open(path);
+
+        assertEquals(0, snapshot.getSize());
+        assertTrue(snapshot.get(1L).isEmpty());
+    }
+
+    @Test
+    public void shouldRejectOtherFiles() throws IOException {
+        var path = tempDir.resolve("achievements.json");
+        Files.writeString(path, "[1,2,3]".repeat(100));
+
+        assertThrows(SdkException.class, () -> AchievementsSnapshot.open(path));
+    }
+
+    private AchievementDto createAchievement(long id) {
+        return new AchievementDto(id, "https://render.guildwars2.com/file/" + "0".repeat(100) + ".png", "Achievement " + id,
+                "description", "requirement", "locked", "Default", List.of("Pvp", "CategoryDisplay"),
+                List.of(new AchievementTierDto(1, 10)), List.of(id + 1), null);
+    }
+}
@@ -0,0 +1,85 @@
+package com.gaspar.gw2sdk.sync;
+
+import com.gaspar.gw2sdk.ApiBaseTest;
+import com.gaspar.gw2sdk.PromiseTester;
+import com.gaspar.gw2sdk.collections.LongIdSet;
+import com.gaspar.gw2sdk.dto.AchievementDto;
+import com.gaspar.gw2sdk.dto.AchievementTierDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AchievementCatalogSyncTest extends ApiBaseTest {
+
+    @Test
+    public void shouldFetchOnlyAddedAchievements() throws Exception {
+        var sync = AchievementCatalogSync.builder()
+                .gw2HttpClient(gw2HttpClient)
+                .initialAchievements(List.of(createAchievement(1L, "A"), createAchievement(2L, "B")))
+                .revalidationBatchSize(1)
+                .build();
+        List<AchievementCatalogChanges> reportedChanges = new CopyOnWriteArrayList<>();
+        sync.addListener(reportedChanges::add);
+        setMockResponse(List.of(2L, 3L));
+        setMockResponseWhen(request -> "ids=3".equals(request.url().getQuery()), List.of(createAchievement(3L, "C")));
+        setMockResponseWhen(request -> "ids=2".equals(request.url().getQuery()), List.of(createAchievement(2L, "B2")));
+
+        PromiseTester.of(sync.sync().onSuccess(changes -> {}))
+                .waitForCompletion()
+                .assertSuccessful()
+                .assertOnData(changes -> changes.added().equals(List.of(createAchievement(3L, "C")))
+                        && changes.updated().equals(List.of(createAchievement(2L, "B2")))
+                        && changes.removedIds().equals(LongIdSet.of(1L)));
+
+        assertEquals(3, getMockRequestCount()); //IDs, the added achievement and the revalidated one
+        assertEquals(LongIdSet.of(2L, 3L), sync.getIds());
+        assertEquals(Optional.of("B2"), sync.getAchievement(2L).map(AchievementDto::getName));
+        assertTrue(sync.getAchievement(1L).isEmpty());
+        assertEquals(1, reportedChanges.size());
+    }
+
+    @Test
+    public void shouldRevalidateExistingAchievementsInRotatingBatches() throws Exception {
+        var sync = AchievementCatalogSync.builder()
+                .gw2HttpClient(gw2HttpClient)
+                .initialAchievements(List.of(createAchievement(1L, "A"), createAchievement(2L, "B"), createAchievement(3L, "C")))
+                .revalidationBatchSize(2)
+                .build();
+        setMockResponse(List.of(1L, 2L, 3L));
+        setMockResponseWhen(request -> "ids=1,2".equals(request.url().getQuery()), List.of(createAchievement(1L, "A"), createAchievement(2L, "B")));
+        setMockResponseWhen(request -> "ids=1,3".equals(request.url().getQuery()), List.of(createAchievement(1L, "A"), createAchievement(3L, "C")));
+
+        PromiseTester.of(sync.sync().onSuccess(changes -> {}))
+                .waitForCompletion()
+                .assertOnData(AchievementCatalogChanges::isEmpty);
+        PromiseTester.of(sync.sync().onSuccess(changes -> {}))
+                .waitForCompletion()
+                .assertOnData(AchievementCatalogChanges::isEmpty);
+
+        assertEquals(4, getMockRequestCount()); //IDs and one batch in each sync
+    }
+
+    @Test
+    public void shouldNotChangeCatalogInCaseOfError() throws Exception {
+        var sync = AchievementCatalogSync.builder()
+                .gw2HttpClient(gw2HttpClient)
+                .initialAchievements(List.of(createAchievement(1L, "A")))
+                .build();
+        setMockErrorResponse("Internal server error", 500);
+
+        PromiseTester.of(sync.sync())
+                .waitForCompletion()
+                .assertApiError(500);
+
+        assertEquals(LongIdSet.of(1L), sync.getIds());
+    }
+
+    private AchievementDto createAchievement(long id, String name) {
+        return new AchievementDto(id, "icon", name, "description", "requirement",
+                "locked", "Default", List.of("Pvp"), List.of(new AchievementTierDto(1, 10)), List.of(), null);
+    }
+}
@@ -3,10 +3,13 @@ package com.gaspar.gw2sdk;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.gaspar.gw2sdk.dto.ErrorTextDto;
 import com.gaspar.gw2sdk.http.Gw2HttpClient;
+import com.gaspar.gw2sdk.http.HttpRequest;
 import com.gaspar.gw2sdk.http.Java11HttpClient;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.BeforeEach;
 
+import java.util.function.Predicate;
+
 /**
  * All classes unit testing API components should be subclasses from this one.
  * Provides mock setup for HTTP calls.
@@ -58,6 +61,33 @@ public class ApiBaseTest {
         }
     }
 
+    /**
+     * Set mock response to be returned by the calls matching the condition in current test. Other calls
+     * get the response set with {@link #setMockResponse(Object)}. This method is ignored if tests are
+     * running against real API.
+     */
+    protected <T> void setMockResponseWhen(Predicate<HttpRequest> condition, T t) throws Exception {
+        if(useRealApi()) {
+            log.debug("Ignoring mock response because running against real API!");
+            return;
+        }
+
+        String content = t.getClass().equals(String.class) ? t.toString() : mapper.writeValueAsString(t);
+        mockClient.setMockResponseWhen(condition, content, 200);
+    }
+
+    /**
+     * Get how many HTTP requests were made in the current test. Returns -1 if tests are running
+     * against the real API, because those requests are not recorded.
+     */
+    protected int getMockRequestCount() {
+        if(useRealApi()) {
+            log.debug("Request count is not available because running against real API!");
+            return -1;
+        }
+        return mockClient.getRequests().size();
+    }
+
     /**
      * Set a mock error response to be returned by all calls in current test. This method is
      * ignored if tests are running against real API.
@@ -7,14 +7,19 @@ import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
 
 /**
  * Client used in unit test which does not do real HTTP calls, but returns the
  * mocked data it was provided. Do not make mock HTTP calls before setting some mock data
  * with {@link #setMockResponse(String, int)}.
  *
- * This class is not thread safe!
+ * This class is not thread safe! The only exception is the recording of requests: {@link #getRequests()} can be
+ * used to inspect requests made from multiple threads.
  */
 @Slf4j
 public class MockUnderlyingHttpClient implements UnderlyingHttpClient<Void> {
@@ -26,11 +31,53 @@ public class MockUnderlyingHttpClient implements UnderlyingHttpClient<Void> {
     @Setter
     private Long delayMillis;
 
+    /**
+     * All requests that were made with this client, in the order they were made.
+     */
+    @Getter
+    private final List<HttpRequest> requests = new CopyOnWriteArrayList<>();
+
+    /**
+     * If disabled, the requests are not added to {@link #getRequests()}. Useful when a large amount of
+     * requests is made, such as in benchmarks.
+     */
+    @Getter
+    @Setter
+    private boolean recordRequests = true;
+
+    /**
+     * Mock responses of specific requests, which are used instead of the {@link #getMockResponse()}. The first
+     * one matching the request is used.
+     */
+    private final List<Map.Entry<Predicate<HttpRequest>, HttpResponse>> conditionalMockResponses = new CopyOnWriteArrayList<>();
+
+    /**
+     * Set a new mock response with headers to be used by the fake client.
+     */
+    public void setMockResponse(String mockContent, int statusCode, Map<String, List<String>> headers) {
+        this.mockResponse = new HttpResponse(mockContent, statusCode, headers);
+    }
+
+    /**
+     * Set a mock response to be used only for the requests matching the condition. For example, to respond
+     * differently to '{@code /v2/achievements}' and '{@code /v2/achievements?ids=1,2}'.
+     */
+    public void setMockResponseWhen(Predicate<HttpRequest> condition, String mockContent, int statusCode) {
+        setMockResponseWhen(condition, mockContent, statusCode, Map.of());
+    }
+
+    /**
+     * Same as {@link #setMockResponseWhen(Predicate, String, int)}, but the response also has headers.
+     */
+    public void setMockResponseWhen(Predicate<HttpRequest> condition, String mockContent, int statusCode, Map<String, List<String>> headers) {
+        conditionalMockResponses.add(Map.entry(condition, new HttpResponse(mockContent, statusCode, headers)));
+    }
+
     /**
      * Set a new mock response to be used by the fake client.
      */
     public void setMockResponse(String mockContent, int statusCode) {
-        this.mockResponse = new HttpResponse(mockContent, statusCode);
+        setMockResponse(mockContent, statusCode, Map.of());
     }
 
     /**
@@ -43,7 +90,15 @@ public class MockUnderlyingHttpClient implements UnderlyingHttpClient<Void> {
     @Override
     public CompletableFuture<HttpResponse> httpGetAsync(HttpRequest request) {
         log.debug("Mocking HTTP request to '{}'", request.url().toString());
-        final HttpResponse mockResponseCopy = new HttpResponse(mockResponse.content(), mockResponse.statusCode());
+        if(recordRequests) {
+            requests.add(request);
+        }
+        final HttpResponse response = conditionalMockResponses.stream()
+                .filter(conditionalResponse -> conditionalResponse.getKey().test(request))
+                .map(Map.Entry::getValue)
+                .findFirst()
+                .orElse(mockResponse);
+        final HttpResponse mockResponseCopy = new HttpResponse(response.body(), response.bodyLength(), response.statusCode(), response.headers(), response.transferredBytes());
         return CompletableFuture.supplyAsync(() -> {
             if(delayMillis != null) {
                 log.debug("Waiting '{}' milliseconds before making mock request", delayMillis);